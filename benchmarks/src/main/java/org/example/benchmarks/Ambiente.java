@@ -0,0 +1,99 @@
+package org.example.benchmarks;
+
+import org.example.EventCatalog;
+import org.example.GroupCommitter;
+import org.example.IdGenerator;
+import org.example.IngressoManager;
+import org.example.IngressoRepository;
+import org.example.Journal;
+import org.example.PasswordHasher;
+import org.example.SeatHoldManager;
+import org.example.SeatInventoryRegistry;
+import org.example.TicketService;
+import org.example.Usuario;
+import org.example.UsuarioManager;
+import org.example.UsuarioRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Um {@link TicketService} completo e sem interface gráfica, com os repositórios num diretório temporário,
+ * montado como em {@link TicketService#getInstance()} mas sem as instâncias compartilhadas.
+ *
+ * @author David Neves Dias
+ */
+final class Ambiente implements AutoCloseable {
+
+    private final Path diretorio;
+
+    private final Journal journalUsuarios;
+
+    private Journal journalIngressos;
+
+    final UsuarioRepository usuarios;
+
+    final IngressoRepository ingressos;
+
+    final TicketService servico;
+
+    /**
+     * Grava os usuários num snapshot novo e monta o serviço sobre ele.
+     *
+     * @param usuarios    Os usuários cadastrados.
+     * @param catalogo    O catálogo de eventos.
+     * @param hasher      O gerador de hashes das senhas.
+     * @param tamanhoLote O número máximo de registros por lote do commit agrupado dos ingressos.
+     * @throws IOException Se os arquivos não puderem ser criados.
+     */
+    Ambiente(List<Usuario> usuarios, EventCatalog catalogo, PasswordHasher hasher, int tamanhoLote) throws IOException {
+        this(usuarios, catalogo, hasher, tamanhoLote, GroupCommitter.ESPERA_PADRAO);
+    }
+
+    /**
+     * Grava os usuários num snapshot novo e monta o serviço sobre ele.
+     *
+     * @param usuarios    Os usuários cadastrados.
+     * @param catalogo    O catálogo de eventos.
+     * @param hasher      O gerador de hashes das senhas.
+     * @param tamanhoLote O número máximo de registros por lote do commit agrupado dos ingressos.
+     * @param espera      A janela de espera dos lotes do commit agrupado dos ingressos.
+     * @throws IOException Se os arquivos não puderem ser criados.
+     */
+    Ambiente(List<Usuario> usuarios, EventCatalog catalogo, PasswordHasher hasher, int tamanhoLote, Duration espera)
+            throws IOException {
+        this.diretorio = Dados.diretorio();
+        UsuarioManager usuarioManager = new UsuarioManager(diretorio.resolve("usuarios.json"), false);
+        usuarioManager.salvarUsuarios(usuarios);
+        this.journalUsuarios = new Journal(diretorio.resolve("usuarios.journal"));
+        this.journalIngressos = new Journal(diretorio.resolve("ingressos.journal"));
+        this.usuarios = new UsuarioRepository(usuarioManager, journalUsuarios);
+        this.ingressos = new IngressoRepository(new IngressoManager(diretorio.resolve("ingressos.json"), false), journalIngressos);
+        this.ingressos.configurarCommitAgrupado(tamanhoLote, espera);
+        this.servico = new TicketService(this.usuarios, ingressos, new SeatInventoryRegistry(ingressos),
+                new SeatHoldManager(), hasher, catalogo, IdGenerator.padrao());
+    }
+
+    /**
+     * Grava o snapshot dos ingressos e os lê de novo dos arquivos, como depois de reiniciar a aplicação.
+     * O repositório atual não deve mais ser usado depois disso.
+     *
+     * @return O repositório reaberto.
+     * @throws IOException Se ocorrer um erro ao gravar ou ler os arquivos.
+     */
+    IngressoRepository reabrirIngressos() throws IOException {
+        ingressos.compactar();
+        journalIngressos.close();
+        journalIngressos = new Journal(diretorio.resolve("ingressos.journal"));
+        return new IngressoRepository(new IngressoManager(diretorio.resolve("ingressos.json"), false), journalIngressos);
+    }
+
+    @Override
+    public void close() throws IOException {
+        journalUsuarios.close();
+        journalIngressos.close();
+        Dados.apagar(diretorio);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois resultados do JMH gravados com {@code -rf json}: uma execução de referência e a atual.
+ * Para cada benchmark e combinação de parâmetros presente nas duas, mostra as pontuações e a variação,
+ * marcando as diferenças maiores que a soma das margens de erro das duas medições.
+ * <p>
+ * Uso: {@code java -cp benchmarks.jar org.example.benchmarks.CompararResultados base.json atual.json}
+ *
+ * @author David Neves Dias
+ */
+public final class CompararResultados {
+
+    private CompararResultados() {
+    }
+
+    /**
+     * Executa a comparação.
+     *
+     * @param args O arquivo de referência e o arquivo atual.
+     * @throws IOException Se algum dos arquivos não puder ser lido.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CompararResultados <base.json> <atual.json>");
+            System.exit(2);
+        }
+        Map<String, Medicao> base = ler(Path.of(args[0]));
+        Map<String, Medicao> atual = ler(Path.of(args[1]));
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Base", "Atual", "Variação");
+        atual.forEach((chave, medicao) -> {
+            Medicao anterior = base.get(chave);
+            if (anterior == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", chave, "-", medicao.pontuacao(), "novo", medicao.unidade());
+                return;
+            }
+            double variacao = (medicao.pontuacao() - anterior.pontuacao()) / anterior.pontuacao() * 100;
+            boolean significativa = Math.abs(medicao.pontuacao() - anterior.pontuacao()) > medicao.erro() + anterior.erro();
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", chave, anterior.pontuacao(), medicao.pontuacao(),
+                    variacao, medicao.unidade(), significativa ? "  *" : "");
+        });
+    }
+
+    private static Map<String, Medicao> ler(Path arquivo) throws IOException {
+        Map<String, Medicao> medicoes = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            JsonArray resultados = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement elemento : resultados) {
+                JsonObject resultado = elemento.getAsJsonObject();
+                StringBuilder chave = new StringBuilder(resultado.get("benchmark").getAsString()
+                        .replace("org.example.benchmarks.", ""));
+                if (resultado.has("params")) {
+                    Map<String, String> parametros = new TreeMap<>();
+                    resultado.getAsJsonObject("params").entrySet()
+                            .forEach(parametro -> parametros.put(parametro.getKey(), parametro.getValue().getAsString()));
+                    chave.append(parametros);
+                }
+                JsonObject metrica = resultado.getAsJsonObject("primaryMetric");
+                double erro = metrica.get("scoreError").isJsonPrimitive() ? metrica.get("scoreError").getAsDouble() : 0;
+                medicoes.put(chave.toString(), new Medicao(metrica.get("score").getAsDouble(),
+                        Double.isNaN(erro) ? 0 : erro, metrica.get("scoreUnit").getAsString()));
+            }
+        }
+        return medicoes;
+    }
+
+    /**
+     * A pontuação de um benchmark.
+     *
+     * @param pontuacao A pontuação.
+     * @param erro      A margem de erro, com 99,9% de confiança.
+     * @param unidade   A unidade da pontuação.
+     */
+    private record Medicao(double pontuacao, double erro, String unidade) {
+    }
+}
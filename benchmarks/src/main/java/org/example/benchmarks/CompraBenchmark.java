@@ -0,0 +1,102 @@
+package org.example.benchmarks;
+
+import org.example.EventCatalog;
+import org.example.Evento;
+import org.example.PasswordHasher;
+import org.example.ResultadoCompra;
+import org.example.TicketService;
+import org.example.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de compra da tela de compra, sem a interface gráfica: {@link TicketService#comprar} reserva
+ * os assentos, gera os ingressos e espera a gravação durável do journal pelo commit agrupado.
+ * <p>
+ * Várias threads compram ao mesmo tempo, e {@code tamanhoLote} varia o número máximo de compras
+ * por sincronização com o disco; {@code tamanhoLote=1} equivale a uma sincronização por compra.
+ * O número de threads pode ser alterado com a opção {@code -t} do JMH.
+ *
+ * @author David Neves Dias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CompraBenchmark {
+
+    private static final int EVENTOS = 100;
+
+    @Param({"1000", "100000"})
+    private int usuarios;
+
+    @Param({"1", "16", "128"})
+    private int tamanhoLote;
+
+    @Param({"1", "4"})
+    private int ingressosPorCompra;
+
+    private PasswordHasher hasher;
+
+    private Ambiente ambiente;
+
+    private List<String> eventos;
+
+    private List<String> usuariosIds;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        List<Evento> catalogo = new ArrayList<>(EVENTOS);
+        Instant data = Instant.parse("2030-01-01T20:00:00Z");
+        for (int i = 0; i < EVENTOS; i++) {
+            Map<String, String> nomes = Map.of("pt-BR", "Evento " + i);
+            catalogo.add(new Evento("e" + i, "show", data.plusSeconds(3600L * i), Integer.MAX_VALUE,
+                    nomes, Map.of("pt-BR", "Show"), "pt-BR"));
+        }
+        hasher = new PasswordHasher(1, 16, 1000);
+        ambiente = new Ambiente(Dados.usuarios(usuarios, "senha"), new EventCatalog(catalogo, "pt-BR"), hasher, tamanhoLote);
+        eventos = catalogo.stream().map(Evento::getId).toList();
+        usuariosIds = ambiente.usuarios.listar().stream().map(Usuario::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        ambiente.close();
+        hasher.close();
+    }
+
+    @Benchmark
+    public ResultadoCompra comprar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String usuarioId = usuariosIds.get(random.nextInt(usuariosIds.size()));
+        String eventoId = eventos.get(random.nextInt(eventos.size()));
+        ResultadoCompra resultado = ambiente.servico.comprar(usuarioId, eventoId, ingressosPorCompra, null).join();
+        if (!resultado.sucesso()) {
+            throw new IllegalStateException("Compra recusada: " + resultado.status());
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.benchmarks;
+
+import org.example.Usuario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Geração dos conjuntos de dados dos benchmarks.
+ * Os dados são determinísticos, para que execuções diferentes meçam exatamente o mesmo trabalho.
+ *
+ * @author David Neves Dias
+ */
+final class Dados {
+
+    private Dados() {
+    }
+
+    /**
+     * Gera usuários com IDs, e-mails e CPFs únicos.
+     *
+     * @param quantidade A quantidade de usuários.
+     * @param senha      A senha armazenada de todos os usuários.
+     * @return Os usuários gerados.
+     */
+    static List<Usuario> usuarios(int quantidade, String senha) {
+        List<Usuario> usuarios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            usuarios.add(new Usuario("Usuário " + i, senha, cpf(i), email(i), false, String.format("u%08d", i)));
+        }
+        return usuarios;
+    }
+
+    /**
+     * Retorna o e-mail do usuário de número informado.
+     *
+     * @param i O número do usuário.
+     * @return O e-mail.
+     */
+    static String email(int i) {
+        return "usuario" + i + "@exemplo.com";
+    }
+
+    /**
+     * Retorna o CPF do usuário de número informado.
+     *
+     * @param i O número do usuário.
+     * @return O CPF, formatado.
+     */
+    static String cpf(int i) {
+        String digitos = String.format("%011d", i);
+        return digitos.substring(0, 3) + '.' + digitos.substring(3, 6) + '.' + digitos.substring(6, 9) + '-' + digitos.substring(9);
+    }
+
+    /**
+     * Cria um diretório temporário para os arquivos de um benchmark.
+     *
+     * @return O diretório criado.
+     * @throws IOException Se o diretório não puder ser criado.
+     */
+    static Path diretorio() throws IOException {
+        return Files.createTempDirectory("venda-bench");
+    }
+
+    /**
+     * Apaga um diretório temporário e todo o seu conteúdo.
+     *
+     * @param diretorio O diretório.
+     * @throws IOException Se algum arquivo não puder ser apagado.
+     */
+    static void apagar(Path diretorio) throws IOException {
+        if (diretorio == null || !Files.exists(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(arquivo);
+            }
+        }
+    }
+}
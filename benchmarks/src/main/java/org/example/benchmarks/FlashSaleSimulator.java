@@ -0,0 +1,392 @@
+package org.example.benchmarks;
+
+import org.example.EventCatalog;
+import org.example.Evento;
+import org.example.Ingresso;
+import org.example.IngressoRepository;
+import org.example.PasswordHasher;
+import org.example.ResultadoCompra;
+import org.example.SeatHold;
+import org.example.TicketService;
+import org.example.Usuario;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulador da abertura de vendas de um evento, sem interface gráfica.
+ * <p>
+ * Cada comprador é uma thread virtual que se cadastra (opcionalmente), faz login e espera a abertura;
+ * todos são então liberados ao mesmo tempo para reservar e comprar ingressos do mesmo evento pelo
+ * {@link TicketService}, como fariam as telas de login e de compra. Ao final, o relatório mostra a vazão,
+ * as latências de cada etapa, os erros e a consistência das vendas: ingressos vendidos além da
+ * capacidade e ingressos confirmados ao comprador que não foram encontrados ao reabrir os arquivos.
+ * <p>
+ * O cenário é lido de um arquivo de propriedades (veja {@code benchmarks/flash-sale.properties}).
+ * As quantidades pedidas e a ordem de partida dos compradores vêm de uma semente fixa; só o
+ * escalonamento das threads varia entre execuções.
+ * <p>
+ * Uso: {@code java -cp benchmarks.jar org.example.benchmarks.FlashSaleSimulator cenario.properties}.
+ * O código de saída é 1 se houver venda além da capacidade ou ingresso perdido.
+ *
+ * @author David Neves Dias
+ */
+public final class FlashSaleSimulator {
+
+    private static final String SENHA = "senha-do-simulador";
+
+    private static final String EVENTO = "abertura";
+
+    private final Cenario cenario;
+
+    private final Latencias cadastros;
+
+    private final Latencias logins;
+
+    private final Latencias compras;
+
+    private final Map<String, LongAdder> erros = new ConcurrentHashMap<>();
+
+    private final Map<ResultadoCompra.Status, LongAdder> desfechos = new ConcurrentHashMap<>();
+
+    private final Queue<Ingresso> confirmados = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cria o simulador de um cenário.
+     *
+     * @param cenario O cenário.
+     */
+    public FlashSaleSimulator(Cenario cenario) {
+        this.cenario = cenario;
+        this.cadastros = new Latencias(cenario.cadastrar() ? cenario.compradores() : 0);
+        this.logins = new Latencias(cenario.compradores());
+        this.compras = new Latencias(cenario.compradores());
+    }
+
+    /**
+     * Executa o cenário de um arquivo e imprime o relatório.
+     *
+     * @param args O caminho do arquivo do cenário.
+     * @throws Exception Se o cenário não puder ser lido ou o ambiente não puder ser montado.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Uso: FlashSaleSimulator <cenario.properties>");
+            System.exit(2);
+        }
+        Cenario cenario = Cenario.ler(Path.of(args[0]));
+        boolean consistente = new FlashSaleSimulator(cenario).executar(System.out);
+        System.exit(consistente ? 0 : 1);
+    }
+
+    /**
+     * Executa o cenário.
+     *
+     * @param saida Onde o relatório é impresso.
+     * @return {@code true} se nenhum ingresso foi vendido além da capacidade nem perdido.
+     * @throws IOException          Se o ambiente não puder ser montado ou reaberto.
+     * @throws InterruptedException Se a thread for interrompida enquanto espera os compradores.
+     */
+    public boolean executar(PrintStream saida) throws IOException, InterruptedException {
+        Random random = new Random(cenario.semente());
+        int[] quantidades = new int[cenario.compradores()];
+        for (int i = 0; i < quantidades.length; i++) {
+            quantidades[i] = 1 + random.nextInt(cenario.maximoPorCompra());
+        }
+        List<Integer> ordem = new ArrayList<>(quantidades.length);
+        for (int i = 0; i < quantidades.length; i++) {
+            ordem.add(i);
+        }
+        Collections.shuffle(ordem, random);
+
+        Evento evento = new Evento(EVENTO, "show", Instant.now().plus(Duration.ofDays(30)), cenario.capacidade(),
+                Map.of("pt-BR", "Abertura de vendas"), Map.of("pt-BR", "Show"), "pt-BR");
+        try (PasswordHasher hasher = new PasswordHasher(cenario.threadsSenha(), cenario.filaSenha(), cenario.iteracoes())) {
+            List<Usuario> previos = cenario.cadastrar()
+                    ? List.of()
+                    : Dados.usuarios(cenario.compradores(), hasher.hash(SENHA).join());
+            try (Ambiente ambiente = new Ambiente(previos, new EventCatalog(List.of(evento), "pt-BR"), hasher,
+                    cenario.tamanhoLote(), cenario.espera())) {
+                return simular(ambiente, evento, quantidades, ordem, saida);
+            }
+        }
+    }
+
+    private boolean simular(Ambiente ambiente, Evento evento, int[] quantidades, List<Integer> ordem, PrintStream saida)
+            throws IOException, InterruptedException {
+        TicketService servico = ambiente.servico;
+        Semaphore concorrencia = new Semaphore(cenario.concorrencia());
+        CountDownLatch prontos = new CountDownLatch(quantidades.length);
+        CountDownLatch abertura = new CountDownLatch(1);
+        AtomicInteger autenticados = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        long inicioVendas;
+        long fimVendas;
+        try (ExecutorService compradores = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int comprador : ordem) {
+                compradores.execute(() -> {
+                    String usuarioId;
+                    try {
+                        usuarioId = entrar(servico, concorrencia, comprador);
+                    } finally {
+                        prontos.countDown();
+                    }
+                    if (usuarioId == null) {
+                        return;
+                    }
+                    autenticados.incrementAndGet();
+                    try {
+                        abertura.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    comprar(servico, concorrencia, usuarioId, quantidades[comprador]);
+                });
+            }
+            prontos.await();
+            inicioVendas = System.nanoTime();
+            abertura.countDown();
+        }
+        fimVendas = System.nanoTime();
+
+        long vendidos = confirmados.size();
+        int emMemoria = ambiente.ingressos.contarPorEvento(EVENTO);
+        int restantes = servico.assentosRestantes(evento);
+        IngressoRepository reaberto = ambiente.reabrirIngressos();
+        int gravados = reaberto.contarPorEvento(EVENTO);
+        Set<String> ids = new HashSet<>();
+        long duplicados = 0;
+        long perdidos = 0;
+        for (Ingresso ingresso : confirmados) {
+            if (!ids.add(ingresso.getId())) {
+                duplicados++;
+            }
+            if (reaberto.buscarPorId(ingresso.getId()).isEmpty()) {
+                perdidos++;
+            }
+        }
+        long alemDaCapacidade = Math.max(0, Math.max(vendidos, gravados) - cenario.capacidade());
+
+        saida.println("Cenário: " + cenario);
+        saida.printf("Preparação: %d de %d compradores autenticados em %.1f ms%n", autenticados.get(),
+                quantidades.length, (inicioVendas - inicio) / 1e6);
+        if (cenario.cadastrar()) {
+            saida.println("  cadastro " + cadastros.resumo());
+        }
+        saida.println("  login    " + logins.resumo());
+        double segundos = (fimVendas - inicioVendas) / 1e9;
+        saida.printf("Vendas: %d compras em %.1f ms (%.0f compras/s, %.0f ingressos/s)%n", compras.quantidade(),
+                segundos * 1e3, compras.quantidade() / segundos, vendidos / segundos);
+        saida.println("  compra   " + compras.resumo());
+        saida.println("  desfechos " + new TreeMap<>(desfechos));
+        saida.println("  erros     " + new TreeMap<>(erros));
+        saida.printf("Consistência: capacidade %d, confirmados %d, em memória %d, gravados %d, restantes %d%n",
+                cenario.capacidade(), vendidos, emMemoria, gravados, restantes);
+        saida.printf("  além da capacidade %d, perdidos %d, duplicados %d, assentos sem ingresso %d%n",
+                alemDaCapacidade, perdidos, duplicados, cenario.capacidade() - restantes - emMemoria);
+        return alemDaCapacidade == 0 && perdidos == 0 && duplicados == 0;
+    }
+
+    /**
+     * Cadastra (se o cenário pedir) e autentica um comprador.
+     *
+     * @return O ID do comprador, ou {@code null} se uma das etapas falhar.
+     */
+    private String entrar(TicketService servico, Semaphore concorrencia, int comprador) {
+        String email = Dados.email(comprador);
+        try {
+            concorrencia.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            if (cenario.cadastrar()) {
+                long inicio = System.nanoTime();
+                Optional<Usuario> cadastrado = servico.cadastrar("Comprador " + comprador, SENHA, Dados.cpf(comprador), email);
+                cadastros.registrar(System.nanoTime() - inicio);
+                if (cadastrado.isEmpty()) {
+                    erro("cadastro", "duplicado");
+                    return null;
+                }
+            }
+            long inicio = System.nanoTime();
+            Optional<String> id = servico.autenticar(email, SENHA).join();
+            logins.registrar(System.nanoTime() - inicio);
+            if (id.isEmpty()) {
+                erro("login", "credenciais invalidas");
+            }
+            return id.orElse(null);
+        } catch (IOException | RuntimeException e) {
+            erro(cenario.cadastrar() ? "cadastro/login" : "login", e);
+            return null;
+        } finally {
+            concorrencia.release();
+        }
+    }
+
+    /**
+     * Reserva (se o cenário pedir) e compra os ingressos de um comprador autenticado.
+     */
+    private void comprar(TicketService servico, Semaphore concorrencia, String usuarioId, int quantidade) {
+        try {
+            concorrencia.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            String holdId = null;
+            if (cenario.reservar()) {
+                Optional<SeatHold> reserva = servico.reservar(usuarioId, EVENTO, quantidade);
+                if (reserva.isEmpty()) {
+                    compras.registrar(System.nanoTime() - inicio);
+                    desfechos.computeIfAbsent(ResultadoCompra.Status.ESGOTADO, s -> new LongAdder()).increment();
+                    return;
+                }
+                holdId = reserva.get().getId();
+            }
+            ResultadoCompra resultado = servico.comprar(usuarioId, EVENTO, quantidade, holdId).join();
+            compras.registrar(System.nanoTime() - inicio);
+            desfechos.computeIfAbsent(resultado.status(), s -> new LongAdder()).increment();
+            confirmados.addAll(resultado.ingressos());
+        } catch (RuntimeException e) {
+            compras.registrar(System.nanoTime() - inicio);
+            erro("compra", e);
+        } finally {
+            concorrencia.release();
+        }
+    }
+
+    private void erro(String etapa, Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        erro(etapa, causa.getClass().getSimpleName());
+    }
+
+    private void erro(String etapa, String tipo) {
+        erros.computeIfAbsent(etapa + ": " + tipo, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Latências de uma etapa, guardadas todas para o cálculo exato dos percentis.
+     */
+    private static final class Latencias {
+
+        private final long[] nanos;
+
+        private final AtomicInteger quantidade = new AtomicInteger();
+
+        Latencias(int capacidade) {
+            this.nanos = new long[capacidade];
+        }
+
+        void registrar(long duracao) {
+            int posicao = quantidade.getAndIncrement();
+            if (posicao < nanos.length) {
+                nanos[posicao] = duracao;
+            }
+        }
+
+        int quantidade() {
+            return Math.min(quantidade.get(), nanos.length);
+        }
+
+        String resumo() {
+            int n = quantidade();
+            if (n == 0) {
+                return "n=0";
+            }
+            long[] ordenadas = Arrays.copyOf(nanos, n);
+            Arrays.sort(ordenadas);
+            return String.format("n=%d p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms", n,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), percentil(ordenadas, 0.999),
+                    ordenadas[n - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenadas, double fracao) {
+            int posicao = (int) Math.ceil(fracao * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, posicao)] / 1e6;
+        }
+    }
+
+    /**
+     * Parâmetros de um cenário de abertura de vendas.
+     *
+     * @param compradores     A quantidade de compradores.
+     * @param capacidade      Os assentos do evento.
+     * @param maximoPorCompra O máximo de ingressos pedidos por um comprador.
+     * @param semente         A semente das quantidades e da ordem dos compradores.
+     * @param cadastrar       Se os compradores se cadastram pelo serviço durante a simulação.
+     * @param reservar        Se os compradores reservam os assentos antes de comprar.
+     * @param iteracoes       O custo do hash das senhas.
+     * @param threadsSenha    As threads do pool de hash.
+     * @param filaSenha       A fila do pool de hash.
+     * @param tamanhoLote     O tamanho máximo do lote do commit agrupado.
+     * @param espera          A janela de espera do commit agrupado.
+     * @param concorrencia    Quantos compradores podem estar numa operação ao mesmo tempo.
+     */
+    public record Cenario(int compradores, int capacidade, int maximoPorCompra, long semente, boolean cadastrar,
+                          boolean reservar, int iteracoes, int threadsSenha, int filaSenha, int tamanhoLote,
+                          Duration espera, int concorrencia) {
+
+        /**
+         * Lê um cenário de um arquivo de propriedades. As propriedades ausentes ficam com os valores
+         * do arquivo de exemplo.
+         *
+         * @param arquivo O arquivo do cenário.
+         * @return O cenário.
+         * @throws IOException Se o arquivo não puder ser lido.
+         * @throws NumberFormatException Se algum valor numérico for inválido.
+         */
+        public static Cenario ler(Path arquivo) throws IOException {
+            Properties propriedades = new Properties();
+            try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                propriedades.load(reader);
+            }
+            int compradores = Integer.parseInt(propriedades.getProperty("compradores", "50000").trim());
+            return new Cenario(
+                    compradores,
+                    Integer.parseInt(propriedades.getProperty("capacidade", "10000").trim()),
+                    Integer.parseInt(propriedades.getProperty("ingressosPorCompra.maximo", "4").trim()),
+                    Long.parseLong(propriedades.getProperty("semente", "42").trim()),
+                    Boolean.parseBoolean(propriedades.getProperty("cadastrar", "false").trim()),
+                    Boolean.parseBoolean(propriedades.getProperty("reservar", "true").trim()),
+                    Integer.parseInt(propriedades.getProperty("senha.iteracoes", "1000").trim()),
+                    Integer.parseInt(propriedades.getProperty("senha.threads", "8").trim()),
+                    Integer.parseInt(propriedades.getProperty("senha.fila", "100000").trim()),
+                    Integer.parseInt(propriedades.getProperty("commit.lote", "128").trim()),
+                    Duration.ofNanos(1000 * Long.parseLong(propriedades.getProperty("commit.espera.micros", "1000").trim())),
+                    Integer.parseInt(propriedades.getProperty("concorrencia", String.valueOf(compradores)).trim()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.benchmarks;
+
+import org.example.EventCatalog;
+import org.example.PasswordHasher;
+import org.example.TicketService;
+import org.example.Usuario;
+import org.example.UsuarioRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de credenciais como feita pela tela de login: a busca do usuário pelo e-mail no
+ * {@link UsuarioRepository} e a autenticação completa pelo {@link TicketService}, que inclui
+ * a verificação do hash da senha.
+ * <p>
+ * A autenticação é medida com o custo padrão do hash e com um custo baixo, que deixa aparente
+ * o tempo gasto fora da derivação da chave.
+ *
+ * @author David Neves Dias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoginBenchmark {
+
+    private static final String SENHA = "senha-do-benchmark";
+
+    @Param({"1000", "100000", "1000000"})
+    private int usuarios;
+
+    @Param({"1000", "120000"})
+    private int iteracoes;
+
+    private PasswordHasher hasher;
+
+    private Ambiente ambiente;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        hasher = new PasswordHasher(Runtime.getRuntime().availableProcessors(), 1024, iteracoes);
+        // Todos os usuários compartilham o mesmo hash, para que a preparação não dependa do custo do hash.
+        List<Usuario> cadastrados = Dados.usuarios(usuarios, hasher.hash(SENHA).join());
+        ambiente = new Ambiente(cadastrados, new EventCatalog(List.of()), hasher, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        ambiente.close();
+        hasher.close();
+    }
+
+    private String emailAleatorio() {
+        return Dados.email(ThreadLocalRandom.current().nextInt(usuarios));
+    }
+
+    /**
+     * Só a busca pelo e-mail, sem a verificação da senha. Não depende de {@code iteracoes};
+     * use {@code -p iteracoes=1000} para medi-la uma única vez por tamanho.
+     */
+    @Benchmark
+    public Optional<Usuario> buscarPorEmail() {
+        return ambiente.usuarios.buscarPorEmail(emailAleatorio());
+    }
+
+    @Benchmark
+    public Optional<String> autenticar() {
+        return ambiente.servico.autenticar(emailAleatorio(), SENHA).join();
+    }
+}
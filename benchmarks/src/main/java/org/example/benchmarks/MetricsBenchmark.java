@@ -0,0 +1,53 @@
+package org.example.benchmarks;
+
+import org.example.LatencyHistogram;
+import org.example.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Custo da instrumentação: o que cada caminho medido paga por operação, com várias threads
+ * registrando nas mesmas métricas. Deve ficar muito abaixo de 1% das latências de
+ * {@link CompraBenchmark} e {@link LoginBenchmark}.
+ *
+ * @author David Neves Dias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private final LatencyHistogram histograma = MetricsRegistry.getInstance().histograma("benchmark.latencia");
+
+    private final LongAdder contador = MetricsRegistry.getInstance().contador("benchmark.contador");
+
+    @Benchmark
+    public void registrarLatencia() {
+        histograma.registrarDesde(System.nanoTime() - 1_500_000);
+    }
+
+    @Benchmark
+    public void incrementarContador() {
+        contador.increment();
+    }
+
+    @Benchmark
+    public void contadorPorNome() {
+        MetricsRegistry.getInstance().contador("benchmark.porNome").increment();
+    }
+}
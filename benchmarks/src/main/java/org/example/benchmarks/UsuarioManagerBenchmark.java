@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.example.Usuario;
+import org.example.UsuarioManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura e gravação do snapshot JSON de usuários pelo {@link UsuarioManager}.
+ * A gravação inclui a sincronização com o disco e a troca atômica do arquivo, como na compactação.
+ *
+ * @author David Neves Dias
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UsuarioManagerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int usuarios;
+
+    private Path diretorio;
+
+    private UsuarioManager manager;
+
+    private List<Usuario> dados;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        diretorio = Dados.diretorio();
+        manager = new UsuarioManager(diretorio.resolve("usuarios.json"), false);
+        dados = Dados.usuarios(usuarios, "senha");
+        manager.salvarUsuarios(dados);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        Dados.apagar(diretorio);
+    }
+
+    @Benchmark
+    public List<Usuario> lerConteudoArquivo() throws IOException {
+        return manager.lerConteudoArquivo();
+    }
+
+    @Benchmark
+    public void salvarUsuarios() throws IOException {
+        manager.salvarUsuarios(dados);
+    }
+}
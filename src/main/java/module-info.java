@@ -5,6 +5,9 @@ module org.example.main {
     requires org.controlsfx.controls;
     requires org.kordamp.bootstrapfx.core;
     requires com.google.gson;
+    requires jdk.httpserver;
+    requires java.management;
+    requires jdk.jfr;
 
 
     opens org.example to javafx.fxml, com.google.gson;
@@ -0,0 +1,464 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Formato binário de snapshot, lido por {@link FileChannel#map} sem interpretar o arquivo inteiro.
+ * <p>
+ * Layout do arquivo (inteiros em little-endian):
+ * <pre>
+ * cabeçalho (48 bytes): mágica, versão, tipo, largura do registro, quantidade de registros,
+ *                       quantidade de índices, início dos registros, início dos índices, início dos textos
+ * registros:            quantidade × largura bytes, de largura fixa
+ * índices:              para cada índice, quantidade × int com os registros ordenados pela chave
+ * textos:               os bytes UTF-8 de todos os textos, sem repetição
+ * </pre>
+ * Os textos são referenciados nos registros por um {@code long} com o início (32 bits altos)
+ * e o tamanho (32 bits baixos) dentro da tabela de textos; {@link #NULO} representa {@code null}.
+ * Os índices são ordenados pelos bytes UTF-8 das chaves, comparados sem sinal, e permitem
+ * busca binária direto no arquivo mapeado.
+ * <p>
+ * O arquivo mapeado é limitado a 2 GB.
+ * <p>
+ * A aplicação grava cada snapshot numa nova geração ({@code usuarios.1.snap}, {@code usuarios.2.snap}, ...)
+ * em vez de substituir o arquivo, porque o anterior pode continuar mapeado: o Windows não permite
+ * substituir um arquivo mapeado, e nos demais sistemas o espaço do arquivo substituído só seria
+ * liberado ao fim do processo. O arquivo sem número, como o gerado pelo {@link SnapshotConverter},
+ * é a geração 0. As gerações anteriores são apagadas assim que possível
+ * (veja {@link #apagarGeracoesAnteriores(Path, Path)}).
+ *
+ * @author David Neves Dias
+ */
+final class BinarySnapshot {
+
+    private static final System.Logger LOGGER = System.getLogger(BinarySnapshot.class.getName());
+
+    /** Referência de texto que representa {@code null}. */
+    static final long NULO = -1L;
+
+    private static final int MAGICA = 0x53444E56; // "VNDS"
+
+    private static final int VERSAO = 1;
+
+    private static final int TAMANHO_CABECALHO = 48;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Indica se os snapshots devem ser gravados no formato binário, conforme a propriedade
+     * {@code venda.snapshot.formato} ({@code binario} ou {@code json}, o padrão).
+     *
+     * @return {@code true} se o formato configurado for o binário.
+     */
+    static boolean binarioConfigurado() {
+        return "binario".equals(System.getProperty("venda.snapshot.formato"));
+    }
+
+    /**
+     * Retorna o caminho do snapshot binário correspondente a um snapshot JSON,
+     * trocando a extensão {@code .json} por {@code .snap}.
+     *
+     * @param json O caminho do snapshot JSON.
+     * @return O caminho do snapshot binário.
+     */
+    static Path caminhoBinario(Path json) {
+        String nome = json.getFileName().toString();
+        String base = nome.endsWith(".json") ? nome.substring(0, nome.length() - ".json".length()) : nome;
+        return json.resolveSibling(base + ".snap");
+    }
+
+    /**
+     * Retorna a geração mais recente do snapshot binário, se alguma já tiver sido gravada.
+     *
+     * @param arquivo O caminho do snapshot binário, sem número de geração.
+     * @return O caminho da geração mais recente, ou vazio se não houver nenhuma.
+     * @throws IOException Se ocorrer um erro ao listar o diretório.
+     */
+    static Optional<Path> geracaoAtual(Path arquivo) throws IOException {
+        List<Path> geracoes = geracoes(arquivo);
+        return geracoes.isEmpty() ? Optional.empty() : Optional.of(geracoes.getLast());
+    }
+
+    /**
+     * Retorna o caminho da próxima geração do snapshot binário, posterior a todas as existentes.
+     *
+     * @param arquivo O caminho do snapshot binário, sem número de geração.
+     * @return O caminho da nova geração, que ainda não existe.
+     * @throws IOException Se ocorrer um erro ao listar o diretório.
+     */
+    static Path proximaGeracao(Path arquivo) throws IOException {
+        long proxima = geracaoAtual(arquivo).map(atual -> geracao(arquivo, atual) + 1).orElse(1L);
+        return caminhoGeracao(arquivo, proxima);
+    }
+
+    /**
+     * Apaga as gerações anteriores à informada. Uma geração que ainda esteja mapeada pode não
+     * ser apagada (no Windows); ela fica para a próxima chamada, depois da próxima gravação
+     * ou abertura do snapshot.
+     *
+     * @param arquivo O caminho do snapshot binário, sem número de geração.
+     * @param atual   A geração em uso, que é mantida.
+     */
+    static void apagarGeracoesAnteriores(Path arquivo, Path atual) {
+        long numeroAtual = geracao(arquivo, atual);
+        try {
+            for (Path anterior : geracoes(arquivo)) {
+                if (geracao(arquivo, anterior) < numeroAtual) {
+                    try {
+                        Files.deleteIfExists(anterior);
+                    } catch (IOException e) {
+                        LOGGER.log(System.Logger.Level.DEBUG, "Geração anterior ainda em uso: " + anterior, e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Falha ao listar as gerações de " + arquivo, e);
+        }
+    }
+
+    /**
+     * Lista as gerações existentes do snapshot binário, da mais antiga para a mais recente.
+     */
+    private static List<Path> geracoes(Path arquivo) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(caminho -> geracao(arquivo, caminho) >= 0)
+                    .sorted((a, b) -> Long.compare(geracao(arquivo, a), geracao(arquivo, b)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Retorna o número de geração de um arquivo, 0 para o arquivo sem número
+     * ou -1 se o arquivo não for uma geração do snapshot.
+     */
+    private static long geracao(Path arquivo, Path caminho) {
+        String nome = caminho.getFileName().toString();
+        String base = arquivo.getFileName().toString();
+        if (nome.equals(base)) {
+            return 0;
+        }
+        String prefixo = base.substring(0, base.length() - ".snap".length()) + ".";
+        if (!nome.startsWith(prefixo) || !nome.endsWith(".snap")) {
+            return -1;
+        }
+        String numero = nome.substring(prefixo.length(), nome.length() - ".snap".length());
+        if (numero.isEmpty() || numero.length() > 18 || !numero.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        return Long.parseLong(numero);
+    }
+
+    private static Path caminhoGeracao(Path arquivo, long geracao) {
+        String base = arquivo.getFileName().toString();
+        return arquivo.resolveSibling(base.substring(0, base.length() - ".snap".length()) + "." + geracao + ".snap");
+    }
+
+    /**
+     * Monta um snapshot binário em memória e o grava atomicamente.
+     */
+    static final class Escritor {
+
+        private final int tipo;
+
+        private final int largura;
+
+        private final int quantidade;
+
+        private final ByteBuffer registros;
+
+        private final int[][] indices;
+
+        private final Map<String, Long> textos = new HashMap<>();
+
+        private final ByteArrayBuilder tabelaTextos = new ByteArrayBuilder();
+
+        /**
+         * Cria um escritor para a quantidade de registros informada.
+         *
+         * @param tipo       O identificador do tipo dos registros, conferido na leitura.
+         * @param largura    O tamanho de cada registro, em bytes.
+         * @param quantidade A quantidade de registros.
+         * @param indices    A quantidade de índices ordenados.
+         */
+        Escritor(int tipo, int largura, int quantidade, int indices) {
+            this.tipo = tipo;
+            this.largura = largura;
+            this.quantidade = quantidade;
+            this.registros = ByteBuffer.allocate(Math.multiplyExact(largura, quantidade)).order(ByteOrder.LITTLE_ENDIAN);
+            this.indices = new int[indices][];
+        }
+
+        /**
+         * Acrescenta um texto à tabela de textos, reaproveitando textos repetidos.
+         *
+         * @param texto O texto, possivelmente {@code null}.
+         * @return A referência ao texto.
+         */
+        long texto(String texto) {
+            if (texto == null) {
+                return NULO;
+            }
+            Long existente = textos.get(texto);
+            if (existente != null) {
+                return existente;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            long referencia = ((long) tabelaTextos.tamanho() << 32) | bytes.length;
+            tabelaTextos.adicionar(bytes);
+            textos.put(texto, referencia);
+            return referencia;
+        }
+
+        void putLong(int registro, int campo, long valor) {
+            registros.putLong(registro * largura + campo, valor);
+        }
+
+        void putByte(int registro, int campo, byte valor) {
+            registros.put(registro * largura + campo, valor);
+        }
+
+        /**
+         * Define um índice ordenado pelas chaves informadas. Registros com chave {@code null}
+         * ficam no início e nunca são encontrados pela busca.
+         *
+         * @param indice O número do índice.
+         * @param chaves A chave de cada registro, na ordem dos registros.
+         */
+        void indice(int indice, String[] chaves) {
+            byte[][] bytes = new byte[chaves.length][];
+            for (int i = 0; i < chaves.length; i++) {
+                bytes[i] = chaves[i] == null ? null : chaves[i].getBytes(StandardCharsets.UTF_8);
+            }
+            Integer[] ordem = new Integer[chaves.length];
+            for (int i = 0; i < ordem.length; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> {
+                if (bytes[a] == null || bytes[b] == null) {
+                    return bytes[a] == null ? (bytes[b] == null ? 0 : -1) : 1;
+                }
+                return Arrays.compareUnsigned(bytes[a], bytes[b]);
+            });
+            indices[indice] = Arrays.stream(ordem).mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Grava o snapshot num arquivo temporário e o renomeia atomicamente para o arquivo informado.
+         * A aplicação sempre grava numa geração nova (veja {@link #proximaGeracao(Path)}), de modo que
+         * o renome nunca substitui um arquivo mapeado; só o {@link SnapshotConverter} pode substituir um destino.
+         *
+         * @param arquivo O caminho do snapshot.
+         * @throws IOException Se ocorrer um erro ao escrever o arquivo ou se ele passar de 2 GB.
+         */
+        void gravar(Path arquivo) throws IOException {
+            long inicioRegistros = TAMANHO_CABECALHO;
+            long inicioIndices = inicioRegistros + (long) largura * quantidade;
+            long inicioTextos = inicioIndices + 4L * quantidade * indices.length;
+            if (inicioTextos + tabelaTextos.tamanho() > Integer.MAX_VALUE) {
+                throw new IOException("O snapshot binário não pode passar de 2 GB.");
+            }
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+            cabecalho.putInt(MAGICA).putInt(VERSAO).putInt(tipo).putInt(largura)
+                    .putInt(quantidade).putInt(indices.length)
+                    .putLong(inicioRegistros).putLong(inicioIndices).putLong(inicioTextos)
+                    .flip();
+            ByteBuffer bufferIndices = ByteBuffer.allocate(4 * quantidade * indices.length).order(ByteOrder.LITTLE_ENDIAN);
+            for (int[] indice : indices) {
+                for (int registro : indice == null ? new int[quantidade] : indice) {
+                    bufferIndices.putInt(registro);
+                }
+            }
+            bufferIndices.flip();
+            registros.clear();
+
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            try (FileChannel canal = FileChannel.open(temporario,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer parte : new ByteBuffer[]{cabecalho, registros, bufferIndices, tabelaTextos.comoBuffer()}) {
+                    while (parte.hasRemaining()) {
+                        canal.write(parte);
+                    }
+                }
+                canal.force(true);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            JsonSnapshot.sincronizarDiretorio(arquivo.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Visão somente leitura de um snapshot binário mapeado em memória.
+     * Todas as leituras usam posições absolutas, de modo que a visão pode ser compartilhada entre threads.
+     */
+    static final class Leitor {
+
+        private final ByteBuffer buffer;
+
+        private final int largura;
+
+        private final int quantidade;
+
+        private final int inicioRegistros;
+
+        private final int inicioIndices;
+
+        private final int inicioTextos;
+
+        private Leitor(ByteBuffer buffer, int tipoEsperado) throws IOException {
+            this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < TAMANHO_CABECALHO || buffer.getInt(0) != MAGICA) {
+                throw new IOException("Arquivo não é um snapshot binário.");
+            }
+            if (buffer.getInt(4) != VERSAO || buffer.getInt(8) != tipoEsperado) {
+                throw new IOException("Versão ou tipo de snapshot binário não suportado.");
+            }
+            this.largura = buffer.getInt(12);
+            this.quantidade = buffer.getInt(16);
+            this.inicioRegistros = (int) buffer.getLong(24);
+            this.inicioIndices = (int) buffer.getLong(32);
+            this.inicioTextos = (int) buffer.getLong(40);
+        }
+
+        /**
+         * Mapeia um snapshot binário em memória. Só o cabeçalho é lido; as páginas dos registros
+         * são carregadas pelo sistema operacional à medida que forem acessadas.
+         *
+         * @param arquivo      O caminho do snapshot.
+         * @param tipoEsperado O identificador do tipo dos registros.
+         * @return A visão do snapshot.
+         * @throws IOException Se o arquivo não puder ser lido ou não for um snapshot do tipo esperado.
+         */
+        static Leitor abrir(Path arquivo, int tipoEsperado) throws IOException {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                if (canal.size() > Integer.MAX_VALUE) {
+                    throw new IOException("O snapshot binário não pode passar de 2 GB.");
+                }
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                return new Leitor(mapa, tipoEsperado);
+            }
+        }
+
+        int quantidade() {
+            return quantidade;
+        }
+
+        long getLong(int registro, int campo) {
+            return buffer.getLong(inicioRegistros + registro * largura + campo);
+        }
+
+        byte getByte(int registro, int campo) {
+            return buffer.get(inicioRegistros + registro * largura + campo);
+        }
+
+        /**
+         * Lê o texto de um campo de um registro.
+         *
+         * @param registro O número do registro.
+         * @param campo    O deslocamento do campo dentro do registro.
+         * @return O texto, ou {@code null}.
+         */
+        String texto(int registro, int campo) {
+            long referencia = getLong(registro, campo);
+            if (referencia == NULO) {
+                return null;
+            }
+            byte[] bytes = new byte[(int) referencia];
+            buffer.get(inicioTextos + (int) (referencia >>> 32), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Busca um registro pela chave, por busca binária no índice informado.
+         *
+         * @param indice O número do índice.
+         * @param campo  O deslocamento, dentro do registro, do campo de texto usado pelo índice.
+         * @param chave  A chave procurada.
+         * @return O número do registro encontrado, ou -1.
+         */
+        int buscar(int indice, int campo, String chave) {
+            byte[] procurada = chave.getBytes(StandardCharsets.UTF_8);
+            int inicioIndice = inicioIndices + indice * quantidade * 4;
+            int baixo = 0;
+            int alto = quantidade - 1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                int registro = buffer.getInt(inicioIndice + meio * 4);
+                int comparacao = comparar(getLong(registro, campo), procurada);
+                if (comparacao < 0) {
+                    baixo = meio + 1;
+                } else if (comparacao > 0) {
+                    alto = meio - 1;
+                } else {
+                    return registro;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Compara um texto do arquivo com uma chave, byte a byte e sem sinal, sem materializar o texto.
+         */
+        private int comparar(long referencia, byte[] chave) {
+            if (referencia == NULO) {
+                return -1;
+            }
+            int inicio = inicioTextos + (int) (referencia >>> 32);
+            int tamanho = (int) referencia;
+            int comum = Math.min(tamanho, chave.length);
+            for (int i = 0; i < comum; i++) {
+                int diferenca = Byte.toUnsignedInt(buffer.get(inicio + i)) - Byte.toUnsignedInt(chave[i]);
+                if (diferenca != 0) {
+                    return diferenca;
+                }
+            }
+            return tamanho - chave.length;
+        }
+    }
+
+    /**
+     * Acumulador de bytes que cresce conforme necessário.
+     */
+    private static final class ByteArrayBuilder {
+
+        private byte[] bytes = new byte[4096];
+
+        private int tamanho;
+
+        void adicionar(byte[] novos) {
+            if (tamanho + novos.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanho + novos.length));
+            }
+            System.arraycopy(novos, 0, bytes, tamanho, novos.length);
+            tamanho += novos.length;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        ByteBuffer comoBuffer() {
+            return ByteBuffer.wrap(bytes, 0, tamanho);
+        }
+    }
+}
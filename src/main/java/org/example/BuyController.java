@@ -4,8 +4,7 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.text.Text;
-import java.io.IOException;
-import java.util.*;
+import java.util.UUID;
 
 /**
  * Controlador responsável pela interface de compra de ingressos.
@@ -15,6 +14,8 @@ import java.util.*;
  */
 public class BuyController {
 
+    private static final System.Logger LOGGER = System.getLogger(BuyController.class.getName());
+
     @FXML
     private Text dateEvent;
 
@@ -45,9 +46,18 @@ public class BuyController {
     @FXML
     private Text purchaseMade;
 
-    private final int ticketPrice = 100; // Preço fixo por ingresso
+    @FXML
+    private ProgressIndicator progressIndicator;
+
+    private final long ticketPrice = TicketService.PRECO_INGRESSO_CENTAVOS / 100; // Preço fixo por ingresso
+
+    private final LocalizationService i18n = LocalizationService.getInstance();
 
-    private ResourceBundle bundle;
+    private Evento evento; // Evento selecionado na tela de eventos.
+
+    private SeatHold reserva; // Assentos reservados enquanto o usuário decide a compra.
+
+    private String chaveCompra = UUID.randomUUID().toString(); // Identifica a compra em andamento nas repetições.
 
     /**
      * Método inicializador chamado automaticamente pelo JavaFX.
@@ -56,14 +66,21 @@ public class BuyController {
     @FXML
     public void initialize() {
         numberOfTickets.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 10, 1));
-        configureLanguageComboBox();
-        atualizarIdioma(new Locale("pt", "BR"));
-        numberOfTickets.valueProperty().addListener((observable, oldValue, newValue) -> updatePrice());
+        i18n.vincular(() -> {
+            i18n.vincularSeletor(languageComboBox, "Português", "Inglês");
+            vincularTextos();
+        });
+        updatePrice();
+        numberOfTickets.valueProperty().addListener((observable, oldValue, newValue) -> {
+            novaCompra();
+            updatePrice();
+            atualizarReserva();
+        });
     }
 
     /**
      * Ação disparada ao clicar no botão de compra de ingressos.
-     * Verifica se o usuário está autenticado, adiciona os ingressos ao arquivo JSON e exibe uma notificação.
+     * Verifica se o usuário está autenticado, compra os ingressos pelo {@link TicketService} e exibe uma notificação.
      *
      * @param event Evento do clique no botão.
      */
@@ -72,18 +89,48 @@ public class BuyController {
         int selectedTickets = numberOfTickets.getValue() == null ? 1 : numberOfTickets.getValue();
         String userId = SessionManager.getCurrentUserId();
         if (userId != null) {
-            try {
-                adicionarIngressosAoArquivo(userId, selectedTickets);
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle(bundle.getString("alerta.titulo"));
-                alert.setHeaderText(null);
-                alert.setContentText(bundle.getString("alerta.mensagem") + " " + selectedTickets + " " + bundle.getString("alerta.ingressos"));
-                alert.showAndWait();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            String holdId = reserva == null ? null : reserva.getId();
+            reserva = null;
+            String eventoId = evento.getId();
+            String chave = chaveCompra;
+            // A compra só termina quando o journal é gravado, por isso roda fora da thread do JavaFX.
+            // Se falhar, a chave é mantida e um novo clique repete a mesma compra.
+            FxTasks.executar(() -> TicketService.getInstance().comprar(userId, eventoId, selectedTickets, holdId, chave).join(),
+                    loginButton, progressIndicator,
+                    resultado -> {
+                        mostrarResultado(resultado, selectedTickets);
+                        novaCompra();
+                    },
+                    erro -> {
+                        FxTasks.registrarFalha(LOGGER, "compra", erro);
+                        FxTasks.mostrarErro(i18n.get("error.operationFailed"));
+                    });
         } else {
-            System.out.println("Usuário não está autenticado!");
+            LOGGER.log(System.Logger.Level.WARNING, "Compra solicitada sem usuário autenticado");
+            MetricsRegistry.getInstance().contador("ui.erro.naoAutenticado").increment();
+            FxTasks.mostrarErro(i18n.get("error.notAuthenticated"));
+        }
+    }
+
+    /**
+     * Exibe uma notificação com o resultado da compra.
+     *
+     * @param resultado       O resultado da compra.
+     * @param selectedTickets O número de ingressos pedidos.
+     */
+    private void mostrarResultado(ResultadoCompra resultado, int selectedTickets) {
+        if (resultado.status() == ResultadoCompra.Status.ESGOTADO) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle(i18n.get("alerta.esgotado.titulo"));
+            alert.setHeaderText(null);
+            alert.setContentText(i18n.get("alerta.esgotado.mensagem") + " " + resultado.restantes());
+            alert.showAndWait();
+        } else if (resultado.sucesso()) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle(i18n.get("alerta.titulo"));
+            alert.setHeaderText(null);
+            alert.setContentText(i18n.get("alerta.mensagem") + " " + selectedTickets + " " + i18n.get("alerta.ingressos"));
+            alert.showAndWait();
         }
     }
 
@@ -93,74 +140,67 @@ public class BuyController {
      * @param evento Objeto representando os detalhes do evento.
      */
     public void start(Evento evento) {
-        nameEvent.setText(evento.getNome());
+        this.evento = evento;
+        novaCompra();
+        nameEvent.setText(evento.getNome(i18n.getLocale()));
         dateEvent.setText(evento.formatDate());
         updatePrice();
+        atualizarReserva();
     }
 
     /**
-     * Atualiza o preço total dinamicamente com base no número de ingressos selecionados.
+     * Substitui a reserva atual por uma nova reserva com a quantidade selecionada no Spinner,
+     * para que os assentos não sejam vendidos a outro comprador enquanto o usuário decide.
+     * Se não houver assentos suficientes, a compra tentará reservá-los novamente ao ser confirmada.
      */
-    private void updatePrice() {
-        int selectedTickets = numberOfTickets.getValue() == null ? 1 : numberOfTickets.getValue();
-        int total = selectedTickets * ticketPrice;
-        totalPrice.setText("$ " + total);
+    private void atualizarReserva() {
+        FxTasks.comServico(service -> {
+            if (reserva != null) {
+                service.liberarReserva(reserva.getUsuarioId(), reserva.getId());
+                reserva = null;
+            }
+            String userId = SessionManager.getCurrentUserId();
+            if (evento == null || userId == null) {
+                return;
+            }
+            int selectedTickets = numberOfTickets.getValue() == null ? 1 : numberOfTickets.getValue();
+            reserva = service.reservar(userId, evento.getId(), selectedTickets).orElse(null);
+        }, erro -> {
+            FxTasks.registrarFalha(LOGGER, "reserva", erro);
+            FxTasks.mostrarErro(i18n.get("error.operationFailed"));
+        });
     }
 
     /**
-     * Configura o ComboBox de idiomas, adicionando opções e listeners para detecção de mudanças.
+     * Gera a chave de idempotência da próxima compra. Cliques repetidos com a mesma chave, como os de
+     * uma nova tentativa depois de uma falha, não emitem ingressos em dobro.
      */
-    private void configureLanguageComboBox() {
-        languageComboBox.getItems().addAll("Português", "Inglês");
-        languageComboBox.setValue("Português");
-        languageComboBox.valueProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue != null) {
-                if (newValue.equals("Inglês")) {
-                    atualizarIdioma(new Locale("en", "US"));
-                } else {
-                    atualizarIdioma(new Locale("pt", "BR"));
-                }
-            }
-        });
+    private void novaCompra() {
+        chaveCompra = UUID.randomUUID().toString();
     }
 
     /**
-     * Atualiza os textos da interface de acordo com o idioma selecionado.
-     *
-     * @param locale Locale representando o idioma a ser aplicado.
+     * Atualiza o preço total dinamicamente com base no número de ingressos selecionados.
      */
-    private void atualizarIdioma(Locale locale) {
-        bundle = ResourceBundle.getBundle("lang", locale);
-        loginButton.setText(bundle.getString("botao.comprar"));
-        textPriceTicket.setText(bundle.getString("label.preco_unitario"));
-        textQuantity.setText(bundle.getString("label.quantidade"));
-        textTotal.setText(bundle.getString("label.total"));
+    private void updatePrice() {
         int selectedTickets = numberOfTickets.getValue() == null ? 1 : numberOfTickets.getValue();
-        totalPrice.setText("$" + (selectedTickets * ticketPrice));
+        long total = selectedTickets * ticketPrice;
+        totalPrice.setText("$ " + total);
     }
 
     /**
-     * Adiciona os ingressos comprados ao arquivo JSON associado ao usuário autenticado.
-     *
-     * @param userId ID do usuário autenticado.
-     * @param quantidadeIngressos Número de ingressos comprados.
-     * @throws IOException Se houver erro ao acessar ou salvar o arquivo.
+     * Liga os textos da interface ao idioma da aplicação. O nome do evento, que vem do catálogo,
+     * é atualizado a cada troca de idioma.
      */
-    private void adicionarIngressosAoArquivo(String userId, int quantidadeIngressos) throws IOException {
-        UsuarioManager usuarioManager = new UsuarioManager();
-        List<Usuario> usuarios = usuarioManager.lerConteudoArquivo();
-        for (Usuario usuario : usuarios) {
-            if (usuario.getId().equals(userId)) {
-                usuarios.remove(usuario);
-                for (int i = 0; i < quantidadeIngressos; i++) {
-                    UUID uuid = UUID.randomUUID();
-                    String id = String.valueOf(uuid);
-                    Ingresso ingresso = new Ingresso(nameEvent.getText(), dateEvent.getText(), id, 100.00);
-                    usuario.addIngresso(ingresso);
-                }
-                usuarios.add(usuario);
-                usuarioManager.salvarUsuarios(usuarios);
+    private void vincularTextos() {
+        loginButton.textProperty().bind(i18n.texto("botao.comprar"));
+        textPriceTicket.textProperty().bind(i18n.texto("label.preco_unitario"));
+        textQuantity.textProperty().bind(i18n.texto("label.quantidade"));
+        textTotal.textProperty().bind(i18n.texto("label.total"));
+        i18n.localeProperty().addListener((observable, oldValue, newValue) -> {
+            if (evento != null) {
+                nameEvent.setText(evento.getNome(newValue));
             }
-        }
+        });
     }
 }
@@ -0,0 +1,83 @@
+package org.example;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Critérios de uma consulta paginada ao catálogo de eventos (veja {@link EventCatalog#consultar}).
+ *
+ * @param categoria   A chave da categoria dos eventos, ou {@code null} para todas.
+ * @param texto       Trechos do nome ou da categoria no idioma da consulta, cada um o início de uma palavra,
+ *                    sem diferenciar maiúsculas nem acentos; ou {@code null} para não filtrar.
+ * @param ordem       O critério de ordenação.
+ * @param decrescente Se a ordem deve ser invertida.
+ * @param idioma      O idioma dos textos usados no filtro e na ordenação.
+ *
+ * @author David Neves Dias
+ */
+public record ConsultaEventos(String categoria, String texto, Ordem ordem, boolean decrescente, Locale idioma) {
+
+    /**
+     * Critérios de ordenação dos eventos. Empates são desfeitos pela ordem do catálogo.
+     */
+    public enum Ordem {
+        /** Pela data do evento. */
+        DATA,
+        /** Pelo nome do evento no idioma da consulta. */
+        NOME,
+        /** Pelo nome da categoria no idioma da consulta. */
+        CATEGORIA
+    }
+
+    /**
+     * Valida os critérios, tratando um texto em branco como ausente.
+     */
+    public ConsultaEventos {
+        Objects.requireNonNull(ordem, "ordem");
+        Objects.requireNonNull(idioma, "idioma");
+        if (texto != null && texto.isBlank()) {
+            texto = null;
+        }
+    }
+
+    /**
+     * Cria uma consulta por todos os eventos, em ordem de data.
+     *
+     * @param idioma O idioma dos textos.
+     * @return A consulta.
+     */
+    public static ConsultaEventos todos(Locale idioma) {
+        return new ConsultaEventos(null, null, Ordem.DATA, false, idioma);
+    }
+
+    /**
+     * Retorna uma cópia desta consulta com outra ordenação.
+     *
+     * @param ordem       O critério de ordenação.
+     * @param decrescente Se a ordem deve ser invertida.
+     * @return A nova consulta.
+     */
+    public ConsultaEventos comOrdem(Ordem ordem, boolean decrescente) {
+        return new ConsultaEventos(categoria, texto, ordem, decrescente, idioma);
+    }
+
+    /**
+     * Retorna uma cópia desta consulta em outro idioma.
+     *
+     * @param idioma O idioma dos textos.
+     * @return A nova consulta.
+     */
+    public ConsultaEventos comIdioma(Locale idioma) {
+        return new ConsultaEventos(categoria, texto, ordem, decrescente, idioma);
+    }
+
+    /**
+     * Retorna uma cópia desta consulta com outro texto de filtro.
+     *
+     * @param texto O trecho procurado, ou {@code null}.
+     * @return A nova consulta.
+     */
+    public ConsultaEventos comTexto(String texto) {
+        return new ConsultaEventos(categoria, texto, ordem, decrescente, idioma);
+    }
+}
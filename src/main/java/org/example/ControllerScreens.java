@@ -1,90 +1,286 @@
 package org.example;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
-import java.util.Stack;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controlador principal responsável pela navegação entre as telas da aplicação.
  * Gerencia as cenas e permite alternar entre diferentes interfaces de usuário.
+ * <p>
+ * As telas são carregadas sob demanda: só a tela de registro é carregada antes da janela aparecer.
+ * Sempre que uma tela é exibida, a seguinte da navegação é pré-carregada numa thread em segundo plano
+ * (desativável com {@code venda.telas.preCarregar=false}), de modo que normalmente já esteja pronta
+ * quando for pedida. O FXML e os controladores podem ser montados fora da thread do JavaFX porque os
+ * nós ainda não pertencem a nenhuma cena; a {@link Scene} em si é sempre criada na thread do JavaFX.
+ * O que os controladores ligam a estado compartilhado, como o idioma, é adiado para a thread do JavaFX
+ * com {@link LocalizationService#vincular(Runnable)}.
+ * <p>
+ * O tempo até o primeiro quadro e o tempo de carregamento de cada tela são registrados no log, e os
+ * travamentos da thread do JavaFX são medidos pelo {@link FxStallMonitor}.
  *
  * @author David Neves Dias
  */
 public class ControllerScreens extends Application {
 
+    private static final System.Logger LOGGER = System.getLogger(ControllerScreens.class.getName());
+
+    private static final boolean PRE_CARREGAR =
+            Boolean.parseBoolean(System.getProperty("venda.telas.preCarregar", "true"));
+
+    /** Thread única dos pré-carregamentos, para não disputar a CPU com a thread do JavaFX. */
+    private static final ExecutorService PRE_CARREGAMENTO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pre-carregamento-telas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static Stage stage; // Referência ao Stage principal da aplicação.
 
-    private static Scene sceneRegister; // Cena da tela de registro.
+    private static ControllerScreens aplicacao; // Instância repassada aos controladores que navegam.
+
+    private static final Stack<Tela> telas = new Stack<>(); // Pilha para gerenciar as telas.
+
+    private static final Map<Tela, CompletableFuture<Carregada>> carregamentos = new EnumMap<>(Tela.class);
+
+    private static final Map<Tela, Scene> cenas = new EnumMap<>(Tela.class); // Cenas já criadas, só na thread do JavaFX.
 
-    private static Scene sceneLogin; // Cena da tela de login.
+    /**
+     * Telas da aplicação e os seus arquivos FXML.
+     */
+    private enum Tela {
+        REGISTRO("/org/example/main/register.fxml"),
+        LOGIN("/org/example/main/login.fxml"),
+        EVENTOS("/org/example/main/listOfEvents.fxml"),
+        COMPRA("/org/example/main/buy.fxml");
 
-    private static Scene sceneEvents; // Cena da lista de eventos.
+        private final String fxml;
 
-    private static Scene sceneBuy; // Cena da tela de compra.
+        Tela(String fxml) {
+            this.fxml = fxml;
+        }
 
-    private static Stack<Scene> scenes = new Stack<>(); // Pilha para gerenciar as cenas.
+        /**
+         * Telas que precisam estar carregadas para esta poder ser exibida, incluindo ela mesma.
+         * A lista de eventos abre a tela de compra, e por isso precisa do seu controlador.
+         */
+        List<Tela> necessarias() {
+            return this == EVENTOS ? List.of(COMPRA, EVENTOS) : List.of(this);
+        }
+    }
 
     /**
-     * Inicializa a aplicação e carrega as telas.
+     * Raiz e controlador de um FXML carregado.
+     *
+     * @param raiz        O nó raiz da tela.
+     * @param controlador O controlador da tela.
+     */
+    private record Carregada(Parent raiz, Object controlador) {
+    }
+
+    /**
+     * Inicializa a aplicação e exibe a tela de registro.
+     * As demais telas são carregadas quando forem necessárias.
      *
      * @param stage Stage principal da aplicação.
-     * @throws IOException Se ocorrer erro ao carregar os arquivos FXML.
+     * @throws IOException Se ocorrer erro ao carregar o arquivo FXML da tela inicial.
      */
     @Override
     public void start(Stage stage) throws IOException {
+        long inicio = System.nanoTime();
         ControllerScreens.stage = stage; // Atribuir o Stage à variável estática.
+        ControllerScreens.aplicacao = this;
+        FxTasks.carregarServico(); // Os snapshots são lidos enquanto a primeira tela é montada.
         stage.setTitle("Ticket Sales!");
 
-        // Carregar a Tela de Registro
-        FXMLLoader fxmlLoader1 = new FXMLLoader(RegisterApplication.class.getResource("/org/example/main/register.fxml"));
-        sceneRegister = new Scene(fxmlLoader1.load(), 1024, 566);
-        RegisterController registerController = fxmlLoader1.getController();
-        registerController.setControllerScreens(this); // Passa a instância atual
+        telas.push(Tela.COMPRA);
+        telas.push(Tela.EVENTOS);
+        telas.push(Tela.LOGIN);
+        telas.push(Tela.REGISTRO);
 
-        // Carregar a Tela de Login
-        FXMLLoader fxmlLoader = new FXMLLoader(RegisterApplication.class.getResource("/org/example/main/login.fxml"));
-        sceneLogin = new Scene(fxmlLoader.load(), 1024, 566);
-        LoginController loginController = fxmlLoader.getController();
-
-        // Carregar a Tela de Compra
-        FXMLLoader buyLoader = new FXMLLoader(getClass().getResource("/org/example/main/buy.fxml"));
-        Parent buyRoot = buyLoader.load();
-        BuyController buyController = buyLoader.getController(); // Instância inicializada do BuyController
+        // Configura a cena inicial e exibe o stage.
+        try {
+            mostrar(telas.peek());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        registrarPrimeiroQuadro(stage.getScene(), inicio);
+        stage.show();
+        FxStallMonitor.iniciar();
+    }
 
-        // Carregar a tela de lista de eventos
-        FXMLLoader eventLoader = new FXMLLoader(getClass().getResource("/org/example/main/listOfEvents.fxml"));
-        Parent eventRoot = eventLoader.load();
-        EventController eventController = eventLoader.getController(); // Instância inicializada do EventController
+    /**
+     * Remove a cena atual da pilha e retorna à cena anterior.
+     */
+    public static void removeScene() {
+        if (!telas.isEmpty()) {
+            telas.pop();
+            if (!telas.isEmpty()) {
+                mostrar(telas.peek());
+            }
+        }
+    }
 
-        // Passar o BuyController para o EventController
-        eventController.setBuyController(buyController);
+    /**
+     * Exibe uma tela, carregando-a agora se o pré-carregamento ainda não a tiver deixado pronta,
+     * e pré-carrega a tela seguinte da pilha.
+     *
+     * @param tela A tela a ser exibida.
+     */
+    private static void mostrar(Tela tela) {
+        Scene cena = cenas.get(tela);
+        if (cena == null) {
+            for (Tela necessaria : tela.necessarias()) {
+                carregar(necessaria, false);
+            }
+            Carregada carregada = aguardar(tela);
+            configurar(tela, carregada.controlador());
+            cena = new Scene(carregada.raiz(), 1024, 566);
+            cenas.put(tela, cena);
+        }
+        stage.setScene(cena);
 
-        // Configurar cenas
-        sceneBuy = new Scene(buyRoot, 1024, 566);
-        sceneEvents = new Scene(eventRoot, 1024, 566);
+        if (PRE_CARREGAR && telas.size() > 1) {
+            Tela seguinte = telas.get(telas.size() - 2);
+            for (Tela necessaria : seguinte.necessarias()) {
+                carregar(necessaria, true);
+            }
+        }
+    }
 
-        scenes.push(sceneBuy);
-        scenes.push(sceneEvents);
-        scenes.push(sceneLogin);
-        scenes.push(sceneRegister);
+    /**
+     * Liga o controlador de uma tela recém-carregada às outras telas.
+     *
+     * @param tela        A tela carregada.
+     * @param controlador O seu controlador.
+     */
+    private static void configurar(Tela tela, Object controlador) {
+        switch (tela) {
+            case REGISTRO -> ((RegisterController) controlador).setControllerScreens(aplicacao);
+            case LOGIN -> ((LoginController) controlador).setControllerScreens(aplicacao);
+            // Passar o BuyController para o EventController
+            case EVENTOS -> ((EventController) controlador).setBuyController((BuyController) aguardar(Tela.COMPRA).controlador());
+            case COMPRA -> {
+            }
+        }
+    }
 
-        // Configura a cena inicial e exibe o stage.
-        stage.setScene(scenes.peek());
-        stage.show();
+    /**
+     * Inicia o carregamento de uma tela, se ainda não tiver sido iniciado.
+     *
+     * @param tela           A tela a ser carregada.
+     * @param emSegundoPlano Se o carregamento deve ser feito na thread de pré-carregamento,
+     *                       ou imediatamente na thread atual.
+     */
+    private static void carregar(Tela tela, boolean emSegundoPlano) {
+        CompletableFuture<Carregada> futuro;
+        synchronized (carregamentos) {
+            if (carregamentos.containsKey(tela)) {
+                return;
+            }
+            futuro = new CompletableFuture<>();
+            carregamentos.put(tela, futuro);
+        }
+        Runnable tarefa = () -> {
+            try {
+                futuro.complete(carregarFxml(tela));
+            } catch (Throwable e) {
+                futuro.completeExceptionally(e);
+            }
+        };
+        if (emSegundoPlano) {
+            PRE_CARREGAMENTO.execute(tarefa);
+        } else {
+            tarefa.run();
+        }
     }
 
     /**
-     * Remove a cena atual da pilha e retorna à cena anterior.
+     * Aguarda o fim do carregamento de uma tela já iniciado.
+     * Se o carregamento falhou, a tela é carregada mais uma vez na thread atual.
+     *
+     * @param tela A tela.
+     * @return A raiz e o controlador da tela.
+     * @throws UncheckedIOException Se o arquivo FXML não puder ser carregado.
      */
-    public static void removeScene() {
-        if (!scenes.isEmpty()) {
-            scenes.pop();
-            stage.setScene(scenes.peek());
+    private static Carregada aguardar(Tela tela) {
+        CompletableFuture<Carregada> futuro;
+        synchronized (carregamentos) {
+            futuro = carregamentos.get(tela);
         }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Falha ao carregar a tela " + tela + "; tentando novamente", e.getCause());
+            synchronized (carregamentos) {
+                carregamentos.remove(tela);
+            }
+            carregar(tela, false);
+            synchronized (carregamentos) {
+                futuro = carregamentos.get(tela);
+            }
+            try {
+                return futuro.join();
+            } catch (CompletionException falha) {
+                if (falha.getCause() instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                throw falha;
+            }
+        }
+    }
+
+    /**
+     * Carrega o arquivo FXML de uma tela, registrando o tempo gasto.
+     *
+     * @param tela A tela.
+     * @return A raiz e o controlador da tela.
+     * @throws IOException Se ocorrer erro ao carregar o arquivo FXML.
+     */
+    private static Carregada carregarFxml(Tela tela) throws IOException {
+        long inicio = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(ControllerScreens.class.getResource(tela.fxml));
+        Parent raiz = loader.load();
+        LOGGER.log(System.Logger.Level.INFO, () -> String.format("Tela %s carregada em %.1f ms (thread %s)",
+                tela, (System.nanoTime() - inicio) / 1e6, Thread.currentThread().getName()));
+        return new Carregada(raiz, loader.getController());
+    }
+
+    /**
+     * Registra no log o tempo até o primeiro quadro, medido a partir da chamada de {@link #start(Stage)}
+     * e, quando disponível, a partir do início do processo.
+     *
+     * @param cena   A cena inicial.
+     * @param inicio O instante da chamada de {@link #start(Stage)}, em {@link System#nanoTime()}.
+     */
+    private static void registrarPrimeiroQuadro(Scene cena, long inicio) {
+        Runnable[] ouvinte = new Runnable[1];
+        ouvinte[0] = () -> {
+            // Removido depois do pulso, pois a lista de ouvintes está sendo percorrida agora.
+            Platform.runLater(() -> cena.removePostLayoutPulseListener(ouvinte[0]));
+            double desdeStart = (System.nanoTime() - inicio) / 1e6;
+            String desdeProcesso = ProcessHandle.current().info().startInstant()
+                    .map(processo -> Duration.between(processo, Instant.now()).toMillis() + " ms desde o início do processo")
+                    .orElse("início do processo desconhecido");
+            LOGGER.log(System.Logger.Level.INFO, () -> String.format("Primeiro quadro em %.1f ms desde start (%s)",
+                    desdeStart, desdeProcesso));
+        };
+        cena.addPostLayoutPulseListener(ouvinte[0]);
     }
 
     /**
@@ -93,6 +289,7 @@ public class ControllerScreens extends Application {
      * @param args Argumentos da linha de comando.
      */
     public static void main(String[] args) {
+        FlightRecording.iniciarSeConfigurado();
         launch();
     }
 }
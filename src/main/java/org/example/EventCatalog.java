@@ -0,0 +1,432 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Catálogo dos eventos à venda, carregado uma única vez de um arquivo de dados e depois
+ * mantido em memória, onde eventos podem ser incluídos ou alterados.
+ * Cada evento tem um ID independente do idioma e guarda seu nome e sua categoria em cada idioma,
+ * de modo que a troca de idioma apenas escolhe outro texto dos mesmos objetos.
+ * <p>
+ * O arquivo padrão é o recurso {@code eventos.json}; outro arquivo pode ser informado pela
+ * propriedade {@code venda.eventos.arquivo}.
+ * <p>
+ * Para catálogos grandes, {@link #consultar(ConsultaEventos, int, int)} entrega os eventos em páginas.
+ * Cada ordenação é calculada uma única vez por idioma, como um array de posições no catálogo, e o
+ * resultado filtrado da última consulta é guardado, de modo que percorrer as páginas de uma mesma
+ * consulta apenas copia as posições pedidas.
+ * <p>
+ * A busca por texto usa um {@link EventSearchIndex} das palavras dos nomes e categorias em cada idioma,
+ * atualizado a cada inclusão ou alteração. As ordenações guardadas são descartadas nessas mutações e
+ * recalculadas na consulta seguinte.
+ * <p>
+ * Um {@link EventScheduleIndex} ordena os eventos por data, no geral e em cada categoria, para as consultas
+ * por intervalo de datas, dos próximos eventos e dos eventos de uma categoria na semana, e também
+ * fornece a ordenação por data das consultas paginadas.
+ *
+ * @author David Neves Dias
+ */
+public class EventCatalog {
+
+    private static final String RECURSO_PADRAO = "/eventos.json";
+
+    private static EventCatalog instance;
+
+    /**
+     * Eventos na ordem do catálogo. As inclusões escrevem no array antes de publicar a nova quantidade,
+     * de modo que quem lê a quantidade e depois o array sempre enxerga os eventos até ela.
+     */
+    private volatile Evento[] eventos;
+
+    private volatile int quantidade;
+
+    /** Posição de cada evento no catálogo, pelo seu ID. */
+    private final Map<String, Integer> posicoes = new ConcurrentHashMap<>();
+
+    private final EventSearchIndex busca;
+
+    private final EventScheduleIndex agenda;
+
+    /** Posições dos eventos em cada ordenação, por critério e idioma. */
+    private volatile Map<String, int[]> ordenacoes = new ConcurrentHashMap<>();
+
+    /** Versão do catálogo, incrementada a cada mutação, para invalidar o resultado guardado. */
+    private volatile int versao;
+
+    /** Resultado da última consulta, sem a direção da ordenação. */
+    private volatile Resultado ultimo;
+
+    /**
+     * Cria o catálogo com os eventos informados, na ordem de exibição, tendo o português como idioma padrão.
+     *
+     * @param eventos Os eventos do catálogo.
+     * @throws IllegalArgumentException Se dois eventos tiverem o mesmo ID.
+     */
+    public EventCatalog(List<Evento> eventos) {
+        this(eventos, TicketService.LOCALE_PADRAO.toLanguageTag());
+    }
+
+    /**
+     * Cria o catálogo com os eventos informados, na ordem de exibição.
+     *
+     * @param eventos      Os eventos do catálogo.
+     * @param idiomaPadrao A tag do idioma usado quando não houver tradução.
+     * @throws IllegalArgumentException Se dois eventos tiverem o mesmo ID.
+     */
+    public EventCatalog(List<Evento> eventos, String idiomaPadrao) {
+        Set<String> idiomas = new HashSet<>();
+        for (int i = 0; i < eventos.size(); i++) {
+            Evento evento = eventos.get(i);
+            if (posicoes.putIfAbsent(evento.getId(), i) != null) {
+                throw new IllegalArgumentException("ID de evento duplicado: " + evento.getId());
+            }
+            evento.coletarIdiomas(idiomas);
+        }
+        this.eventos = eventos.toArray(new Evento[Math.max(16, eventos.size())]);
+        this.quantidade = eventos.size();
+        this.busca = new EventSearchIndex(eventos, idiomas, idiomaPadrao);
+        this.agenda = new EventScheduleIndex(eventos);
+    }
+
+    /**
+     * Retorna o catálogo compartilhado, carregando o arquivo de eventos na primeira chamada.
+     *
+     * @return A instância do catálogo.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo de eventos.
+     */
+    public static synchronized EventCatalog getInstance() throws IOException {
+        if (instance == null) {
+            String arquivo = System.getProperty("venda.eventos.arquivo");
+            if (arquivo != null) {
+                try (Reader reader = Files.newBufferedReader(Path.of(arquivo), StandardCharsets.UTF_8)) {
+                    instance = carregar(reader);
+                }
+            } else {
+                InputStream recurso = EventCatalog.class.getResourceAsStream(RECURSO_PADRAO);
+                if (recurso == null) {
+                    throw new IOException("Recurso não encontrado: " + RECURSO_PADRAO);
+                }
+                try (Reader reader = new InputStreamReader(recurso, StandardCharsets.UTF_8)) {
+                    instance = carregar(reader);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lê um catálogo no formato JSON.
+     *
+     * @param reader A origem do JSON.
+     * @return O catálogo lido.
+     * @throws IOException Se o JSON for inválido.
+     */
+    public static EventCatalog carregar(Reader reader) throws IOException {
+        Arquivo arquivo;
+        try {
+            arquivo = new Gson().fromJson(reader, Arquivo.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Catálogo de eventos inválido", e);
+        }
+        if (arquivo == null || arquivo.eventos() == null) {
+            return new EventCatalog(List.of());
+        }
+        String idiomaPadrao = arquivo.idiomaPadrao() == null ? TicketService.LOCALE_PADRAO.toLanguageTag() : arquivo.idiomaPadrao();
+        // Cada tabela de tradução de categoria é copiada uma vez e compartilhada pelos eventos da categoria.
+        Map<String, Map<String, String>> categorias = new LinkedHashMap<>();
+        if (arquivo.categorias() != null) {
+            arquivo.categorias().forEach((chave, nomes) -> categorias.put(chave, Map.copyOf(nomes)));
+        }
+        List<Evento> eventos = new ArrayList<>(arquivo.eventos().size());
+        for (Registro registro : arquivo.eventos()) {
+            int capacidade = registro.capacidade() > 0 ? registro.capacidade() : Evento.CAPACIDADE_PADRAO;
+            eventos.add(new Evento(registro.id(), registro.categoria(), Instant.parse(registro.data()), capacidade,
+                    Map.copyOf(registro.nomes()), categorias.getOrDefault(registro.categoria(), Map.of()), idiomaPadrao));
+        }
+        return new EventCatalog(eventos, idiomaPadrao);
+    }
+
+    /**
+     * Busca um evento pelo seu ID.
+     *
+     * @param id O ID do evento.
+     * @return O evento encontrado, se existir.
+     */
+    public Optional<Evento> buscarPorId(String id) {
+        Integer posicao = id == null ? null : posicoes.get(id);
+        return posicao == null ? Optional.empty() : Optional.of(eventos[posicao]);
+    }
+
+    /**
+     * Retorna todos os eventos, na ordem do catálogo.
+     *
+     * @return Uma lista somente leitura com os eventos existentes no momento da chamada.
+     */
+    public List<Evento> listar() {
+        int total = quantidade;
+        return Collections.unmodifiableList(Arrays.asList(eventos).subList(0, total));
+    }
+
+    /**
+     * Retorna a quantidade de eventos do catálogo.
+     *
+     * @return O número de eventos.
+     */
+    public int tamanho() {
+        return quantidade;
+    }
+
+    /**
+     * Inclui um evento no fim do catálogo e nos índices.
+     *
+     * @param evento O evento.
+     * @throws IllegalArgumentException Se já houver um evento com o mesmo ID.
+     */
+    public synchronized void adicionar(Evento evento) {
+        if (posicoes.containsKey(evento.getId())) {
+            throw new IllegalArgumentException("ID de evento duplicado: " + evento.getId());
+        }
+        int posicao = quantidade;
+        Evento[] atual = eventos;
+        if (posicao == atual.length) {
+            atual = Arrays.copyOf(atual, posicao * 2);
+        }
+        atual[posicao] = evento;
+        busca.indexar(posicao, evento);
+        agenda.indexar(posicao, null, evento);
+        eventos = atual;
+        posicoes.put(evento.getId(), posicao);
+        quantidade = posicao + 1;
+        invalidar();
+    }
+
+    /**
+     * Substitui um evento do catálogo pela sua nova versão, com o mesmo ID, atualizando os índices.
+     *
+     * @param evento A nova versão do evento.
+     * @throws IllegalArgumentException Se não houver evento com esse ID.
+     */
+    public synchronized void atualizar(Evento evento) {
+        Integer posicao = posicoes.get(evento.getId());
+        if (posicao == null) {
+            throw new IllegalArgumentException("Evento não cadastrado: " + evento.getId());
+        }
+        Evento anterior = eventos[posicao];
+        eventos[posicao] = evento;
+        busca.indexar(posicao, evento);
+        agenda.indexar(posicao, anterior, evento);
+        invalidar();
+    }
+
+    /**
+     * Busca os primeiros eventos, em ordem de data, cujo nome ou categoria tenham palavras começando
+     * com cada trecho do texto, sem diferenciar maiúsculas nem acentos. Feita para sugestões enquanto
+     * o usuário digita: o custo depende do limite, não do tamanho do catálogo.
+     *
+     * @param texto  O texto digitado.
+     * @param idioma O idioma dos nomes e categorias.
+     * @param limite A quantidade máxima de eventos.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> buscar(String texto, Locale idioma, int limite) {
+        int[] encontrados = busca.buscar(texto, idioma, limite);
+        Evento[] atual = eventos;
+        List<Evento> resultado = new ArrayList<>(encontrados.length);
+        for (int posicao : encontrados) {
+            resultado.add(atual[posicao]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna os eventos com data no intervalo, em ordem de data.
+     *
+     * @param de  O início do intervalo, inclusive.
+     * @param ate O fim do intervalo, exclusive.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> listarEntre(Instant de, Instant ate) {
+        return agenda.entre(de, ate);
+    }
+
+    /**
+     * Retorna os próximos eventos a partir de um instante, em ordem de data.
+     *
+     * @param a      O instante a partir do qual os eventos são procurados, inclusive.
+     * @param limite A quantidade máxima de eventos.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> listarProximos(Instant a, int limite) {
+        return agenda.proximos(a, limite);
+    }
+
+    /**
+     * Retorna os eventos de uma categoria na semana, de segunda a domingo, que contém o dia informado.
+     *
+     * @param categoria A chave da categoria.
+     * @param dia       Um dia da semana desejada, no fuso {@link Evento#FUSO_HORARIO}.
+     * @return Os eventos encontrados, em ordem de data.
+     */
+    public List<Evento> listarNaSemana(String categoria, LocalDate dia) {
+        return agenda.naSemana(categoria, dia);
+    }
+
+    /**
+     * Descarta as ordenações e o resultado guardados depois de uma mutação. Deve ser chamado sob o monitor.
+     */
+    private void invalidar() {
+        ordenacoes = new ConcurrentHashMap<>();
+        versao++;
+    }
+
+    /**
+     * Consulta uma página de eventos.
+     *
+     * @param consulta Os critérios de filtro e ordenação.
+     * @param inicio   A posição do primeiro evento da página no resultado.
+     * @param tamanho  A quantidade máxima de eventos da página.
+     * @return A página, com o total de eventos do resultado.
+     * @throws IllegalArgumentException Se o início ou o tamanho forem negativos.
+     */
+    public Pagina<Evento> consultar(ConsultaEventos consulta, int inicio, int tamanho) {
+        if (inicio < 0 || tamanho < 0) {
+            throw new IllegalArgumentException("Início e tamanho da página não podem ser negativos.");
+        }
+        int[] resultado = resultado(consulta);
+        Evento[] atual = eventos;
+        int fim = (int) Math.min(resultado.length, (long) inicio + tamanho);
+        List<Evento> itens = new ArrayList<>(Math.max(0, fim - inicio));
+        for (int i = inicio; i < fim; i++) {
+            itens.add(atual[resultado[consulta.decrescente() ? resultado.length - 1 - i : i]]);
+        }
+        return new Pagina<>(Collections.unmodifiableList(itens), inicio, resultado.length);
+    }
+
+    /**
+     * Retorna as posições dos eventos que atendem à consulta, na ordem crescente pedida.
+     *
+     * @param consulta A consulta.
+     * @return As posições no catálogo.
+     */
+    private int[] resultado(ConsultaEventos consulta) {
+        ConsultaEventos chave = consulta.comOrdem(consulta.ordem(), false);
+        int versaoAtual = versao;
+        Resultado anterior = ultimo;
+        if (anterior != null && anterior.versao() == versaoAtual && anterior.consulta().equals(chave)) {
+            return anterior.posicoes();
+        }
+        List<Evento> lista = listar();
+        int[] ordem = ordenacao(lista, consulta.ordem(), consulta.idioma());
+        int[] posicoes = ordem;
+        if (consulta.categoria() != null || consulta.texto() != null) {
+            String categoria = consulta.categoria();
+            BitSet comTexto = busca.filtrar(consulta.texto(), consulta.idioma());
+            posicoes = IntStream.of(ordem)
+                    .filter(i -> (comTexto == null || comTexto.get(i))
+                            && (categoria == null || categoria.equals(lista.get(i).getCategoria())))
+                    .toArray();
+        }
+        ultimo = new Resultado(chave, versaoAtual, posicoes);
+        return posicoes;
+    }
+
+    /**
+     * Retorna as posições de todos os eventos na ordem crescente do critério, calculando-as na primeira vez.
+     *
+     * @param lista  Os eventos do catálogo.
+     * @param ordem  O critério de ordenação.
+     * @param idioma O idioma dos textos comparados.
+     * @return As posições no catálogo.
+     */
+    private int[] ordenacao(List<Evento> lista, ConsultaEventos.Ordem ordem, Locale idioma) {
+        String chave = ordem == ConsultaEventos.Ordem.DATA ? ordem.name() : ordem.name() + '/' + idioma.toLanguageTag();
+        return ordenacoes.computeIfAbsent(chave, k -> {
+            if (ordem == ConsultaEventos.Ordem.DATA) {
+                return agenda.posicoesPorData(lista.size());
+            }
+            // Os eventos da mesma categoria ficam em ordem de data.
+            Comparator<Integer> comparador = ordem == ConsultaEventos.Ordem.NOME
+                    ? porTexto(lista, evento -> evento.getNome(idioma), idioma)
+                    : porTexto(lista, evento -> evento.getDescricao(idioma), idioma)
+                            .thenComparing(i -> lista.get(i).getData());
+            return IntStream.range(0, lista.size()).boxed()
+                    .sorted(comparador.thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        });
+    }
+
+    /**
+     * Compara as posições pelo texto de cada evento, na ordem alfabética do idioma.
+     * As chaves de ordenação são calculadas uma única vez por evento.
+     */
+    private static Comparator<Integer> porTexto(List<Evento> lista, Function<Evento, String> texto, Locale idioma) {
+        Collator collator = Collator.getInstance(idioma);
+        CollationKey[] chaves = new CollationKey[lista.size()];
+        for (int i = 0; i < chaves.length; i++) {
+            String valor = texto.apply(lista.get(i));
+            chaves[i] = collator.getCollationKey(valor == null ? "" : valor);
+        }
+        return (a, b) -> chaves[a].compareTo(chaves[b]);
+    }
+
+    /**
+     * Resultado guardado de uma consulta.
+     *
+     * @param consulta A consulta, sempre em ordem crescente.
+     * @param versao   A versão do catálogo em que a consulta foi feita.
+     * @param posicoes As posições dos eventos do resultado.
+     */
+    private record Resultado(ConsultaEventos consulta, int versao, int[] posicoes) {
+    }
+
+    /**
+     * Formato do arquivo de eventos.
+     *
+     * @param idiomaPadrao A tag do idioma usado quando não houver tradução.
+     * @param categorias   Os nomes de cada categoria, indexados pela tag do idioma.
+     * @param eventos      Os eventos.
+     */
+    private record Arquivo(String idiomaPadrao, Map<String, Map<String, String>> categorias, List<Registro> eventos) {
+    }
+
+    /**
+     * Um evento no arquivo.
+     *
+     * @param id         O ID do evento.
+     * @param categoria  A chave da categoria.
+     * @param data       A data e hora do evento, no formato ISO-8601 em UTC.
+     * @param capacidade A quantidade de assentos.
+     * @param nomes      O nome em cada idioma, indexado pela tag do idioma.
+     */
+    private record Registro(String id, String categoria, String data, int capacidade, Map<String, String> nomes) {
+    }
+}
@@ -1,46 +1,51 @@
 package org.example;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.util.Callback;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.ResourceBundle;
 
 /**
  * Controlador responsável pela tela de listagem de eventos.
  * Gerencia a exibição dos eventos disponíveis e permite que o usuário selecione um evento para compra de ingressos.
+ * <p>
+ * A tabela exibe uma {@link EventosPaginados}, que busca os eventos no catálogo página a página conforme
+ * as linhas ficam visíveis. Ordenar por uma coluna ou trocar o idioma faz uma nova consulta, em vez de
+ * ordenar ou traduzir a lista inteira na tabela. O campo de busca filtra a consulta a cada tecla,
+ * pelo índice de palavras do catálogo.
  *
  * @author David Neves Dias
  */
 public class EventController {
 
+    private static final System.Logger LOGGER = System.getLogger(EventController.class.getName());
+
     @FXML
-    private TableView<Evento> tableEvent; // Tabela que exibe os eventos disponíveis.
+    private TableView<LinhaEvento> tableEvent; // Tabela que exibe os eventos disponíveis.
 
     @FXML
-    private TableColumn<Evento, String> nameEvent; // Coluna que exibe o nome do evento.
+    private TableColumn<LinhaEvento, String> nameEvent; // Coluna que exibe o nome do evento.
 
     @FXML
-    private TableColumn<Evento, String> categoryEvent; // Coluna que exibe a categoria do evento.
+    private TableColumn<LinhaEvento, String> categoryEvent; // Coluna que exibe a categoria do evento.
 
     @FXML
-    private TableColumn<Evento, String> dateEvent; // Coluna que exibe a data do evento.
+    private TableColumn<LinhaEvento, String> dateEvent; // Coluna que exibe a data do evento.
 
     @FXML
-    private TableColumn<Evento, Void> buyEvent; // Coluna com botão para comprar ingressos.
+    private TableColumn<LinhaEvento, Void> buyEvent; // Coluna com botão para comprar ingressos.
 
     @FXML
     private ComboBox<String> languageComboBox; // ComboBox para seleção do idioma.
 
+    @FXML
+    private TextField searchField; // Campo de busca por nome ou categoria.
+
     private BuyController buyController; // Controlador responsável pela tela de compra.
 
-    private ObservableList<Evento> eventos; // Lista de eventos exibida na tabela.
+    private ConsultaEventos consulta; // Consulta exibida na tabela.
 
-    private ResourceBundle bundle; // Bundle de recursos para gerenciamento de textos internacionalizados.
+    private final LocalizationService i18n = LocalizationService.getInstance(); // Textos internacionalizados.
 
     /**
      * Define o controlador responsável pela tela de compra.
@@ -57,77 +62,86 @@ public class EventController {
      */
     @FXML
     public void initialize() {
-        // Inicializa o idioma padrão (Português)
-        Locale locale = new Locale("pt", "BR");
-        bundle = ResourceBundle.getBundle("lang", locale);
-        languageComboBox.setValue("Português");
-
-        // Preenche o ComboBox com as opções de idioma
-        ObservableList<String> languages = FXCollections.observableArrayList("Português", "Inglês");
-        languageComboBox.setItems(languages);
-
-        // Adiciona listener para detectar mudanças de idioma
-        languageComboBox.valueProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue != null) {
-                if (newValue.equals("Inglês")) {
-                    atualizarIdioma(new Locale("en", "US"));
-                } else {
-                    atualizarIdioma(new Locale("pt", "BR"));
-                }
-            }
+        i18n.vincular(() -> {
+            // Liga o ComboBox de idiomas ao idioma da aplicação
+            i18n.vincularSeletor(languageComboBox, "Português", "Inglês");
+
+            // Liga os títulos das colunas ao idioma atual
+            nameEvent.textProperty().bind(i18n.texto("label.nome"));
+            categoryEvent.textProperty().bind(i18n.texto("label.categoria"));
+            dateEvent.textProperty().bind(i18n.texto("label.data"));
+            searchField.promptTextProperty().bind(i18n.texto("campo.buscar"));
+
+            // Na troca de idioma, a consulta é refeita: os textos e a ordem alfabética mudam
+            i18n.localeProperty().addListener((observable, oldValue, newValue) -> {
+                consulta = consulta.comIdioma(newValue);
+                carregarEventos();
+            });
         });
 
-        // Atualiza os textos de interface com base na linguagem
-        atualizarTextos();
+        // Configura as células da tabela com as propriedades já formatadas de cada linha
+        nameEvent.setCellValueFactory(cellData -> cellData.getValue().nomeProperty());
+        dateEvent.setCellValueFactory(cellData -> cellData.getValue().dataProperty());
+        categoryEvent.setCellValueFactory(cellData -> cellData.getValue().categoriaProperty());
 
-        // Configura as células da tabela
-        nameEvent.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(cellData.getValue().getNome()));
+        // Preenche a tabela com a primeira consulta
+        consulta = ConsultaEventos.todos(i18n.getLocale());
+        carregarEventos();
 
-        dateEvent.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(formatarData(cellData.getValue().getData())));
-
-        categoryEvent.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(cellData.getValue().getDescricao()));
-
-        // Preenche a lista de eventos
-        atualizarEventos();
-        tableEvent.setItems(eventos);
+        // A ordenação é feita pelo catálogo, não pela tabela
+        tableEvent.setSortPolicy(tabela -> {
+            ordenar();
+            return true;
+        });
 
         // Adiciona a coluna de botão
         adicionarColunaDeBotao();
+
+        // A cada tecla no campo de busca, a consulta é refeita com o novo texto
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
+            consulta = consulta.comTexto(newValue);
+            carregarEventos();
+        });
     }
 
     /**
-     * Formata uma data para o padrão "dd/MM/yyyy".
-     *
-     * @param data A data a ser formatada.
-     * @return String representando a data formatada.
+     * Refaz a consulta conforme a coluna de ordenação escolhida na tabela.
      */
-    private String formatarData(Date data) {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        return sdf.format(data);
+    private void ordenar() {
+        ConsultaEventos nova = consulta.comOrdem(ConsultaEventos.Ordem.DATA, false);
+        if (!tableEvent.getSortOrder().isEmpty()) {
+            TableColumn<LinhaEvento, ?> coluna = tableEvent.getSortOrder().get(0);
+            ConsultaEventos.Ordem ordem = coluna == nameEvent ? ConsultaEventos.Ordem.NOME
+                    : coluna == categoryEvent ? ConsultaEventos.Ordem.CATEGORIA
+                    : ConsultaEventos.Ordem.DATA;
+            nova = consulta.comOrdem(ordem, coluna.getSortType() == TableColumn.SortType.DESCENDING);
+        }
+        // A própria troca da lista pede uma nova ordenação; só consulta de novo se algo mudou
+        if (!nova.equals(consulta)) {
+            consulta = nova;
+            carregarEventos();
+        }
     }
 
     /**
      * Adiciona a coluna de botão para compra de ingressos na tabela de eventos.
+     * O título da coluna e o texto dos botões acompanham o idioma da aplicação.
      */
-    public void adicionarColunaDeBotao() {
-        // Remover coluna antiga, se existir
-        tableEvent.getColumns().remove(buyEvent);
+    private void adicionarColunaDeBotao() {
+        buyEvent = new TableColumn<>();
+        i18n.vincular(() -> buyEvent.textProperty().bind(i18n.texto("coluna.comprar")));
+        buyEvent.setSortable(false);
 
-        // Cria nova coluna com o texto atualizado
-        buyEvent = new TableColumn<>(bundle.getString("coluna.comprar")); // Traduz o título da coluna de comprar
-
-        Callback<TableColumn<Evento, Void>, TableCell<Evento, Void>> cellFactory = new Callback<>() {
+        Callback<TableColumn<LinhaEvento, Void>, TableCell<LinhaEvento, Void>> cellFactory = new Callback<>() {
             @Override
-            public TableCell<Evento, Void> call(final TableColumn<Evento, Void> param) {
+            public TableCell<LinhaEvento, Void> call(final TableColumn<LinhaEvento, Void> param) {
                 return new TableCell<>() {
-                    private final Button btn = new Button(bundle.getString("botao.comprar")); // Traduz o texto do botão
+                    private final Button btn = new Button();
 
                     {
+                        btn.textProperty().bind(i18n.texto("botao.comprar")); // Traduz o texto do botão
                         btn.setOnAction(event -> {
-                            Evento evento = getTableView().getItems().get(getIndex());
+                            Evento evento = getTableView().getItems().get(getIndex()).getEvento();
 
                             // Use a instância correta do controlador
                             if (buyController != null) {
@@ -140,12 +154,7 @@ public class EventController {
                     @Override
                     protected void updateItem(Void item, boolean empty) {
                         super.updateItem(item, empty);
-                        if (empty) {
-                            setGraphic(null); // Não exibe nada para células vazias
-                        } else {
-                            btn.setText(bundle.getString("botao.comprar")); // Atualiza o texto do botão
-                            setGraphic(btn); // Exibe o botão
-                        }
+                        setGraphic(empty ? null : btn); // Não exibe nada para células vazias
                     }
                 };
             }
@@ -156,51 +165,14 @@ public class EventController {
     }
 
     /**
-     * Atualiza o idioma da interface.
-     *
-     * @param newLocale O novo Locale a ser utilizado.
+     * Exibe na tabela o resultado da consulta atual, buscado página a página.
      */
-    private void atualizarIdioma(Locale newLocale) {
-        // Atualiza o ResourceBundle para o novo idioma
-        bundle = ResourceBundle.getBundle("lang", newLocale);
-
-        // Atualiza os textos de interface
-        atualizarTextos();
-
-        // Atualiza os eventos
-        atualizarEventos();
-
-        // Recria a coluna de botão com o novo idioma
-        adicionarColunaDeBotao();
-    }
-
-    /**
-     * Atualiza os textos exibidos na interface com base no idioma atual.
-     */
-    private void atualizarTextos() {
-        nameEvent.setText(bundle.getString("label.nome"));
-        categoryEvent.setText(bundle.getString("label.categoria"));
-        dateEvent.setText(bundle.getString("label.data"));
-    }
-
-    /**
-     * Atualiza a lista de eventos com base no idioma atual.
-     */
-    private void atualizarEventos() {
-        eventos = FXCollections.observableArrayList(
-                new Evento(bundle.getString("evento.show_rock"), bundle.getString("evento.show_ao_vivo"), new Date(1734624000000L), "1"),
-                new Evento(bundle.getString("evento.feira_tecnologia"), bundle.getString("evento.exposicao"), new Date(1734710400000L), "2"),
-                new Evento(bundle.getString("evento.congresso_medico"), bundle.getString("evento.conferencia"), new Date(1734796800000L), "3"),
-                new Evento(bundle.getString("evento.workshop_programacao"), bundle.getString("evento.workshop"), new Date(1734969600000L), "5"),
-                new Evento(bundle.getString("evento.corrida_rua"), bundle.getString("evento.esporte"), new Date(1735056000000L), "6"),
-                new Evento(bundle.getString("evento.encontro_literario"), bundle.getString("evento.literatura"), new Date(1735142400000L), "7"),
-                new Evento(bundle.getString("evento.show_stand_up"), bundle.getString("evento.comedia"), new Date(1735228800000L), "8"),
-                new Evento(bundle.getString("evento.feira_gastronomica"), bundle.getString("evento.gastronomia"), new Date(1735315200000L), "9"),
-                new Evento(bundle.getString("evento.palestra_motivacional"), bundle.getString("evento.palestra"), new Date(1735401600000L), "10"),
-                new Evento(bundle.getString("evento.festa_ano_novo"), bundle.getString("evento.show_ao_vivo"), new Date(1735488000000L), "11"),
-                new Evento(bundle.getString("evento.competicao_culinaria"), bundle.getString("evento.gastronomia"), new Date(1735574400000L), "12"),
-                new Evento(bundle.getString("evento.maratona_filmes"), bundle.getString("evento.cinema"), new Date(1735660800000L), "13")
-        );
-        tableEvent.setItems(eventos);
+    private void carregarEventos() {
+        ConsultaEventos atual = consulta;
+        FxTasks.comServico(service -> tableEvent.setItems(new EventosPaginados(service, atual)), erro -> {
+            FxTasks.registrarFalha(LOGGER, "eventos", erro);
+            tableEvent.setItems(FXCollections.observableArrayList());
+            FxTasks.mostrarErro(i18n.get("error.operationFailed"));
+        });
     }
 }
@@ -0,0 +1,176 @@
+package org.example;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índices secundários dos eventos do catálogo pela data: um mapa navegável de todos os eventos
+ * e um mapa navegável por categoria, com a chave de cada categoria independente do idioma.
+ * <p>
+ * As chaves são a data do evento e, para desempatar, a sua posição no catálogo; assim os intervalos
+ * de datas são {@code subMap} dos mapas, localizados em tempo logarítmico, e percorrê-los custa só
+ * os eventos devolvidos. Os mapas são {@link ConcurrentSkipListMap}: as consultas não bloqueiam e
+ * as alterações, serializadas pelo catálogo, ficam visíveis assim que feitas.
+ *
+ * @author David Neves Dias
+ */
+final class EventScheduleIndex {
+
+    /** Todos os eventos, pela data. */
+    private final ConcurrentSkipListMap<Chave, Evento> porData = new ConcurrentSkipListMap<>();
+
+    /** Os eventos de cada categoria, pela data. */
+    private final Map<String, ConcurrentSkipListMap<Chave, Evento>> porCategoria = new ConcurrentHashMap<>();
+
+    /**
+     * Cria os índices com os eventos informados, na ordem do catálogo.
+     *
+     * @param eventos Os eventos do catálogo.
+     */
+    EventScheduleIndex(List<Evento> eventos) {
+        for (int posicao = 0; posicao < eventos.size(); posicao++) {
+            incluir(posicao, eventos.get(posicao));
+        }
+    }
+
+    /**
+     * Inclui ou substitui o evento de uma posição do catálogo.
+     *
+     * @param posicao  A posição do evento no catálogo.
+     * @param anterior O evento que ocupava a posição, ou {@code null} se for uma inclusão.
+     * @param evento   O evento.
+     */
+    void indexar(int posicao, Evento anterior, Evento evento) {
+        if (anterior != null) {
+            Chave chave = new Chave(anterior.getData(), posicao);
+            porData.remove(chave);
+            if (anterior.getCategoria() != null) {
+                porCategoria.get(anterior.getCategoria()).remove(chave);
+            }
+        }
+        incluir(posicao, evento);
+    }
+
+    private void incluir(int posicao, Evento evento) {
+        Chave chave = new Chave(evento.getData(), posicao);
+        porData.put(chave, evento);
+        if (evento.getCategoria() != null) {
+            porCategoria.computeIfAbsent(evento.getCategoria(), c -> new ConcurrentSkipListMap<>()).put(chave, evento);
+        }
+    }
+
+    /**
+     * Retorna os eventos com data no intervalo, em ordem de data.
+     *
+     * @param de  O início do intervalo, inclusive.
+     * @param ate O fim do intervalo, exclusive.
+     * @return Os eventos encontrados.
+     */
+    List<Evento> entre(Instant de, Instant ate) {
+        return entre(porData, de, ate);
+    }
+
+    /**
+     * Retorna os eventos de uma categoria com data no intervalo, em ordem de data.
+     *
+     * @param categoria A chave da categoria.
+     * @param de        O início do intervalo, inclusive.
+     * @param ate       O fim do intervalo, exclusive.
+     * @return Os eventos encontrados.
+     */
+    List<Evento> entre(String categoria, Instant de, Instant ate) {
+        ConcurrentSkipListMap<Chave, Evento> mapa = porCategoria.get(categoria);
+        return mapa == null ? List.of() : entre(mapa, de, ate);
+    }
+
+    /**
+     * Retorna os próximos eventos a partir de um instante, em ordem de data.
+     *
+     * @param a      O instante a partir do qual os eventos são procurados, inclusive.
+     * @param limite A quantidade máxima de eventos.
+     * @return Os eventos encontrados.
+     */
+    List<Evento> proximos(Instant a, int limite) {
+        return primeiros(porData.tailMap(Chave.inicio(a)).values(), limite);
+    }
+
+    /**
+     * Retorna os eventos de uma categoria na semana de segunda a domingo que contém o dia informado,
+     * com os dias contados no fuso {@link Evento#FUSO_HORARIO}.
+     *
+     * @param categoria A chave da categoria.
+     * @param dia       Um dia da semana desejada.
+     * @return Os eventos encontrados, em ordem de data.
+     */
+    List<Evento> naSemana(String categoria, LocalDate dia) {
+        LocalDate segunda = dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return entre(categoria,
+                segunda.atStartOfDay(Evento.FUSO_HORARIO).toInstant(),
+                segunda.plusWeeks(1).atStartOfDay(Evento.FUSO_HORARIO).toInstant());
+    }
+
+    /**
+     * Retorna as posições de todos os eventos no catálogo, em ordem de data.
+     *
+     * @param quantidade A quantidade de eventos do catálogo; posições além dela, de eventos incluídos
+     *                   depois, são ignoradas.
+     * @return As posições.
+     */
+    int[] posicoesPorData(int quantidade) {
+        int[] posicoes = new int[quantidade];
+        int n = 0;
+        for (Chave chave : porData.keySet()) {
+            if (chave.posicao() < quantidade && n < quantidade) {
+                posicoes[n++] = chave.posicao();
+            }
+        }
+        return n == quantidade ? posicoes : Arrays.copyOf(posicoes, n);
+    }
+
+    private static List<Evento> entre(NavigableMap<Chave, Evento> mapa, Instant de, Instant ate) {
+        if (!de.isBefore(ate)) {
+            return List.of();
+        }
+        return new ArrayList<>(mapa.subMap(Chave.inicio(de), Chave.inicio(ate)).values());
+    }
+
+    private static List<Evento> primeiros(Collection<Evento> eventos, int limite) {
+        List<Evento> resultado = new ArrayList<>(Math.min(limite, 64));
+        for (Evento evento : eventos) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(evento);
+        }
+        return resultado;
+    }
+
+    /**
+     * Chave dos mapas: a data do evento e a sua posição no catálogo, que desempata eventos na mesma data.
+     *
+     * @param data    A data do evento.
+     * @param posicao A posição do evento no catálogo, ou -1 para o início de uma data.
+     */
+    private record Chave(Instant data, int posicao) implements Comparable<Chave> {
+
+        static Chave inicio(Instant data) {
+            return new Chave(data, -1);
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            int comparacao = data.compareTo(outra.data);
+            return comparacao != 0 ? comparacao : Integer.compare(posicao, outra.posicao);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package org.example;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Índice invertido das palavras dos nomes e das categorias dos eventos, por idioma, para a busca
+ * enquanto o usuário digita.
+ * <p>
+ * As palavras são normalizadas (minúsculas e sem acentos) e guardadas num mapa ordenado, de modo que
+ * todas as palavras que começam com um prefixo formam um intervalo contíguo do mapa. Cada palavra
+ * aponta para a lista dos eventos que a contêm, ordenada pela data do evento. Uma busca combina os
+ * trechos digitados com E, tratando cada um como prefixo de alguma palavra do evento.
+ * <p>
+ * Para responder às primeiras {@code k} ocorrências sem percorrer todos os eventos, as listas do
+ * trecho mais seletivo são intercaladas na ordem das datas e a intercalação para assim que houver
+ * {@code k} eventos que também atendam aos demais trechos.
+ * <p>
+ * Os eventos são identificados pela sua posição no {@link EventCatalog}. A inclusão ou alteração
+ * de um evento atualiza apenas as listas das palavras dele; as buscas podem ser feitas por várias
+ * threads ao mesmo tempo.
+ *
+ * @author David Neves Dias
+ */
+final class EventSearchIndex {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final int[] VAZIA = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Tags dos idiomas indexados; o primeiro é o padrão. */
+    private final List<String> tags;
+
+    /** Idioma correspondente a cada tag indexada. */
+    private final List<Locale> locales;
+
+    /** Palavras de cada idioma, na ordem de {@link #tags}, com as posições dos eventos que as contêm. */
+    private final List<NavigableMap<String, int[]>> termos = new ArrayList<>();
+
+    /** Palavras de cada evento em cada idioma, para conferir os demais trechos e remover o evento. */
+    private final List<String[][]> palavras = new ArrayList<>();
+
+    /** Data de cada evento, em milissegundos, que define a ordem das listas. */
+    private long[] datas = new long[16];
+
+    /**
+     * Cria o índice dos eventos informados, indexados pela sua posição na lista.
+     *
+     * @param eventos      Os eventos, na ordem do catálogo.
+     * @param idiomas      As tags dos idiomas a indexar.
+     * @param idiomaPadrao A tag do idioma usado nas buscas em idiomas não indexados.
+     */
+    EventSearchIndex(List<Evento> eventos, Collection<String> idiomas, String idiomaPadrao) {
+        Set<String> todos = new LinkedHashSet<>();
+        todos.add(idiomaPadrao);
+        todos.addAll(idiomas);
+        this.tags = List.copyOf(todos);
+        this.locales = tags.stream().map(Locale::forLanguageTag).toList();
+        List<Map<String, IntLista>> construcao = new ArrayList<>();
+        for (int i = 0; i < tags.size(); i++) {
+            termos.add(new TreeMap<>());
+            construcao.add(new HashMap<>());
+        }
+        datas = Arrays.copyOf(datas, Math.max(datas.length, eventos.size()));
+        for (int posicao = 0; posicao < eventos.size(); posicao++) {
+            Evento evento = eventos.get(posicao);
+            datas[posicao] = evento.getData().toEpochMilli();
+            palavras.add(palavrasDe(evento));
+        }
+        // Os eventos são percorridos em ordem de data, de modo que cada lista já nasce ordenada.
+        int[] porData = IntStream.range(0, eventos.size()).boxed()
+                .sorted(this::comparar)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int posicao : porData) {
+            String[][] doEvento = palavras.get(posicao);
+            for (int idioma = 0; idioma < doEvento.length; idioma++) {
+                Map<String, IntLista> mapa = construcao.get(idioma);
+                for (String palavra : doEvento[idioma]) {
+                    mapa.computeIfAbsent(palavra, p -> new IntLista()).adicionar(posicao);
+                }
+            }
+        }
+        for (int idioma = 0; idioma < tags.size(); idioma++) {
+            NavigableMap<String, int[]> destino = termos.get(idioma);
+            construcao.get(idioma).forEach((palavra, lista) -> destino.put(palavra, lista.toArray()));
+        }
+    }
+
+    /**
+     * Indexa um evento novo ou alterado, substituindo as palavras que ele tinha antes.
+     *
+     * @param posicao A posição do evento no catálogo; um evento novo ocupa a posição seguinte à última.
+     * @param evento  O evento.
+     * @throws IllegalArgumentException Se a posição deixar um buraco depois do último evento.
+     */
+    void indexar(int posicao, Evento evento) {
+        lock.writeLock().lock();
+        try {
+            if (posicao > palavras.size()) {
+                throw new IllegalArgumentException("Posição fora do catálogo: " + posicao);
+            }
+            if (posicao < palavras.size()) {
+                String[][] anteriores = palavras.get(posicao);
+                for (int idioma = 0; idioma < anteriores.length; idioma++) {
+                    NavigableMap<String, int[]> mapa = termos.get(idioma);
+                    for (String palavra : anteriores[idioma]) {
+                        int[] restantes = remover(mapa.get(palavra), posicao);
+                        if (restantes.length == 0) {
+                            mapa.remove(palavra);
+                        } else {
+                            mapa.put(palavra, restantes);
+                        }
+                    }
+                }
+            } else {
+                palavras.add(null);
+                if (posicao == datas.length) {
+                    datas = Arrays.copyOf(datas, datas.length * 2);
+                }
+            }
+            datas[posicao] = evento.getData().toEpochMilli();
+            String[][] doEvento = palavrasDe(evento);
+            palavras.set(posicao, doEvento);
+            for (int idioma = 0; idioma < doEvento.length; idioma++) {
+                NavigableMap<String, int[]> mapa = termos.get(idioma);
+                for (String palavra : doEvento[idioma]) {
+                    mapa.put(palavra, inserir(mapa.getOrDefault(palavra, VAZIA), posicao));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os primeiros eventos, em ordem de data, cujo nome ou categoria contenham palavras
+     * começando com cada um dos trechos do texto.
+     *
+     * @param texto  O texto digitado.
+     * @param idioma O idioma dos nomes e categorias.
+     * @param limite A quantidade máxima de eventos.
+     * @return As posições dos eventos encontrados, em ordem de data.
+     */
+    int[] buscar(String texto, Locale idioma, int limite) {
+        List<String> trechos = normalizar(texto);
+        if (trechos.isEmpty() || limite <= 0) {
+            return VAZIA;
+        }
+        lock.readLock().lock();
+        try {
+            int indice = indice(idioma);
+            NavigableMap<String, int[]> mapa = termos.get(indice);
+            List<int[]> listas = maisSeletivo(mapa, trechos);
+            if (listas == null) {
+                return VAZIA;
+            }
+            // O primeiro trecho é atendido por construção; os demais são conferidos em cada evento.
+            trechos = trechos.subList(1, trechos.size());
+
+            // Intercala as listas do trecho mais seletivo em ordem de data, a partir do início de cada uma.
+            PriorityQueue<int[]> cursores = new PriorityQueue<>(Math.max(1, listas.size()),
+                    (a, b) -> comparar(a[0], b[0]));
+            // Cada cursor guarda a posição atual, o índice dela na lista e o número da lista.
+            for (int i = 0; i < listas.size(); i++) {
+                cursores.add(new int[]{listas.get(i)[0], 0, i});
+            }
+            int[] encontrados = new int[limite];
+            int quantidade = 0;
+            int anterior = -1;
+            while (!cursores.isEmpty() && quantidade < limite) {
+                int[] cursor = cursores.poll();
+                int posicao = cursor[0];
+                int[] lista = listas.get(cursor[2]);
+                if (cursor[1] + 1 < lista.length) {
+                    cursor[1]++;
+                    cursor[0] = lista[cursor[1]];
+                    cursores.add(cursor);
+                }
+                // Um evento com várias palavras do mesmo prefixo aparece seguido em várias listas.
+                if (posicao != anterior && atendeTodos(posicao, indice, trechos)) {
+                    encontrados[quantidade++] = posicao;
+                }
+                anterior = posicao;
+            }
+            return Arrays.copyOf(encontrados, quantidade);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna todos os eventos que atendem ao texto, sem ordem nem limite, para filtrar outras consultas.
+     *
+     * @param texto  O texto digitado.
+     * @param idioma O idioma dos nomes e categorias.
+     * @return As posições dos eventos encontrados, ou {@code null} se o texto não tiver nenhum trecho.
+     */
+    BitSet filtrar(String texto, Locale idioma) {
+        List<String> trechos = normalizar(texto);
+        if (trechos.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, int[]> mapa = termos.get(indice(idioma));
+            BitSet resultado = null;
+            for (String trecho : trechos) {
+                BitSet doTrecho = new BitSet(palavras.size());
+                for (int[] lista : prefixo(mapa, trecho).values()) {
+                    for (int posicao : lista) {
+                        doTrecho.set(posicao);
+                    }
+                }
+                if (resultado == null) {
+                    resultado = doTrecho;
+                } else {
+                    resultado.and(doTrecho);
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Separa o texto em palavras normalizadas: minúsculas, sem acentos e sem pontuação.
+     *
+     * @param texto O texto.
+     * @return As palavras, sem repetição, na ordem em que aparecem.
+     */
+    static List<String> normalizar(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        // Textos só com ASCII, a maioria, não precisam da decomposição dos acentos.
+        String semAcentos = texto.chars().allMatch(c -> c < 128) ? texto
+                : MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> palavras = new LinkedHashSet<>();
+        int inicio = -1;
+        for (int i = 0; i <= semAcentos.length(); i++) {
+            boolean letra = i < semAcentos.length() && Character.isLetterOrDigit(semAcentos.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palavras.add(semAcentos.substring(inicio, i).toLowerCase(Locale.ROOT));
+                inicio = -1;
+            }
+        }
+        return new ArrayList<>(palavras);
+    }
+
+    /**
+     * Escolhe o trecho com menos ocorrências no total, movendo-o para o início da lista de trechos.
+     *
+     * @return As listas das palavras do trecho escolhido, ou {@code null} se algum trecho não ocorrer.
+     */
+    private static List<int[]> maisSeletivo(NavigableMap<String, int[]> mapa, List<String> trechos) {
+        List<int[]> melhores = null;
+        long menorTotal = Long.MAX_VALUE;
+        int escolhido = 0;
+        for (int i = 0; i < trechos.size(); i++) {
+            long total = 0;
+            List<int[]> listas = new ArrayList<>();
+            for (int[] lista : prefixo(mapa, trechos.get(i)).values()) {
+                total += lista.length;
+                listas.add(lista);
+                if (total >= menorTotal) {
+                    break;
+                }
+            }
+            if (total == 0) {
+                return null;
+            }
+            if (total < menorTotal) {
+                menorTotal = total;
+                melhores = listas;
+                escolhido = i;
+            }
+        }
+        trechos.add(0, trechos.remove(escolhido));
+        return melhores;
+    }
+
+    private static NavigableMap<String, int[]> prefixo(NavigableMap<String, int[]> mapa, String trecho) {
+        return mapa.subMap(trecho, true, trecho + Character.MAX_VALUE, false);
+    }
+
+    private boolean atendeTodos(int posicao, int idioma, List<String> trechos) {
+        String[] doEvento = palavras.get(posicao)[idioma];
+        for (String trecho : trechos) {
+            boolean encontrado = false;
+            for (String palavra : doEvento) {
+                if (palavra.startsWith(trecho)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o índice do idioma em {@link #tags}, ou o do idioma padrão se ele não for indexado.
+     */
+    private int indice(Locale idioma) {
+        return Math.max(0, tags.indexOf(idioma.toLanguageTag()));
+    }
+
+    private String[][] palavrasDe(Evento evento) {
+        String[][] resultado = new String[locales.size()][];
+        for (int idioma = 0; idioma < resultado.length; idioma++) {
+            Locale locale = locales.get(idioma);
+            Set<String> doIdioma = new LinkedHashSet<>(normalizar(evento.getNome(locale)));
+            doIdioma.addAll(normalizar(evento.getDescricao(locale)));
+            resultado[idioma] = doIdioma.toArray(String[]::new);
+        }
+        return resultado;
+    }
+
+    /**
+     * Compara duas posições pela data do evento, desempatando pela posição.
+     */
+    private int comparar(int a, int b) {
+        int porData = Long.compare(datas[a], datas[b]);
+        return porData != 0 ? porData : Integer.compare(a, b);
+    }
+
+    /**
+     * Retorna uma cópia da lista com a posição inserida no lugar da sua data.
+     */
+    private int[] inserir(int[] lista, int posicao) {
+        int baixo = 0;
+        int alto = lista.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (comparar(lista[meio], posicao) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        if (baixo < lista.length && lista[baixo] == posicao) {
+            return lista;
+        }
+        int[] nova = new int[lista.length + 1];
+        System.arraycopy(lista, 0, nova, 0, baixo);
+        nova[baixo] = posicao;
+        System.arraycopy(lista, baixo, nova, baixo + 1, lista.length - baixo);
+        return nova;
+    }
+
+    /**
+     * Retorna uma cópia da lista sem a posição. A lista ainda está ordenada pela data antiga
+     * do evento, por isso a posição é procurada em toda a lista.
+     */
+    private static int[] remover(int[] lista, int posicao) {
+        for (int i = 0; i < lista.length; i++) {
+            if (lista[i] == posicao) {
+                int[] nova = new int[lista.length - 1];
+                System.arraycopy(lista, 0, nova, 0, i);
+                System.arraycopy(lista, i + 1, nova, i, lista.length - i - 1);
+                return nova;
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Lista de inteiros que cresce conforme necessário, usada na construção do índice.
+     */
+    private static final class IntLista {
+
+        private int[] valores = new int[4];
+
+        private int tamanho;
+
+        void adicionar(int valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(valores, tamanho);
+        }
+    }
+}
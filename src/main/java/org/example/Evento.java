@@ -1,10 +1,16 @@
 package org.example;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
  * Classe que representa um evento no sistema de venda de ingressos.
- * Um evento possui um nome, descrição, data, assentos e comentários.
+ * Um evento possui um nome, descrição, data e capacidade de assentos.
+ * Eventos vindos do {@link EventCatalog} também guardam o nome e a descrição em cada idioma,
+ * indexados pela tag do idioma (por exemplo {@code pt-BR}), e a chave da sua categoria.
+ * <p>
+ * A data é um {@link Instant}; dias e semanas são contados no fuso {@link #FUSO_HORARIO}.
  *
  * @author David Neves Dias
  */
@@ -20,21 +26,77 @@ public class Evento {
     private String descricao;
 
     /** A data do evento. */
-    protected Date data;
+    protected Instant data;
+
+    /** A quantidade de assentos disponíveis para venda. */
+    private int capacidade;
+
+    /** A chave da categoria, independente do idioma. */
+    private String categoria;
+
+    /** O nome do evento em cada idioma. */
+    private Map<String, String> nomes = Map.of();
+
+    /** A descrição (categoria) do evento em cada idioma. */
+    private Map<String, String> descricoes = Map.of();
+
+    /** Capacidade usada quando o evento não informa a sua. */
+    public static final int CAPACIDADE_PADRAO = 500;
+
+    /** Fuso horário em que as datas dos eventos são exibidas e agrupadas por dia. */
+    public static final ZoneId FUSO_HORARIO = ZoneId.systemDefault();
+
+    /** Formato das datas exibidas; {@link DateTimeFormatter} é imutável e pode ser compartilhado entre threads. */
+    public static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy")
+            .withZone(FUSO_HORARIO);
 
     /**
-     * Constrói um novo evento com nome, descrição, data e identificador.
+     * Constrói um novo evento com nome, descrição, data e identificador, usando a capacidade padrão.
      *
      * @param nome O nome do evento.
      * @param descricao A descrição do evento.
      * @param data A data do evento.
      * @param id O identificador único do evento.
      */
-    public Evento(String nome, String descricao, Date data, String id){
+    public Evento(String nome, String descricao, Instant data, String id){
+        this(nome, descricao, data, id, CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Constrói um novo evento com nome, descrição, data, identificador e capacidade.
+     *
+     * @param nome O nome do evento.
+     * @param descricao A descrição do evento.
+     * @param data A data do evento.
+     * @param id O identificador único do evento.
+     * @param capacidade A quantidade de assentos do evento.
+     */
+    public Evento(String nome, String descricao, Instant data, String id, int capacidade){
         this.nome = nome;
         this.descricao = descricao;
         this.data = data;
         this.id = id;
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Constrói um evento com textos em vários idiomas.
+     * O nome e a descrição sem idioma são os do idioma padrão informado.
+     *
+     * @param id O identificador único do evento.
+     * @param categoria A chave da categoria, independente do idioma.
+     * @param data A data do evento.
+     * @param capacidade A quantidade de assentos do evento.
+     * @param nomes O nome em cada idioma, indexado pela tag do idioma.
+     * @param descricoes A descrição em cada idioma, indexada pela tag do idioma.
+     * @param idiomaPadrao A tag do idioma usado quando o pedido não tiver tradução.
+     */
+    public Evento(String id, String categoria, Instant data, int capacidade,
+                  Map<String, String> nomes, Map<String, String> descricoes, String idiomaPadrao){
+        this(nomes.get(idiomaPadrao), descricoes.get(idiomaPadrao), data, id, capacidade);
+        this.categoria = categoria;
+        this.nomes = nomes;
+        this.descricoes = descricoes;
     }
 
     /**
@@ -53,6 +115,16 @@ public class Evento {
         return nome;
     }
 
+    /**
+     * Obtém o nome do evento no idioma informado, ou no idioma padrão se não houver tradução.
+     *
+     * @param locale O idioma desejado.
+     * @return O nome do evento.
+     */
+    public String getNome(Locale locale){
+        return nomes.getOrDefault(locale.toLanguageTag(), nome);
+    }
+
     /**
      * Obtém a descrição do evento.
      *
@@ -62,22 +134,59 @@ public class Evento {
         return descricao;
     }
 
+    /**
+     * Obtém a descrição do evento no idioma informado, ou no idioma padrão se não houver tradução.
+     *
+     * @param locale O idioma desejado.
+     * @return A descrição do evento.
+     */
+    public String getDescricao(Locale locale){
+        return descricoes.getOrDefault(locale.toLanguageTag(), descricao);
+    }
+
+    /**
+     * Acrescenta ao conjunto as tags dos idiomas em que o evento tem nome ou descrição traduzidos.
+     *
+     * @param idiomas O conjunto de tags de idiomas.
+     */
+    void coletarIdiomas(Set<String> idiomas){
+        idiomas.addAll(nomes.keySet());
+        idiomas.addAll(descricoes.keySet());
+    }
+
+    /**
+     * Obtém a chave da categoria do evento, independente do idioma.
+     *
+     * @return A chave da categoria, ou {@code null} se o evento não tiver sido carregado do catálogo.
+     */
+    public String getCategoria(){
+        return categoria;
+    }
+
     /**
      * Obtém a data do evento.
      *
      * @return A data do evento.
      */
-    public Date getData(){
+    public Instant getData(){
         return data;
     }
 
     /**
-     * Obtém a data do evento como String.
+     * Obtém a capacidade de assentos do evento.
+     *
+     * @return A quantidade de assentos.
+     */
+    public int getCapacidade(){
+        return capacidade;
+    }
+
+    /**
+     * Obtém a data do evento como String, no formato {@link #FORMATO_DATA}.
      * @return A data formata em String.
      */
     public String formatDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        return sdf.format(data);
+        return FORMATO_DATA.format(data);
     }
 
 }
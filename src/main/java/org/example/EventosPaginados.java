@@ -0,0 +1,88 @@
+package org.example;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Lista de eventos de uma consulta, buscada página a página conforme a tabela pede as linhas.
+ * A lista tem o tamanho do resultado completo, mas só guarda as últimas páginas acessadas,
+ * de modo que a memória usada não cresce com o catálogo. Uma nova consulta (outro filtro,
+ * ordenação ou idioma) é feita criando outra lista.
+ * <p>
+ * A lista é somente leitura e deve ser usada na thread do JavaFX.
+ *
+ * @author David Neves Dias
+ */
+public final class EventosPaginados extends ObservableListBase<LinhaEvento> {
+
+    /** Quantidade de eventos buscados de cada vez. */
+    static final int TAMANHO_PAGINA = 100;
+
+    /** Quantidade de páginas mantidas em memória. */
+    private static final int PAGINAS_EM_MEMORIA = 10;
+
+    private final TicketService service;
+
+    private final ConsultaEventos consulta;
+
+    private final int total;
+
+    private final Map<Integer, List<LinhaEvento>> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<LinhaEvento>> maisAntiga) {
+            return size() > PAGINAS_EM_MEMORIA;
+        }
+    };
+
+    /**
+     * Cria a lista de uma consulta, buscando a primeira página.
+     *
+     * @param service  O serviço de onde os eventos são consultados.
+     * @param consulta Os critérios de filtro e ordenação.
+     */
+    public EventosPaginados(TicketService service, ConsultaEventos consulta) {
+        this.service = service;
+        this.consulta = consulta;
+        this.total = buscar(0).total();
+    }
+
+    /**
+     * Obtém a consulta exibida pela lista.
+     *
+     * @return A consulta.
+     */
+    public ConsultaEventos getConsulta() {
+        return consulta;
+    }
+
+    @Override
+    public LinhaEvento get(int indice) {
+        Objects.checkIndex(indice, total);
+        int numero = indice / TAMANHO_PAGINA;
+        List<LinhaEvento> pagina = paginas.get(numero);
+        if (pagina == null) {
+            pagina = buscar(numero).itens();
+        }
+        int posicao = indice % TAMANHO_PAGINA;
+        // Se o catálogo encolher depois da criação da lista, as posições que sobraram ficam vazias.
+        return posicao < pagina.size() ? pagina.get(posicao) : null;
+    }
+
+    @Override
+    public int size() {
+        return total;
+    }
+
+    private Pagina<LinhaEvento> buscar(int numero) {
+        Pagina<Evento> pagina = service.consultarEventos(consulta, numero * TAMANHO_PAGINA, TAMANHO_PAGINA);
+        List<LinhaEvento> linhas = pagina.itens().stream()
+                .map(evento -> new LinhaEvento(evento, consulta.idioma()))
+                .toList();
+        paginas.put(numero, linhas);
+        return new Pagina<>(linhas, pagina.inicio(), pagina.total());
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inicia uma gravação do Java Flight Recorder com os eventos da aplicação ({@link StoreIoEvent},
+ * {@link LoginEvent} e {@link PurchaseEvent}) quando a propriedade {@code venda.jfr.arquivo} é informada.
+ * <p>
+ * A gravação usa o perfil {@code default} do JDK mais o perfil {@code venda.jfc}, distribuído junto
+ * com a aplicação, e é gravada no arquivo informado quando a JVM termina.
+ *
+ * @author David Neves Dias
+ */
+public final class FlightRecording {
+
+    private static final System.Logger LOGGER = System.getLogger(FlightRecording.class.getName());
+
+    private static final String PERFIL = "/venda.jfc";
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Inicia a gravação se a propriedade {@code venda.jfr.arquivo} estiver definida.
+     * Uma falha é registrada no log sem impedir a aplicação de iniciar.
+     */
+    public static void iniciarSeConfigurado() {
+        String arquivo = System.getProperty("venda.jfr.arquivo");
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Map<String, String> configuracao = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            configuracao.putAll(perfil().getSettings());
+            Recording gravacao = new Recording(configuracao);
+            gravacao.setName("venda");
+            gravacao.setDestination(Path.of(arquivo));
+            gravacao.setToDisk(true);
+            gravacao.setDumpOnExit(true);
+            gravacao.start();
+            LOGGER.log(System.Logger.Level.INFO, "Gravação do Flight Recorder iniciada em " + arquivo);
+        } catch (IOException | ParseException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Não foi possível iniciar a gravação do Flight Recorder", e);
+        }
+    }
+
+    /**
+     * Lê o perfil {@code venda.jfc} distribuído com a aplicação.
+     *
+     * @return A configuração dos eventos da aplicação.
+     * @throws IOException    Se o perfil não puder ser lido.
+     * @throws ParseException Se o perfil for inválido.
+     */
+    public static Configuration perfil() throws IOException, ParseException {
+        try (InputStream entrada = FlightRecording.class.getResourceAsStream(PERFIL)) {
+            if (entrada == null) {
+                throw new IOException("Perfil " + PERFIL + " não encontrado");
+            }
+            return Configuration.create(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mede quanto tempo a thread do JavaFX leva para atender uma tarefa, o que indica por quanto tempo
+ * a interface deixou de desenhar quadros e de responder ao usuário.
+ * <p>
+ * A cada {@code venda.ui.monitor.intervalo.ms} (padrão 100) uma tarefa vazia é enviada com
+ * {@link Platform#runLater(Runnable)}; o atraso até ela rodar vai para o histograma
+ * {@code ui.thread.atraso}, e os atrasos a partir de {@code venda.ui.travamento.ms} (padrão 100)
+ * são contados em {@code ui.thread.travamentos} e registrados no log. Só uma tarefa fica pendente
+ * por vez, então uma thread travada não acumula tarefas na fila.
+ *
+ * @author David Neves Dias
+ */
+final class FxStallMonitor {
+
+    private static final System.Logger LOGGER = System.getLogger(FxStallMonitor.class.getName());
+
+    private static final long INTERVALO_MS = Long.getLong("venda.ui.monitor.intervalo.ms", 100);
+
+    private static final long TRAVAMENTO_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("venda.ui.travamento.ms", 100));
+
+    private static final AtomicBoolean iniciado = new AtomicBoolean();
+
+    private static final AtomicBoolean pendente = new AtomicBoolean();
+
+    private static final LatencyHistogram ATRASO = MetricsRegistry.getInstance().histograma("ui.thread.atraso");
+
+    private static final LongAdder TRAVAMENTOS = MetricsRegistry.getInstance().contador("ui.thread.travamentos");
+
+    private FxStallMonitor() {
+    }
+
+    /**
+     * Inicia o monitoramento, se ainda não tiver sido iniciado.
+     */
+    static void iniciar() {
+        if (!iniciado.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "monitor-thread-javafx");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(FxStallMonitor::sondar, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sondar() {
+        if (!pendente.compareAndSet(false, true)) {
+            return;
+        }
+        long enviada = System.nanoTime();
+        Platform.runLater(() -> {
+            long atraso = System.nanoTime() - enviada;
+            pendente.set(false);
+            ATRASO.registrar(atraso);
+            if (atraso >= TRAVAMENTO_NANOS) {
+                TRAVAMENTOS.increment();
+                LOGGER.log(System.Logger.Level.WARNING, () -> String.format(
+                        "Thread do JavaFX ficou %.1f ms sem responder", atraso / 1e6));
+            }
+        });
+    }
+}
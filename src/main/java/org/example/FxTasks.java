@@ -0,0 +1,154 @@
+package org.example;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Executa fora da thread do JavaFX as operações das telas que acessam o disco ou esperam a
+ * verificação de senhas, devolvendo o resultado à thread do JavaFX com {@link Platform#runLater(Runnable)}.
+ * <p>
+ * Cada operação roda numa thread virtual, que pode bloquear em E/S ou num {@code join()} sem ocupar
+ * uma thread do sistema; os limites de concorrência continuam sendo os do {@link TicketService}
+ * (o pool do {@link PasswordHasher} e o commit agrupado dos repositórios).
+ * <p>
+ * O {@link TicketService} carrega os snapshots e journals do disco na primeira chamada de
+ * {@link TicketService#getInstance()}; as telas o obtêm por {@link #comServico(Consumer, Consumer)},
+ * que faz esse carregamento numa thread virtual.
+ * <p>
+ * As falhas das operações das telas são registradas por {@link #registrarFalha(System.Logger, String, Throwable)},
+ * no log e no contador {@code ui.erro.<operacao>}, e exibidas ao usuário por {@link #mostrarErro(String)}.
+ *
+ * @author David Neves Dias
+ */
+final class FxTasks {
+
+    private static final ExecutorService TAREFAS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tarefa-tela-", 0).factory());
+
+    private static CompletableFuture<TicketService> servico;
+
+    private FxTasks() {
+    }
+
+    /**
+     * Inicia em segundo plano o carregamento do {@link TicketService}, se ainda não tiver sido iniciado.
+     *
+     * @return O futuro com o serviço carregado.
+     */
+    static synchronized CompletableFuture<TicketService> carregarServico() {
+        if (servico == null || servico.isCompletedExceptionally()) {
+            servico = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return TicketService.getInstance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, TAREFAS);
+        }
+        return servico;
+    }
+
+    /**
+     * Usa o {@link TicketService} na thread do JavaFX sem bloqueá-la enquanto ele é carregado: se já estiver
+     * carregado e a chamada vier da thread do JavaFX, a ação roda imediatamente; senão, roda com
+     * {@link Platform#runLater(Runnable)} quando o carregamento terminar.
+     *
+     * @param acao  A ação, executada na thread do JavaFX.
+     * @param falha Recebe o erro do carregamento, na thread do JavaFX.
+     */
+    static void comServico(Consumer<TicketService> acao, Consumer<Throwable> falha) {
+        CompletableFuture<TicketService> carregamento = carregarServico();
+        if (Platform.isFxApplicationThread() && carregamento.isDone() && !carregamento.isCompletedExceptionally()) {
+            acao.accept(carregamento.join());
+            return;
+        }
+        carregamento.whenComplete((service, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                falha.accept(erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro);
+            } else {
+                acao.accept(service);
+            }
+        }));
+    }
+
+    /**
+     * Executa uma operação em segundo plano. Enquanto ela roda, o controle que a disparou fica
+     * desabilitado, o que impede um segundo clique, e o indicador de progresso fica visível.
+     * Deve ser chamado na thread do JavaFX; os consumidores também são chamados nela.
+     *
+     * @param tarefa    A operação, que pode bloquear.
+     * @param controle  O controle desabilitado durante a operação.
+     * @param progresso O indicador exibido durante a operação, ou {@code null}.
+     * @param sucesso   Recebe o resultado da operação.
+     * @param falha     Recebe a exceção da operação, já sem o {@link CompletionException} em volta.
+     * @param <T>       O tipo do resultado.
+     */
+    static <T> void executar(Callable<T> tarefa, Node controle, Node progresso,
+                             Consumer<? super T> sucesso, Consumer<Throwable> falha) {
+        controle.setDisable(true);
+        if (progresso != null) {
+            progresso.setVisible(true);
+        }
+        TAREFAS.execute(() -> {
+            T resultado;
+            try {
+                resultado = tarefa.call();
+            } catch (Throwable erro) {
+                Throwable causa = (erro instanceof CompletionException || erro instanceof ExecutionException)
+                        && erro.getCause() != null ? erro.getCause() : erro;
+                Platform.runLater(() -> {
+                    concluir(controle, progresso);
+                    falha.accept(causa);
+                });
+                return;
+            }
+            Platform.runLater(() -> {
+                concluir(controle, progresso);
+                sucesso.accept(resultado);
+            });
+        });
+    }
+
+    /**
+     * Registra a falha de uma operação de tela no log e no contador {@code ui.erro.<operacao>}.
+     *
+     * @param logger   O log do controlador.
+     * @param operacao O nome da operação, de um conjunto fixo (por exemplo {@code login} ou {@code compra}).
+     * @param erro     A falha.
+     */
+    static void registrarFalha(System.Logger logger, String operacao, Throwable erro) {
+        logger.log(System.Logger.Level.ERROR, "Falha na operação " + operacao, erro);
+        MetricsRegistry.getInstance().contador("ui.erro." + operacao).increment();
+    }
+
+    /**
+     * Exibe uma mensagem de erro ao usuário. Deve ser chamado na thread do JavaFX.
+     *
+     * @param mensagem A mensagem, já traduzida.
+     */
+    static void mostrarErro(String mensagem) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(LocalizationService.getInstance().get("alerta.erro.titulo"));
+        alert.setHeaderText(null);
+        alert.setContentText(mensagem);
+        alert.showAndWait();
+    }
+
+    private static void concluir(Node controle, Node progresso) {
+        controle.setDisable(false);
+        if (progresso != null) {
+            progresso.setVisible(false);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline de escrita com uma única thread, que agrupa em lotes os itens enviados por várias threads.
+ * Os itens que chegam dentro da janela de espera (ou enquanto o lote anterior está sendo gravado)
+ * são gravados juntos numa única escrita durável, e cada chamador é completado pelo seu
+ * {@link CompletableFuture} quando o lote que contém o seu item estiver em disco.
+ *
+ * @param <T> O tipo dos itens gravados.
+ *
+ * @author David Neves Dias
+ */
+public class GroupCommitter<T> implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(GroupCommitter.class.getName());
+
+    /** Tamanho máximo padrão de um lote. */
+    public static final int TAMANHO_LOTE_PADRAO = Integer.getInteger("venda.commit.lote", 128);
+
+    /** Janela de espera padrão para completar um lote. */
+    public static final Duration ESPERA_PADRAO = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Long.getLong("venda.commit.espera.micros", 1000)));
+
+    /**
+     * Destino de um lote de itens. A gravação deve ser durável quando o método retornar.
+     *
+     * @param <T> O tipo dos itens.
+     */
+    @FunctionalInterface
+    public interface GravadorLote<T> {
+
+        /**
+         * Grava o lote de itens.
+         *
+         * @param lote Os itens, na ordem em que foram enviados.
+         * @throws IOException Se ocorrer um erro na gravação.
+         */
+        void gravar(List<T> lote) throws IOException;
+    }
+
+    private final BlockingQueue<Pendente<T>> fila = new LinkedBlockingQueue<>();
+
+    private final GravadorLote<T> gravador;
+
+    private final int tamanhoLote;
+
+    private final long esperaNanos;
+
+    private final Thread escritor;
+
+    private volatile boolean fechado;
+
+    /**
+     * Cria o pipeline e inicia a thread escritora.
+     *
+     * @param nome        O nome da thread escritora.
+     * @param gravador    O destino dos lotes.
+     * @param tamanhoLote O número máximo de itens por lote.
+     * @param espera      Quanto tempo aguardar por mais itens depois do primeiro item de um lote.
+     */
+    public GroupCommitter(String nome, GravadorLote<T> gravador, int tamanhoLote, Duration espera) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        this.gravador = gravador;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaNanos = espera.toNanos();
+        this.escritor = new Thread(this::executar, nome);
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Envia um item para ser gravado no próximo lote.
+     *
+     * @param item O item a ser gravado.
+     * @return Um futuro completado quando o item estiver gravado, ou com a exceção da gravação.
+     */
+    public CompletableFuture<Void> enviar(T item) {
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        if (fechado) {
+            futuro.completeExceptionally(new IllegalStateException("O pipeline de gravação foi fechado."));
+            return futuro;
+        }
+        fila.add(new Pendente<>(item, futuro));
+        return futuro;
+    }
+
+    /**
+     * Retorna o tamanho máximo dos lotes.
+     *
+     * @return O número máximo de itens por lote.
+     */
+    public int getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    /**
+     * Encerra a thread escritora depois de gravar os itens já enviados.
+     * A thread não é interrompida durante uma gravação, pois isso fecharia o canal do arquivo.
+     *
+     * @throws InterruptedException Se a espera pelo término for interrompida.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        fechado = true;
+        fila.add(fim());
+        escritor.join();
+    }
+
+    /**
+     * Laço da thread escritora: monta um lote a partir do primeiro item disponível e o grava.
+     */
+    private void executar() {
+        List<Pendente<T>> lote = new ArrayList<>(tamanhoLote);
+        boolean ativo = true;
+        while (ativo) {
+            try {
+                Pendente<T> primeiro = fila.take();
+                if (primeiro.futuro() == null) {
+                    ativo = false;
+                } else {
+                    lote.add(primeiro);
+                }
+                long limite = System.nanoTime() + esperaNanos;
+                while (ativo && lote.size() < tamanhoLote) {
+                    long restante = limite - System.nanoTime();
+                    Pendente<T> proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    if (proximo.futuro() == null) {
+                        ativo = false;
+                    } else {
+                        lote.add(proximo);
+                    }
+                }
+            } catch (InterruptedException e) {
+                ativo = false;
+            }
+            if (!lote.isEmpty()) {
+                gravarLote(lote);
+                lote.clear();
+            }
+        }
+        // Itens enviados durante o fechamento não serão mais gravados.
+        Pendente<T> restante;
+        while ((restante = fila.poll()) != null) {
+            if (restante.futuro() != null) {
+                restante.futuro().completeExceptionally(new IllegalStateException("O pipeline de gravação foi fechado."));
+            }
+        }
+    }
+
+    /**
+     * Cria o marcador de fim da fila, reconhecido por não ter futuro associado.
+     *
+     * @return O marcador de fim.
+     */
+    private Pendente<T> fim() {
+        return new Pendente<>(null, null);
+    }
+
+    private void gravarLote(List<Pendente<T>> lote) {
+        List<T> itens = new ArrayList<>(lote.size());
+        for (Pendente<T> pendente : lote) {
+            itens.add(pendente.item());
+        }
+        try {
+            gravador.gravar(itens);
+            for (Pendente<T> pendente : lote) {
+                pendente.futuro().complete(null);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Falha ao gravar lote de " + lote.size() + " itens", e);
+            for (Pendente<T> pendente : lote) {
+                pendente.futuro().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Item aguardando gravação, com o futuro do seu chamador.
+     *
+     * @param item   O item.
+     * @param futuro O futuro a ser completado.
+     * @param <T>    O tipo do item.
+     */
+    private record Pendente<T>(T item, CompletableFuture<Void> futuro) {
+    }
+}
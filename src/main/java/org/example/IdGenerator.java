@@ -0,0 +1,42 @@
+package org.example;
+
+import java.util.UUID;
+
+/**
+ * Gerador de IDs de 128 bits, emitidos como {@link UUID}.
+ * A implementação padrão é escolhida pela propriedade {@code venda.id.gerador}:
+ * {@code tempo} (padrão) usa o {@link TimeOrderedIdGenerator}; {@code aleatorio} usa {@link UUID#randomUUID()}.
+ *
+ * @author David Neves Dias
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /** Gerador de UUIDs aleatórios (versão 4), baseado no {@link java.security.SecureRandom} compartilhado. */
+    IdGenerator ALEATORIO = UUID::randomUUID;
+
+    /**
+     * Gera um novo ID.
+     *
+     * @return O ID gerado.
+     */
+    UUID next();
+
+    /**
+     * Gera um novo ID no formato textual de UUID.
+     *
+     * @return O ID gerado, como texto.
+     */
+    default String nextString() {
+        return next().toString();
+    }
+
+    /**
+     * Retorna o gerador configurado para a aplicação.
+     *
+     * @return O gerador padrão.
+     */
+    static IdGenerator padrao() {
+        return "aleatorio".equals(System.getProperty("venda.id.gerador")) ? ALEATORIO : TimeOrderedIdGenerator.getInstance();
+    }
+}
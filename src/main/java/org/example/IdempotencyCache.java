@@ -0,0 +1,186 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Guarda o resultado das compras feitas com uma chave de idempotência, para que a repetição de uma
+ * compra (um clique duplo ou a nova tentativa de um cliente HTTP) receba o resultado original sem
+ * reservar assentos nem gravar ingressos de novo.
+ * <p>
+ * A chave vale por usuário, que deve ser o autenticado pela sessão, nunca um ID informado pelo cliente.
+ * Enquanto a compra original está em andamento, as repetições recebem o
+ * mesmo futuro. Uma compra que falha ao gravar é esquecida, de modo que a repetição tenta de novo;
+ * qualquer outro desfecho, inclusive {@link ResultadoCompra.Status#ESGOTADO}, é devolvido às repetições.
+ * <p>
+ * As entradas expiram depois de {@code venda.compra.idempotencia.ttl.segundos} (padrão 600) e, além de
+ * {@code venda.compra.idempotencia.capacidade} entradas (padrão 100000), as usadas há mais tempo são
+ * descartadas. Uma compra ainda em andamento nunca expira nem é descartada, pois a sua repetição faria
+ * uma segunda compra; com muitas compras em andamento, o cache passa temporariamente da capacidade. Acertos, ausências, descartes e expirações são contados nas métricas
+ * {@code compra.idempotencia.*}, com a taxa de acerto em milésimos em {@code compra.idempotencia.taxaAcerto}.
+ *
+ * @author David Neves Dias
+ */
+final class IdempotencyCache {
+
+    /** Número máximo padrão de compras guardadas. */
+    static final int CAPACIDADE_PADRAO = Integer.getInteger("venda.compra.idempotencia.capacidade", 100_000);
+
+    /** Por quanto tempo, por padrão, uma compra é guardada. */
+    static final Duration TTL_PADRAO = Duration.ofSeconds(Long.getLong("venda.compra.idempotencia.ttl.segundos", 600));
+
+    private final int capacidade;
+
+    private final long ttlNanos;
+
+    private final Map<Chave, Entrada> entradas;
+
+    private final LongAdder acertos;
+
+    private final LongAdder ausencias;
+
+    private final LongAdder descartes;
+
+    private final LongAdder expiradas;
+
+    /**
+     * Cria o cache com a capacidade e a duração padrão.
+     */
+    IdempotencyCache() {
+        this(CAPACIDADE_PADRAO, TTL_PADRAO);
+    }
+
+    /**
+     * Cria o cache com a capacidade e a duração informadas.
+     *
+     * @param capacidade O número máximo de compras guardadas.
+     * @param ttl        Por quanto tempo uma compra é guardada.
+     */
+    IdempotencyCache(int capacidade, Duration ttl) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva.");
+        }
+        this.capacidade = capacidade;
+        this.ttlNanos = ttl.toNanos();
+        // Em ordem de acesso, para que a entrada mais antiga seja a usada há mais tempo.
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, Entrada> maisAntiga) {
+                if (size() > IdempotencyCache.this.capacidade) {
+                    descartarConcluidas(this);
+                }
+                return false;
+            }
+        };
+        MetricsRegistry metricas = MetricsRegistry.getInstance();
+        this.acertos = metricas.contador("compra.idempotencia.acertos");
+        this.ausencias = metricas.contador("compra.idempotencia.ausencias");
+        this.descartes = metricas.contador("compra.idempotencia.descartes");
+        this.expiradas = metricas.contador("compra.idempotencia.expiradas");
+        metricas.medidor("compra.idempotencia.entradas", this::tamanho);
+        metricas.medidor("compra.idempotencia.taxaAcerto", () -> {
+            long acertados = acertos.sum();
+            long total = acertados + ausencias.sum();
+            return total == 0 ? 0 : acertados * 1000 / total;
+        });
+    }
+
+    /**
+     * Retorna o resultado da compra feita antes com a mesma chave ou, se não houver, efetua a compra
+     * e guarda o seu resultado.
+     *
+     * @param usuarioId  O ID do comprador.
+     * @param chave      A chave de idempotência informada pelo cliente.
+     * @param eventoId   O ID do evento.
+     * @param quantidade O número de ingressos.
+     * @param compra     Efetua a compra quando a chave ainda não foi usada.
+     * @return O futuro com o resultado da compra original ou da nova compra.
+     * @throws IllegalArgumentException Se a chave já foi usada numa compra de outro evento ou quantidade.
+     */
+    CompletableFuture<ResultadoCompra> obter(String usuarioId, String chave, String eventoId, int quantidade,
+                                             Supplier<CompletableFuture<ResultadoCompra>> compra) {
+        Chave id = new Chave(usuarioId, chave);
+        CompletableFuture<ResultadoCompra> resultado = new CompletableFuture<>();
+        Entrada nova = new Entrada(eventoId, quantidade, resultado, System.nanoTime() + ttlNanos);
+        synchronized (entradas) {
+            Entrada existente = entradas.get(id);
+            if (existente != null && (!existente.resultado().isDone() || existente.expiraEm() - System.nanoTime() > 0)) {
+                if (!Objects.equals(existente.eventoId(), eventoId) || existente.quantidade() != quantidade) {
+                    throw new IllegalArgumentException("A chave de idempotência já foi usada numa compra diferente.");
+                }
+                acertos.increment();
+                return existente.resultado();
+            }
+            if (existente != null) {
+                expiradas.increment();
+            }
+            ausencias.increment();
+            entradas.put(id, nova);
+        }
+
+        CompletableFuture<ResultadoCompra> efetuada;
+        try {
+            efetuada = compra.get();
+        } catch (RuntimeException e) {
+            esquecer(id, nova);
+            resultado.completeExceptionally(e);
+            throw e;
+        }
+        efetuada.whenComplete((valor, erro) -> {
+            if (erro != null) {
+                esquecer(id, nova);
+                resultado.completeExceptionally(erro);
+            } else {
+                resultado.complete(valor);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Retorna o número de compras guardadas, incluindo as já expiradas que ainda não foram substituídas
+     * nem descartadas.
+     *
+     * @return O número de entradas.
+     */
+    int tamanho() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * Descarta as entradas concluídas usadas há mais tempo até o cache voltar à capacidade,
+     * pulando as de compras em andamento. Chamado sob o monitor do mapa.
+     */
+    private void descartarConcluidas(Map<Chave, Entrada> mapa) {
+        Iterator<Entrada> iterador = mapa.values().iterator();
+        while (mapa.size() > capacidade && iterador.hasNext()) {
+            if (iterador.next().resultado().isDone()) {
+                iterador.remove();
+                descartes.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove a entrada de uma compra que falhou, se ela ainda não tiver sido substituída.
+     */
+    private void esquecer(Chave id, Entrada entrada) {
+        synchronized (entradas) {
+            entradas.remove(id, entrada);
+        }
+    }
+
+    private record Chave(String usuarioId, String chave) {
+    }
+
+    private record Entrada(String eventoId, int quantidade, CompletableFuture<ResultadoCompra> resultado, long expiraEm) {
+    }
+}
@@ -1,81 +1,295 @@
 package org.example;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
 /**
  * Classe que representa um ingresso para um evento.
- * Contém informações como o nome do evento, data, ID do ingresso e preço.
+ * O ingresso guarda apenas referências e valores primitivos: o ID de 128 bits em dois {@code long},
+ * o ID do evento (nome e data vêm do {@link EventCatalog}), o ID do comprador, o preço em centavos
+ * e o instante da compra em milissegundos desde a época.
+ * <p>
+ * Ingressos gravados por versões antigas, que copiavam o nome e a data do evento como texto,
+ * continuam sendo lidos; o nome e a data só são mantidos nos que não registravam o ID do evento.
  *
  * @author David Neves Dias
  */
+@JsonAdapter(Ingresso.Json.class)
 public class Ingresso {
 
     /**
-     * Nome do evento associado ao ingresso.
+     * Metade mais significativa do ID do ingresso.
+     */
+    private final long idAlto;
+
+    /**
+     * Metade menos significativa do ID do ingresso.
+     */
+    private final long idBaixo;
+
+    /**
+     * ID do evento associado ao ingresso.
      */
-    private String name;
+    private final String eventoId;
 
     /**
-     * Data do evento associado ao ingresso.
+     * ID do usuário que comprou o ingresso.
      */
-    private String data;
+    private final String usuarioId;
 
     /**
-     * ID único do ingresso.
+     * Preço do ingresso, em centavos.
      */
-    private String id;
+    private final long precoCentavos;
 
     /**
-     * Preço do ingresso.
+     * Instante da compra, em milissegundos desde a época, ou 0 se desconhecido.
      */
-    private Double preco;
+    private final long compradoEm;
+
+    /**
+     * Nome do evento, apenas em ingressos antigos sem o ID do evento.
+     */
+    private final String nomeLegado;
+
+    /**
+     * Data do evento, apenas em ingressos antigos sem o ID do evento.
+     */
+    private final String dataLegada;
 
     /**
      * Construtor que inicializa um ingresso com os detalhes fornecidos.
      *
-     * @param name  O nome do evento.
-     * @param data  A data do evento.
-     * @param id    O ID único do ingresso.
-     * @param preco O preço do ingresso.
-     */
-    public Ingresso(String name, String data, String id, Double preco) {
-        this.name = name;
-        this.data = data;
-        this.id = id;
-        this.preco = preco;
+     * @param id            O ID único do ingresso.
+     * @param eventoId      O ID do evento.
+     * @param usuarioId     O ID do comprador.
+     * @param precoCentavos O preço do ingresso, em centavos.
+     * @param compradoEm    O instante da compra, em milissegundos desde a época.
+     */
+    public Ingresso(UUID id, String eventoId, String usuarioId, long precoCentavos, long compradoEm) {
+        this(id.getMostSignificantBits(), id.getLeastSignificantBits(), eventoId, usuarioId, precoCentavos, compradoEm, null, null);
     }
 
     /**
-     * Obtém o nome do evento associado ao ingresso.
+     * Construtor completo, usado pelos formatos de snapshot para restaurar um ingresso gravado.
+     * O nome e a data legados são descartados quando o ID do evento é conhecido.
      *
-     * @return O nome do evento.
+     * @param idAlto        Metade mais significativa do ID.
+     * @param idBaixo       Metade menos significativa do ID.
+     * @param eventoId      O ID do evento, ou {@code null} em ingressos antigos.
+     * @param usuarioId     O ID do comprador.
+     * @param precoCentavos O preço do ingresso, em centavos.
+     * @param compradoEm    O instante da compra, em milissegundos desde a época.
+     * @param nomeLegado    O nome do evento gravado num ingresso antigo.
+     * @param dataLegada    A data do evento gravada num ingresso antigo.
      */
-    public String getName() {
-        return name;
+    Ingresso(long idAlto, long idBaixo, String eventoId, String usuarioId, long precoCentavos, long compradoEm,
+                     String nomeLegado, String dataLegada) {
+        this.idAlto = idAlto;
+        this.idBaixo = idBaixo;
+        this.eventoId = eventoId;
+        this.usuarioId = usuarioId;
+        this.precoCentavos = precoCentavos;
+        this.compradoEm = compradoEm;
+        this.nomeLegado = eventoId == null ? nomeLegado : null;
+        this.dataLegada = eventoId == null ? dataLegada : null;
     }
 
     /**
-     * Obtém a data do evento associado ao ingresso.
+     * Converte um ID textual no UUID correspondente.
+     * IDs antigos que não estejam no formato UUID são convertidos num UUID derivado do próprio texto,
+     * sempre o mesmo para o mesmo texto.
      *
-     * @return A data do evento.
+     * @param id O ID textual.
+     * @return O UUID correspondente.
      */
-    public String getData() {
-        return data;
+    public static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8));
+        }
     }
 
     /**
-     * Obtém o ID único do ingresso.
+     * Retorna uma cópia deste ingresso associada ao comprador informado.
+     * Usado na migração de ingressos antigos, que não guardavam o ID do comprador.
+     *
+     * @param usuarioId O ID do comprador.
+     * @return A cópia do ingresso.
+     */
+    public Ingresso comUsuario(String usuarioId) {
+        return new Ingresso(idAlto, idBaixo, eventoId, usuarioId, precoCentavos, compradoEm, nomeLegado, dataLegada);
+    }
+
+    /**
+     * Obtém o ID único do ingresso no formato UUID.
      *
      * @return O ID do ingresso.
      */
     public String getId() {
-        return id;
+        return getUuid().toString();
+    }
+
+    /**
+     * Obtém o ID único do ingresso.
+     *
+     * @return O ID do ingresso.
+     */
+    public UUID getUuid() {
+        return new UUID(idAlto, idBaixo);
+    }
+
+    /**
+     * Obtém o ID do evento associado ao ingresso.
+     *
+     * @return O ID do evento, ou {@code null} em ingressos antigos que não o registravam.
+     */
+    public String getEventoId() {
+        return eventoId;
+    }
+
+    /**
+     * Obtém o ID do usuário que comprou o ingresso.
+     *
+     * @return O ID do comprador.
+     */
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    /**
+     * Obtém o preço do ingresso, em centavos.
+     *
+     * @return O preço em centavos.
+     */
+    public long getPrecoCentavos() {
+        return precoCentavos;
     }
 
     /**
-     * Obtém o preço do ingresso.
+     * Obtém o preço do ingresso, para exibição.
      *
      * @return O preço do ingresso.
      */
-    public Double getPreco() {
-        return preco;
+    public double getPreco() {
+        return precoCentavos / 100.0;
+    }
+
+    /**
+     * Obtém o instante da compra.
+     *
+     * @return Milissegundos desde a época, ou 0 em ingressos antigos que não o registravam.
+     */
+    public long getCompradoEm() {
+        return compradoEm;
+    }
+
+    /**
+     * Obtém o nome do evento gravado num ingresso antigo sem o ID do evento.
+     *
+     * @return O nome gravado, ou {@code null} se o ingresso referencia o evento pelo ID.
+     */
+    public String getNomeLegado() {
+        return nomeLegado;
+    }
+
+    /**
+     * Obtém a data do evento gravada num ingresso antigo sem o ID do evento.
+     *
+     * @return A data gravada, ou {@code null} se o ingresso referencia o evento pelo ID.
+     */
+    public String getDataLegada() {
+        return dataLegada;
+    }
+
+    /**
+     * Formato JSON compacto do ingresso:
+     * {@code {"id":[alto,baixo],"evento":"1","usuario":"...","centavos":10000,"em":1734624000000}}.
+     * Também lê o formato antigo ({@code id} como texto, {@code preco} decimal, {@code name} e {@code data}).
+     */
+    static final class Json extends TypeAdapter<Ingresso> {
+
+        @Override
+        public void write(JsonWriter out, Ingresso ingresso) throws IOException {
+            if (ingresso == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").beginArray().value(ingresso.idAlto).value(ingresso.idBaixo).endArray();
+            if (ingresso.eventoId != null) {
+                out.name("evento").value(ingresso.eventoId);
+            }
+            if (ingresso.usuarioId != null) {
+                out.name("usuario").value(ingresso.usuarioId);
+            }
+            out.name("centavos").value(ingresso.precoCentavos);
+            if (ingresso.compradoEm != 0) {
+                out.name("em").value(ingresso.compradoEm);
+            }
+            if (ingresso.nomeLegado != null) {
+                out.name("nome").value(ingresso.nomeLegado);
+            }
+            if (ingresso.dataLegada != null) {
+                out.name("data").value(ingresso.dataLegada);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Ingresso read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            long idAlto = 0;
+            long idBaixo = 0;
+            String eventoId = null;
+            String usuarioId = null;
+            long precoCentavos = 0;
+            long compradoEm = 0;
+            String nome = null;
+            String data = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String campo = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (campo) {
+                    case "id" -> {
+                        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                            in.beginArray();
+                            idAlto = in.nextLong();
+                            idBaixo = in.nextLong();
+                            in.endArray();
+                        } else {
+                            UUID id = parseId(in.nextString());
+                            idAlto = id.getMostSignificantBits();
+                            idBaixo = id.getLeastSignificantBits();
+                        }
+                    }
+                    case "evento", "eventoId" -> eventoId = in.nextString();
+                    case "usuario", "usuarioId" -> usuarioId = in.nextString();
+                    case "centavos" -> precoCentavos = in.nextLong();
+                    case "preco" -> precoCentavos = Math.round(in.nextDouble() * 100);
+                    case "em" -> compradoEm = in.nextLong();
+                    case "nome", "name" -> nome = in.nextString();
+                    case "data" -> data = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Ingresso(idAlto, idBaixo, eventoId, usuarioId, precoCentavos, compradoEm, nome, data);
+        }
     }
 }
@@ -0,0 +1,124 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Classe responsável pela leitura e escrita do snapshot de ingressos em arquivo JSON.
+ * <p>
+ * Com a propriedade {@code venda.snapshot.formato=binario}, o snapshot é gravado no formato
+ * binário de {@link IngressoSnapshot}, no arquivo {@code .snap} ao lado do JSON. Enquanto o
+ * arquivo binário não existir, a leitura continua sendo feita do JSON.
+ *
+ * @author David Neves Dias
+ */
+public class IngressoManager {
+
+    private static final LatencyHistogram LEITURA = MetricsRegistry.getInstance().histograma("ingressos.snapshot.leitura");
+
+    private static final LatencyHistogram GRAVACAO = MetricsRegistry.getInstance().histograma("ingressos.snapshot.gravacao");
+
+    private final Path arquivo;
+
+    private final Path arquivoBinario;
+
+    private final boolean binario;
+
+    /**
+     * Cria o gerenciador usando o arquivo padrão {@code ingressos.json}.
+     */
+    public IngressoManager() {
+        this(Path.of("ingressos.json"));
+    }
+
+    /**
+     * Cria o gerenciador usando o arquivo informado.
+     *
+     * @param arquivo O caminho do arquivo JSON de ingressos.
+     */
+    public IngressoManager(Path arquivo) {
+        this(arquivo, BinarySnapshot.binarioConfigurado());
+    }
+
+    /**
+     * Cria o gerenciador usando o arquivo e o formato de snapshot informados.
+     *
+     * @param arquivo O caminho do arquivo JSON de ingressos.
+     * @param binario Se o snapshot deve ser gravado no formato binário.
+     */
+    public IngressoManager(Path arquivo, boolean binario) {
+        this.arquivo = arquivo;
+        this.arquivoBinario = BinarySnapshot.caminhoBinario(arquivo);
+        this.binario = binario;
+    }
+
+    /**
+     * Indica se o snapshot está configurado no formato binário mas ainda só existe em JSON,
+     * caso em que deve ser regravado para completar a conversão.
+     *
+     * @return {@code true} se o snapshot binário ainda não foi gravado.
+     * @throws IOException Se ocorrer um erro ao procurar o snapshot binário.
+     */
+    public boolean precisaConverter() throws IOException {
+        return binario && BinarySnapshot.geracaoAtual(arquivoBinario).isEmpty();
+    }
+
+    /**
+     * Lê o snapshot em streaming, entregando cada ingresso ao consumidor assim que é lido.
+     *
+     * @param consumidor O destino de cada ingresso lido.
+     * @return A quantidade de ingressos lidos.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    public int lerIngressos(Consumer<Ingresso> consumidor) throws IOException {
+        StoreIoEvent evento = new StoreIoEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        Path geracao = binario ? BinarySnapshot.geracaoAtual(arquivoBinario).orElse(null) : null;
+        boolean lerBinario = geracao != null;
+        int lidos = lerBinario
+                ? IngressoSnapshot.ler(geracao, consumidor)
+                : JsonSnapshot.ler(arquivo, Ingresso.class, consumidor);
+        LEITURA.registrarDesde(inicio);
+        evento.concluir("ingressos", "leitura", lerBinario, lerBinario ? geracao : arquivo, lidos);
+        MetricsRegistry.getInstance().valor("ingressos.snapshot.registros").set(lidos);
+        return lidos;
+    }
+
+    /**
+     * Salva os ingressos no arquivo JSON, ou no binário se esse for o formato configurado,
+     * substituindo o arquivo anterior atomicamente.
+     *
+     * @param ingressos Os ingressos a serem salvos.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    public void salvarIngressos(Iterable<Ingresso> ingressos) throws IOException {
+        StoreIoEvent evento = new StoreIoEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        int gravados;
+        Path destino;
+        if (binario) {
+            List<Ingresso> lista = new ArrayList<>();
+            ingressos.forEach(lista::add);
+            destino = BinarySnapshot.proximaGeracao(arquivoBinario);
+            IngressoSnapshot.gravar(destino, lista);
+            gravados = lista.size();
+            // Os ingressos são lidos por inteiro na inicialização, mas o mapeamento da leitura
+            // pode ainda não ter sido liberado; por isso também são gravados numa nova geração.
+            BinarySnapshot.apagarGeracoesAnteriores(arquivoBinario, destino);
+        } else {
+            gravados = JsonSnapshot.gravar(arquivo, Ingresso.class, ingressos);
+            destino = arquivo;
+        }
+        GRAVACAO.registrarDesde(inicio);
+        evento.concluir("ingressos", "gravacao", binario, destino, gravados);
+        MetricsRegistry metricas = MetricsRegistry.getInstance();
+        metricas.valor("ingressos.snapshot.registros").set(gravados);
+        metricas.valor("ingressos.snapshot.bytes").set(Files.size(destino));
+    }
+}
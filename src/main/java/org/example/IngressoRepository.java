@@ -0,0 +1,278 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Repositório em memória dos ingressos vendidos, separado dos usuários.
+ * Mantém os ingressos indexados pelo seu ID, com índices secundários por usuário e por evento,
+ * de modo que uma compra grava apenas os registros dos ingressos emitidos.
+ * Os índices secundários guardam os próprios ingressos, sem cópias dos seus IDs.
+ * As mutações são persistidas pelo journal de ingressos (veja {@link JournaledRepository}).
+ *
+ * @author David Neves Dias
+ */
+public class IngressoRepository extends JournaledRepository<Ingresso> {
+
+    private static IngressoRepository instance;
+
+    private final IngressoManager ingressoManager;
+
+    private final Map<UUID, Ingresso> porId = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Ingresso>> porUsuario = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Ingresso>> porEvento = new ConcurrentHashMap<>();
+
+    private final List<Consumer<Ingresso>> ouvintesReembolso = new CopyOnWriteArrayList<>();
+
+    /**
+     * Cria o repositório, carregando o snapshot e reaplicando os registros do journal.
+     *
+     * @param ingressoManager O gerenciador responsável pela leitura e escrita do snapshot.
+     * @param journal         O journal onde as mutações são registradas.
+     * @throws IOException Se ocorrer um erro ao ler os arquivos.
+     */
+    public IngressoRepository(IngressoManager ingressoManager, Journal journal) throws IOException {
+        super(journal);
+        this.ingressoManager = ingressoManager;
+        int lidos = ingressoManager.lerIngressos(this::indexar);
+        recuperar();
+        if (lidos > 0 && ingressoManager.precisaConverter()) {
+            agendarCompactacao();
+        }
+    }
+
+    /**
+     * Retorna a instância compartilhada do repositório, carregando o arquivo na primeira chamada
+     * e migrando os ingressos que ainda estejam aninhados no arquivo de usuários.
+     *
+     * @return A instância do repositório.
+     * @throws IOException Se ocorrer um erro ao ler ou gravar os arquivos.
+     */
+    public static synchronized IngressoRepository getInstance() throws IOException {
+        if (instance == null) {
+            IngressoRepository repositorio = new IngressoRepository(new IngressoManager(), new Journal(Path.of("ingressos.journal")));
+            repositorio.migrarIngressosLegados(UsuarioRepository.getInstance());
+            instance = repositorio;
+        }
+        return instance;
+    }
+
+    /**
+     * Busca um ingresso pelo seu ID.
+     *
+     * @param id O ID do ingresso.
+     * @return O ingresso encontrado, se existir.
+     */
+    public Optional<Ingresso> buscarPorId(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(Ingresso.parseId(id)));
+    }
+
+    /**
+     * Lista os ingressos comprados por um usuário.
+     *
+     * @param usuarioId O ID do usuário.
+     * @return Os ingressos do usuário.
+     */
+    public List<Ingresso> listarPorUsuario(String usuarioId) {
+        return copiar(porUsuario.get(usuarioId));
+    }
+
+    /**
+     * Lista os ingressos vendidos para um evento.
+     *
+     * @param eventoId O ID do evento.
+     * @return Os ingressos do evento.
+     */
+    public List<Ingresso> listarPorEvento(String eventoId) {
+        return copiar(porEvento.get(eventoId));
+    }
+
+    /**
+     * Conta os ingressos vendidos para um evento, sem materializar a lista.
+     *
+     * @param eventoId O ID do evento.
+     * @return O número de ingressos do evento.
+     */
+    public int contarPorEvento(String eventoId) {
+        Set<Ingresso> ingressos = porEvento.get(eventoId);
+        return ingressos == null ? 0 : ingressos.size();
+    }
+
+    /**
+     * Retorna a quantidade total de ingressos.
+     *
+     * @return O número de ingressos.
+     */
+    public int tamanho() {
+        return porId.size();
+    }
+
+    /**
+     * Registra a compra de ingressos para um usuário.
+     *
+     * @param usuarioId O ID do comprador.
+     * @param ingressos Os ingressos emitidos.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    public synchronized void registrarCompra(String usuarioId, List<Ingresso> ingressos) throws IOException {
+        JournalRecord registro = JournalRecord.compra(usuarioId, List.copyOf(ingressos));
+        registrar(registro);
+        aplicar(registro);
+    }
+
+    /**
+     * Registra a compra de ingressos pelo commit agrupado: compras concorrentes que chegam
+     * dentro da mesma janela são gravadas juntas, com uma única sincronização em disco.
+     *
+     * @param usuarioId O ID do comprador.
+     * @param ingressos Os ingressos emitidos.
+     * @return Um futuro completado quando a compra estiver gravada e visível no repositório.
+     */
+    public CompletableFuture<Void> registrarCompraAgrupada(String usuarioId, List<Ingresso> ingressos) {
+        return registrarAgrupado(JournalRecord.compra(usuarioId, List.copyOf(ingressos)));
+    }
+
+    /**
+     * Registra um ouvinte chamado com cada ingresso reembolsado, depois de o reembolso ser gravado.
+     *
+     * @param ouvinte O ouvinte.
+     */
+    public void aoReembolsar(Consumer<Ingresso> ouvinte) {
+        ouvintesReembolso.add(ouvinte);
+    }
+
+    /**
+     * Reembolsa um ingresso, removendo-o do repositório e avisando os ouvintes de {@link #aoReembolsar(Consumer)}.
+     *
+     * @param ingressoId O ID do ingresso.
+     * @return {@code true} se o ingresso existia e foi removido.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    public synchronized boolean reembolsar(String ingressoId) throws IOException {
+        Ingresso ingresso = buscarPorId(ingressoId).orElse(null);
+        if (ingresso == null) {
+            return false;
+        }
+        JournalRecord registro = JournalRecord.reembolso(ingresso.getUsuarioId(), ingresso.getId());
+        registrar(registro);
+        aplicar(registro);
+        ouvintesReembolso.forEach(ouvinte -> ouvinte.accept(ingresso));
+        return true;
+    }
+
+    /**
+     * Migra para este repositório os ingressos ainda aninhados nos usuários (formato antigo)
+     * e depois os descarta do repositório de usuários. A migração é idempotente: ingressos
+     * já presentes aqui são ignorados, caso uma migração anterior tenha sido interrompida.
+     *
+     * @param usuarioRepository O repositório de usuários de onde os ingressos são migrados.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    public void migrarIngressosLegados(UsuarioRepository usuarioRepository) throws IOException {
+        Map<String, List<Ingresso>> legados = usuarioRepository.ingressosLegados();
+        if (legados.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, List<Ingresso>> entrada : legados.entrySet()) {
+            List<Ingresso> ingressos = new ArrayList<>();
+            for (Ingresso ingresso : entrada.getValue()) {
+                if (!porId.containsKey(ingresso.getUuid())) {
+                    ingressos.add(ingresso.comUsuario(entrada.getKey()));
+                }
+            }
+            if (!ingressos.isEmpty()) {
+                registrarCompra(entrada.getKey(), ingressos);
+            }
+        }
+        usuarioRepository.descartarIngressosLegados();
+    }
+
+    @Override
+    protected List<Ingresso> copiarEstado() {
+        return new ArrayList<>(porId.values());
+    }
+
+    @Override
+    protected void gravarSnapshot(List<Ingresso> copia) throws IOException {
+        ingressoManager.salvarIngressos(copia);
+    }
+
+    @Override
+    protected void aplicar(JournalRecord registro) {
+        switch (registro.tipo()) {
+            case COMPRA -> {
+                for (Ingresso ingresso : registro.ingressos()) {
+                    if (!porId.containsKey(ingresso.getUuid())) {
+                        indexar(ingresso.getUsuarioId() == null ? ingresso.comUsuario(registro.usuarioId()) : ingresso);
+                    }
+                }
+            }
+            case REEMBOLSO -> desindexar(Ingresso.parseId(registro.ingressoId()));
+            default -> {
+                // Registros de usuários não pertencem a este journal.
+            }
+        }
+    }
+
+    /**
+     * Insere o ingresso em todos os índices.
+     *
+     * @param ingresso O ingresso a ser indexado.
+     */
+    private void indexar(Ingresso ingresso) {
+        porId.put(ingresso.getUuid(), ingresso);
+        if (ingresso.getUsuarioId() != null) {
+            porUsuario.computeIfAbsent(ingresso.getUsuarioId(), chave -> ConcurrentHashMap.newKeySet()).add(ingresso);
+        }
+        if (ingresso.getEventoId() != null) {
+            porEvento.computeIfAbsent(ingresso.getEventoId(), chave -> ConcurrentHashMap.newKeySet()).add(ingresso);
+        }
+    }
+
+    /**
+     * Remove o ingresso de todos os índices.
+     *
+     * @param id O ID do ingresso.
+     */
+    private void desindexar(UUID id) {
+        Ingresso ingresso = porId.remove(id);
+        if (ingresso == null) {
+            return;
+        }
+        if (ingresso.getUsuarioId() != null) {
+            Set<Ingresso> ingressos = porUsuario.get(ingresso.getUsuarioId());
+            if (ingressos != null) {
+                ingressos.remove(ingresso);
+            }
+        }
+        if (ingresso.getEventoId() != null) {
+            Set<Ingresso> ingressos = porEvento.get(ingresso.getEventoId());
+            if (ingressos != null) {
+                ingressos.remove(ingresso);
+            }
+        }
+    }
+
+    /**
+     * Copia um conjunto de ingressos de um índice secundário para uma lista.
+     *
+     * @param ingressos Os ingressos do índice, possivelmente {@code null}.
+     * @return A lista dos ingressos.
+     */
+    private List<Ingresso> copiar(Set<Ingresso> ingressos) {
+        return ingressos == null ? Collections.emptyList() : new ArrayList<>(ingressos);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binário de ingressos (veja {@link BinarySnapshot}).
+ * Diferente do de usuários, é sempre lido por inteiro: a contagem de assentos vendidos de cada
+ * evento precisa de todos os ingressos na inicialização. O ganho está em ler registros de largura
+ * fixa, com os IDs de evento e de usuário repetidos gravados uma única vez, sem interpretar JSON.
+ * <p>
+ * Cada registro guarda as duas metades do ID, o preço em centavos, o instante da compra e as
+ * referências de texto do ID do evento, do ID do comprador e do nome e data legados.
+ *
+ * @author David Neves Dias
+ */
+final class IngressoSnapshot {
+
+    static final int TIPO = 2;
+
+    private static final int ID_ALTO = 0;
+    private static final int ID_BAIXO = 8;
+    private static final int CENTAVOS = 16;
+    private static final int COMPRADO_EM = 24;
+    private static final int EVENTO = 32;
+    private static final int USUARIO = 40;
+    private static final int NOME = 48;
+    private static final int DATA = 56;
+    private static final int LARGURA = 64;
+
+    private IngressoSnapshot() {
+    }
+
+    /**
+     * Lê todos os ingressos do snapshot binário, entregando cada um ao consumidor.
+     *
+     * @param arquivo    O caminho do snapshot.
+     * @param consumidor O destino de cada ingresso lido.
+     * @return A quantidade de ingressos lidos.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um snapshot de ingressos.
+     */
+    static int ler(Path arquivo, Consumer<Ingresso> consumidor) throws IOException {
+        BinarySnapshot.Leitor leitor = BinarySnapshot.Leitor.abrir(arquivo, TIPO);
+        for (int i = 0; i < leitor.quantidade(); i++) {
+            consumidor.accept(new Ingresso(
+                    leitor.getLong(i, ID_ALTO),
+                    leitor.getLong(i, ID_BAIXO),
+                    leitor.texto(i, EVENTO),
+                    leitor.texto(i, USUARIO),
+                    leitor.getLong(i, CENTAVOS),
+                    leitor.getLong(i, COMPRADO_EM),
+                    leitor.texto(i, NOME),
+                    leitor.texto(i, DATA)));
+        }
+        return leitor.quantidade();
+    }
+
+    /**
+     * Grava os ingressos num snapshot binário, substituindo o arquivo anterior atomicamente.
+     *
+     * @param arquivo   O caminho do snapshot.
+     * @param ingressos Os ingressos a serem gravados.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo.
+     */
+    static void gravar(Path arquivo, List<Ingresso> ingressos) throws IOException {
+        BinarySnapshot.Escritor escritor = new BinarySnapshot.Escritor(TIPO, LARGURA, ingressos.size(), 0);
+        for (int i = 0; i < ingressos.size(); i++) {
+            Ingresso ingresso = ingressos.get(i);
+            escritor.putLong(i, ID_ALTO, ingresso.getUuid().getMostSignificantBits());
+            escritor.putLong(i, ID_BAIXO, ingresso.getUuid().getLeastSignificantBits());
+            escritor.putLong(i, CENTAVOS, ingresso.getPrecoCentavos());
+            escritor.putLong(i, COMPRADO_EM, ingresso.getCompradoEm());
+            escritor.putLong(i, EVENTO, escritor.texto(ingresso.getEventoId()));
+            escritor.putLong(i, USUARIO, escritor.texto(ingresso.getUsuarioId()));
+            escritor.putLong(i, NOME, escritor.texto(ingresso.getNomeLegado()));
+            escritor.putLong(i, DATA, escritor.texto(ingresso.getDataLegada()));
+        }
+        escritor.gravar(arquivo);
+    }
+}
@@ -0,0 +1,238 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Journal append-only das mutações de usuários e ingressos.
+ * Cada mutação é gravada como uma linha JSON no final do arquivo e sincronizada com o disco,
+ * de modo que o custo de escrita por operação não depende do tamanho total dos dados.
+ * Na compactação, o segmento atual é rotacionado para um arquivo {@code .old},
+ * que é apagado depois que o snapshot correspondente for gravado.
+ * <p>
+ * O tempo de cada escrita com a sincronização e a quantidade de registros gravados são medidos
+ * em {@code journal.<nome>.gravacao} e {@code journal.<nome>.registros}, com o nome do arquivo sem extensão.
+ *
+ * @author David Neves Dias
+ */
+public class Journal implements AutoCloseable {
+
+    private final Gson gson = new Gson();
+
+    private final Path arquivo;
+
+    private final Path arquivoRotacionado;
+
+    private FileChannel canal;
+
+    private int registros;
+
+    private final LatencyHistogram gravacao;
+
+    private final LongAdder gravados;
+
+    /**
+     * Abre (ou cria) o journal no caminho informado.
+     *
+     * @param arquivo O caminho do arquivo de journal.
+     * @throws IOException Se ocorrer um erro ao abrir o arquivo.
+     */
+    public Journal(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        this.arquivoRotacionado = arquivo.resolveSibling(arquivo.getFileName() + ".old");
+        this.canal = abrir();
+        String nome = arquivo.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        this.gravacao = MetricsRegistry.getInstance().histograma("journal." + nome + ".gravacao");
+        this.gravados = MetricsRegistry.getInstance().contador("journal." + nome + ".registros");
+    }
+
+    /**
+     * Acrescenta um registro ao final do journal e força sua gravação em disco.
+     *
+     * @param registro O registro a ser gravado.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    public synchronized void append(JournalRecord registro) throws IOException {
+        long inicio = System.nanoTime();
+        byte[] linha = (gson.toJson(registro) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(linha);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+        registros++;
+        gravacao.registrarDesde(inicio);
+        gravados.increment();
+    }
+
+    /**
+     * Acrescenta um lote de registros ao final do journal com uma única escrita
+     * e uma única sincronização com o disco.
+     *
+     * @param lote Os registros a serem gravados, na ordem.
+     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     */
+    public synchronized void appendAll(List<JournalRecord> lote) throws IOException {
+        long inicio = System.nanoTime();
+        StringBuilder linhas = new StringBuilder();
+        for (JournalRecord registro : lote) {
+            linhas.append(gson.toJson(registro)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+        registros += lote.size();
+        gravacao.registrarDesde(inicio);
+        gravados.add(lote.size());
+    }
+
+    /**
+     * Reaplica os registros do segmento rotacionado (se existir) e do segmento atual, em ordem.
+     * Uma linha final sem o {@code \n}, deixada por uma queda durante a escrita, é descartada.
+     *
+     * @param consumidor O destino de cada registro lido.
+     * @throws IOException Se ocorrer um erro ao ler os arquivos, ou se uma linha antes da última não for
+     *                     um registro válido.
+     */
+    public synchronized void reaplicar(Consumer<JournalRecord> consumidor) throws IOException {
+        ler(arquivoRotacionado, consumidor);
+        registros = ler(arquivo, consumidor);
+    }
+
+    /**
+     * Retorna a quantidade de registros no segmento atual.
+     *
+     * @return O número de registros desde a última rotação.
+     */
+    public synchronized int tamanho() {
+        return registros;
+    }
+
+    /**
+     * Indica se existe um segmento rotacionado pendente de compactação.
+     *
+     * @return {@code true} se o arquivo {@code .old} existir.
+     */
+    public boolean possuiSegmentoRotacionado() {
+        return Files.exists(arquivoRotacionado);
+    }
+
+    /**
+     * Fecha o segmento atual, renomeia-o para o arquivo {@code .old} e inicia um segmento vazio.
+     * Se já houver um segmento rotacionado pendente, o segmento atual é anexado a ele.
+     *
+     * @throws IOException Se ocorrer um erro ao manipular os arquivos.
+     */
+    public synchronized void rotacionar() throws IOException {
+        canal.close();
+        if (Files.exists(arquivoRotacionado)) {
+            Files.write(arquivoRotacionado, Files.readAllBytes(arquivo), StandardOpenOption.APPEND);
+            Files.delete(arquivo);
+        } else {
+            Files.move(arquivo, arquivoRotacionado, StandardCopyOption.ATOMIC_MOVE);
+        }
+        canal = abrir();
+        registros = 0;
+    }
+
+    /**
+     * Apaga o segmento rotacionado, depois que seu conteúdo já foi incorporado a um snapshot.
+     *
+     * @throws IOException Se ocorrer um erro ao apagar o arquivo.
+     */
+    public synchronized void apagarSegmentoRotacionado() throws IOException {
+        Files.deleteIfExists(arquivoRotacionado);
+    }
+
+    /**
+     * Fecha o canal do journal.
+     *
+     * @throws IOException Se ocorrer um erro ao fechar o arquivo.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Lê um segmento linha a linha. Só a última linha pode estar incompleta: sem o {@code \n} final,
+     * ela foi interrompida por uma queda antes de a escrita ser confirmada, e é descartada e cortada do
+     * arquivo mesmo que seja um JSON válido, para que a próxima gravação não seja colada nela.
+     * Uma linha terminada que não seja um registro válido indica um arquivo corrompido.
+     */
+    private int ler(Path caminho, Consumer<JournalRecord> consumidor) throws IOException {
+        if (!Files.exists(caminho)) {
+            return 0;
+        }
+        int lidos = 0;
+        int numero = 0;
+        long bytesValidos = 0;
+        ByteArrayOutputStream linha = new ByteArrayOutputStream();
+        byte[] bloco = new byte[64 * 1024];
+        try (InputStream entrada = Files.newInputStream(caminho)) {
+            int n;
+            while ((n = entrada.read(bloco)) != -1) {
+                int inicio = 0;
+                for (int i = 0; i < n; i++) {
+                    if (bloco[i] != '\n') {
+                        continue;
+                    }
+                    linha.write(bloco, inicio, i - inicio);
+                    inicio = i + 1;
+                    numero++;
+                    bytesValidos += linha.size() + 1;
+                    String texto = linha.toString(StandardCharsets.UTF_8);
+                    linha.reset();
+                    if (!texto.isBlank()) {
+                        consumidor.accept(registro(texto, caminho, numero));
+                        lidos++;
+                    }
+                }
+                linha.write(bloco, inicio, n - inicio);
+            }
+        }
+        if (linha.size() > 0) {
+            // Linha final sem terminador: escrita interrompida por uma queda, nunca confirmada.
+            if (caminho.equals(arquivo)) {
+                canal.truncate(bytesValidos);
+            } else {
+                try (FileChannel segmento = FileChannel.open(caminho, StandardOpenOption.WRITE)) {
+                    segmento.truncate(bytesValidos);
+                }
+            }
+        }
+        return lidos;
+    }
+
+    private JournalRecord registro(String linha, Path caminho, int numero) throws IOException {
+        try {
+            JournalRecord registro = gson.fromJson(linha, JournalRecord.class);
+            if (registro != null) {
+                return registro;
+            }
+        } catch (JsonParseException e) {
+            throw new IOException("Journal corrompido: " + caminho + ", linha " + numero, e);
+        }
+        throw new IOException("Journal corrompido: " + caminho + ", linha " + numero);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Registro individual do journal de mutações.
+ * Cada cadastro, compra ou reembolso gera um único registro pequeno,
+ * gravado como uma linha JSON no final do arquivo de journal.
+ *
+ * @param tipo       O tipo da mutação.
+ * @param usuario    Os dados do usuário, em cadastros e atualizações.
+ * @param usuarioId  O ID do usuário afetado, em compras e reembolsos.
+ * @param ingressos  Os ingressos emitidos, em compras.
+ * @param ingressoId O ID do ingresso devolvido, em reembolsos.
+ *
+ * @author David Neves Dias
+ */
+public record JournalRecord(Tipo tipo, Usuario usuario, String usuarioId, List<Ingresso> ingressos, String ingressoId) {
+
+    /**
+     * Tipos de mutação registrados no journal.
+     */
+    public enum Tipo {
+        /** Cadastro de um novo usuário. */
+        REGISTRO,
+        /** Atualização dos dados cadastrais de um usuário existente. */
+        ATUALIZACAO,
+        /** Compra de um ou mais ingressos. */
+        COMPRA,
+        /** Reembolso de um ingresso. */
+        REEMBOLSO
+    }
+
+    /**
+     * Cria o registro de cadastro de um usuário.
+     *
+     * @param usuario O usuário cadastrado.
+     * @return O registro correspondente.
+     */
+    public static JournalRecord registro(Usuario usuario) {
+        return new JournalRecord(Tipo.REGISTRO, usuario, null, null, null);
+    }
+
+    /**
+     * Cria o registro de atualização cadastral de um usuário.
+     *
+     * @param usuario O usuário com os dados atualizados.
+     * @return O registro correspondente.
+     */
+    public static JournalRecord atualizacao(Usuario usuario) {
+        return new JournalRecord(Tipo.ATUALIZACAO, usuario, null, null, null);
+    }
+
+    /**
+     * Cria o registro de compra de ingressos.
+     *
+     * @param usuarioId O ID do comprador.
+     * @param ingressos Os ingressos emitidos.
+     * @return O registro correspondente.
+     */
+    public static JournalRecord compra(String usuarioId, List<Ingresso> ingressos) {
+        return new JournalRecord(Tipo.COMPRA, null, usuarioId, ingressos, null);
+    }
+
+    /**
+     * Cria o registro de reembolso de um ingresso.
+     *
+     * @param usuarioId  O ID do dono do ingresso.
+     * @param ingressoId O ID do ingresso devolvido.
+     * @return O registro correspondente.
+     */
+    public static JournalRecord reembolso(String usuarioId, String ingressoId) {
+        return new JournalRecord(Tipo.REEMBOLSO, null, usuarioId, null, ingressoId);
+    }
+}
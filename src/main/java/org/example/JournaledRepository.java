@@ -0,0 +1,209 @@
+package org.example;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base dos repositórios em memória persistidos por snapshot mais {@link Journal}.
+ * Cada mutação é gravada como um registro pequeno no journal; o snapshot só é regravado
+ * em segundo plano, quando o journal acumula registros suficientes.
+ * Na inicialização, o estado é recuperado a partir do snapshot mais os registros do journal.
+ * <p>
+ * As subclasses devem fazer suas mutações em métodos {@code synchronized}, pois a cópia
+ * do estado durante a compactação é feita sob o mesmo monitor.
+ * <p>
+ * Mutações enviadas por {@link #registrarAgrupado(JournalRecord)} passam por um
+ * {@link GroupCommitter}, que grava vários registros concorrentes com uma única sincronização em disco.
+ *
+ * @param <T> O tipo dos elementos gravados no snapshot.
+ *
+ * @author David Neves Dias
+ */
+public abstract class JournaledRepository<T> {
+
+    private static final System.Logger LOGGER = System.getLogger(JournaledRepository.class.getName());
+
+    /** Quantidade de registros no journal que dispara uma compactação em segundo plano. */
+    private static final int LIMITE_COMPACTACAO = Integer.getInteger("venda.journal.limite", 1000);
+
+    /** Thread única compartilhada pelas compactações de todos os repositórios. */
+    private static final ExecutorService COMPACTADOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "compactacao-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Journal journal;
+
+    private final Object compactacaoLock = new Object();
+
+    private final AtomicBoolean compactacaoAgendada = new AtomicBoolean();
+
+    private final Object commitLock = new Object();
+
+    private volatile GroupCommitter<JournalRecord> committer;
+
+    private int tamanhoLote = GroupCommitter.TAMANHO_LOTE_PADRAO;
+
+    private Duration esperaLote = GroupCommitter.ESPERA_PADRAO;
+
+    /**
+     * Cria o repositório associado ao journal informado.
+     *
+     * @param journal O journal onde as mutações são registradas.
+     */
+    protected JournaledRepository(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Reaplica os registros do journal sobre o estado carregado do snapshot.
+     * Deve ser chamado pela subclasse depois de carregar o snapshot.
+     *
+     * @throws IOException Se ocorrer um erro ao ler o journal.
+     */
+    protected final void recuperar() throws IOException {
+        journal.reaplicar(this::aplicar);
+        if (journal.possuiSegmentoRotacionado() || journal.tamanho() >= LIMITE_COMPACTACAO) {
+            agendarCompactacao();
+        }
+    }
+
+    /**
+     * Grava o registro no journal e agenda uma compactação se o limite foi atingido.
+     *
+     * @param registro O registro da mutação.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    protected final void registrar(JournalRecord registro) throws IOException {
+        journal.append(registro);
+        if (journal.tamanho() >= LIMITE_COMPACTACAO) {
+            agendarCompactacao();
+        }
+    }
+
+    /**
+     * Envia o registro para o próximo lote do commit agrupado. Quando o lote estiver gravado,
+     * o registro é aplicado ao estado em memória e o futuro é completado.
+     *
+     * @param registro O registro da mutação.
+     * @return Um futuro completado depois que o registro estiver em disco e aplicado.
+     */
+    protected final CompletableFuture<Void> registrarAgrupado(JournalRecord registro) {
+        GroupCommitter<JournalRecord> atual = committer;
+        if (atual == null) {
+            synchronized (commitLock) {
+                atual = committer;
+                if (atual == null) {
+                    atual = new GroupCommitter<>("commit-" + getClass().getSimpleName(), this::gravarLote, tamanhoLote, esperaLote);
+                    committer = atual;
+                }
+            }
+        }
+        return atual.enviar(registro);
+    }
+
+    /**
+     * Configura o tamanho máximo e a janela de espera dos lotes do commit agrupado.
+     * Deve ser chamado antes da primeira mutação agrupada.
+     *
+     * @param tamanhoLote O número máximo de registros por lote.
+     * @param espera      Quanto tempo aguardar por mais registros depois do primeiro de um lote.
+     * @throws IllegalStateException Se o commit agrupado já estiver em uso.
+     */
+    public void configurarCommitAgrupado(int tamanhoLote, Duration espera) {
+        synchronized (commitLock) {
+            if (committer != null) {
+                throw new IllegalStateException("O commit agrupado já está em uso.");
+            }
+            this.tamanhoLote = tamanhoLote;
+            this.esperaLote = espera;
+        }
+    }
+
+    /**
+     * Grava um lote de registros no journal e os aplica ao estado em memória, sob o monitor do
+     * repositório, para que uma compactação nunca veja registros gravados mas ainda não aplicados.
+     *
+     * @param lote Os registros do lote.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    private void gravarLote(List<JournalRecord> lote) throws IOException {
+        synchronized (this) {
+            journal.appendAll(lote);
+            for (JournalRecord registro : lote) {
+                aplicar(registro);
+            }
+        }
+        if (journal.tamanho() >= LIMITE_COMPACTACAO) {
+            agendarCompactacao();
+        }
+    }
+
+    /**
+     * Grava um snapshot com o estado atual e descarta os registros do journal já incorporados a ele.
+     * As mutações continuam sendo aceitas durante a gravação do snapshot.
+     *
+     * @throws IOException Se ocorrer um erro ao gravar o snapshot ou manipular o journal.
+     */
+    public void compactar() throws IOException {
+        synchronized (compactacaoLock) {
+            long inicio = System.nanoTime();
+            List<T> copia;
+            synchronized (this) {
+                journal.rotacionar();
+                copia = copiarEstado();
+            }
+            gravarSnapshot(copia);
+            journal.apagarSegmentoRotacionado();
+            MetricsRegistry.getInstance().histograma("compactacao." + getClass().getSimpleName()).registrarDesde(inicio);
+        }
+    }
+
+    /**
+     * Agenda uma compactação em segundo plano, se nenhuma estiver pendente.
+     */
+    protected final void agendarCompactacao() {
+        if (compactacaoAgendada.compareAndSet(false, true)) {
+            COMPACTADOR.execute(() -> {
+                compactacaoAgendada.set(false);
+                try {
+                    compactar();
+                } catch (IOException e) {
+                    MetricsRegistry.getInstance().contador("compactacao." + getClass().getSimpleName() + ".falhas").increment();
+                    LOGGER.log(System.Logger.Level.ERROR, "Falha ao compactar o journal de " + getClass().getSimpleName(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Aplica um registro ao estado em memória.
+     * A aplicação deve ser idempotente, pois um mesmo registro pode ser reaplicado sobre um
+     * snapshot que já o contém, caso a compactação tenha sido interrompida.
+     *
+     * @param registro O registro a ser aplicado.
+     */
+    protected abstract void aplicar(JournalRecord registro);
+
+    /**
+     * Copia o estado atual para gravação no snapshot. É chamado sob o monitor do repositório,
+     * e a cópia não deve ser afetada por mutações posteriores.
+     *
+     * @return A cópia dos elementos.
+     */
+    protected abstract List<T> copiarEstado();
+
+    /**
+     * Grava a cópia do estado no arquivo de snapshot.
+     *
+     * @param copia Os elementos a serem gravados.
+     * @throws IOException Se ocorrer um erro ao escrever o snapshot.
+     */
+    protected abstract void gravarSnapshot(List<T> copia) throws IOException;
+}
@@ -0,0 +1,119 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Leitura e escrita de snapshots JSON em streaming.
+ * Os elementos são lidos e gravados um a um através de {@link JsonReader} e {@link JsonWriter},
+ * sem montar o documento inteiro em memória. A gravação é feita num arquivo temporário,
+ * sincronizada com o disco e então renomeada atomicamente sobre o snapshot anterior,
+ * de modo que uma queda no meio da escrita nunca deixa um snapshot parcial.
+ *
+ * @author David Neves Dias
+ */
+final class JsonSnapshot {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final Gson GSON = new Gson();
+
+    private JsonSnapshot() {
+    }
+
+    /**
+     * Lê um snapshot no formato de array JSON, entregando cada elemento ao consumidor.
+     * Arquivos inexistentes, vazios ou contendo {@code null} são tratados como snapshots vazios.
+     *
+     * @param arquivo    O caminho do snapshot.
+     * @param tipo       A classe dos elementos.
+     * @param consumidor O destino de cada elemento lido.
+     * @param <T>        O tipo dos elementos.
+     * @return A quantidade de elementos lidos.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    static <T> int ler(Path arquivo, Class<T> tipo, Consumer<? super T> consumidor) throws IOException {
+        if (!Files.exists(arquivo) || Files.size(arquivo) == 0) {
+            return 0;
+        }
+        int lidos = 0;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+             Reader reader = new BufferedReader(Channels.newReader(canal, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+             JsonReader jsonReader = GSON.newJsonReader(reader)) {
+            if (jsonReader.peek() == JsonToken.NULL) {
+                return 0;
+            }
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                consumidor.accept(GSON.fromJson(jsonReader, tipo));
+                lidos++;
+            }
+            jsonReader.endArray();
+        }
+        return lidos;
+    }
+
+    /**
+     * Grava os elementos como um array JSON, substituindo o snapshot de forma atômica.
+     *
+     * @param arquivo   O caminho do snapshot.
+     * @param tipo      A classe dos elementos.
+     * @param elementos Os elementos a serem gravados.
+     * @param <T>       O tipo dos elementos.
+     * @return A quantidade de elementos gravados.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo.
+     */
+    static <T> int gravar(Path arquivo, Class<T> tipo, Iterable<? extends T> elementos) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        int gravados = 0;
+        try (FileChannel canal = FileChannel.open(temporario,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+             JsonWriter jsonWriter = GSON.newJsonWriter(writer)) {
+            jsonWriter.beginArray();
+            for (T elemento : elementos) {
+                GSON.toJson(elemento, tipo, jsonWriter);
+                gravados++;
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        sincronizarDiretorio(arquivo.toAbsolutePath().getParent());
+        return gravados;
+    }
+
+    /**
+     * Sincroniza o diretório para tornar a renomeação durável.
+     * Em sistemas que não permitem abrir diretórios (como o Windows), a sincronização é ignorada.
+     *
+     * @param diretorio O diretório do snapshot.
+     */
+    static void sincronizarDiretorio(Path diretorio) {
+        if (diretorio == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Sem suporte a fsync de diretório nesta plataforma.
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com faixas logarítmicas, no estilo do HdrHistogram.
+ * <p>
+ * Cada potência de dois é dividida em {@value #SUBFAIXAS} faixas de mesma largura, o que dá um erro
+ * relativo de no máximo cerca de 3% em qualquer valor, de nanossegundos a horas, com um array fixo
+ * de contadores. Registrar um valor é um cálculo de índice e um incremento atômico, sem alocação e
+ * sem bloqueio, e por isso pode ser feito em qualquer caminho crítico.
+ *
+ * @author David Neves Dias
+ */
+public final class LatencyHistogram {
+
+    private static final int BITS_SUBFAIXA = 5;
+
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    private static final int FAIXAS = (Long.SIZE - BITS_SUBFAIXA + 1) * SUBFAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+
+    private final LongAdder soma = new LongAdder();
+
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra um valor.
+     *
+     * @param valor O valor, normalmente uma duração em nanossegundos; valores negativos contam como zero.
+     */
+    public void registrar(long valor) {
+        long positivo = Math.max(0, valor);
+        contagens.incrementAndGet(indice(positivo));
+        soma.add(positivo);
+        long atual = maximo.get();
+        while (positivo > atual && !maximo.compareAndSet(atual, positivo)) {
+            atual = maximo.get();
+        }
+    }
+
+    /**
+     * Registra o tempo decorrido desde um instante obtido de {@link System#nanoTime()}.
+     *
+     * @param inicio O instante inicial.
+     */
+    public void registrarDesde(long inicio) {
+        registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Retorna um resumo com a quantidade, a média e os percentis dos valores registrados até agora.
+     *
+     * @return O resumo.
+     */
+    public Resumo resumo() {
+        long[] copia = new long[FAIXAS];
+        long total = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        long maior = maximo.get();
+        return new Resumo(total, total == 0 ? 0 : soma.sum() / total,
+                percentil(copia, total, 0.50, maior), percentil(copia, total, 0.90, maior),
+                percentil(copia, total, 0.99, maior), percentil(copia, total, 0.999, maior), maior);
+    }
+
+    /**
+     * Descarta os valores registrados. Registros concorrentes podem ser parcialmente descartados.
+     */
+    public void zerar() {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens.set(i, 0);
+        }
+        soma.reset();
+        maximo.set(0);
+    }
+
+    static int indice(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = Long.SIZE - 1 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        return (deslocamento + 1) * SUBFAIXAS + (int) ((valor >>> deslocamento) & (SUBFAIXAS - 1));
+    }
+
+    /**
+     * Retorna o maior valor que cai na faixa do índice informado.
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int deslocamento = indice / SUBFAIXAS - 1;
+        long inicio = (long) (SUBFAIXAS + indice % SUBFAIXAS) << deslocamento;
+        return inicio + (1L << deslocamento) - 1;
+    }
+
+    private static long percentil(long[] contagens, long total, double fracao, long maximo) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(fracao * total);
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Resumo de um histograma, com os valores na unidade registrada (normalmente nanossegundos).
+     *
+     * @param quantidade A quantidade de valores registrados.
+     * @param media      A média dos valores.
+     * @param p50        A mediana.
+     * @param p90        O percentil 90.
+     * @param p99        O percentil 99.
+     * @param p999       O percentil 99,9.
+     * @param maximo     O maior valor registrado.
+     */
+    public record Resumo(long quantidade, long media, long p50, long p90, long p99, long p999, long maximo) {
+    }
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.util.Locale;
+
+/**
+ * Modelo de exibição de um evento numa linha da tabela de eventos.
+ * Os textos são formatados uma única vez, no idioma da consulta, e as propriedades são
+ * reaproveitadas por todas as células que exibirem a linha.
+ *
+ * @author David Neves Dias
+ */
+public final class LinhaEvento {
+
+    private final Evento evento;
+
+    private final ReadOnlyStringWrapper nome;
+
+    private final ReadOnlyStringWrapper data;
+
+    private final ReadOnlyStringWrapper categoria;
+
+    /**
+     * Cria a linha de um evento, com os textos no idioma informado.
+     *
+     * @param evento O evento.
+     * @param idioma O idioma dos textos.
+     */
+    public LinhaEvento(Evento evento, Locale idioma) {
+        this.evento = evento;
+        this.nome = new ReadOnlyStringWrapper(evento.getNome(idioma));
+        this.data = new ReadOnlyStringWrapper(evento.formatDate());
+        this.categoria = new ReadOnlyStringWrapper(evento.getDescricao(idioma));
+    }
+
+    /**
+     * Obtém o evento exibido na linha.
+     *
+     * @return O evento.
+     */
+    public Evento getEvento() {
+        return evento;
+    }
+
+    /**
+     * O nome do evento, no idioma da linha.
+     *
+     * @return A propriedade somente leitura.
+     */
+    public ReadOnlyStringProperty nomeProperty() {
+        return nome.getReadOnlyProperty();
+    }
+
+    /**
+     * A data formatada do evento.
+     *
+     * @return A propriedade somente leitura.
+     */
+    public ReadOnlyStringProperty dataProperty() {
+        return data.getReadOnlyProperty();
+    }
+
+    /**
+     * O nome da categoria do evento, no idioma da linha.
+     *
+     * @return A propriedade somente leitura.
+     */
+    public ReadOnlyStringProperty categoriaProperty() {
+        return categoria.getReadOnlyProperty();
+    }
+}
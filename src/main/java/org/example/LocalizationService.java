@@ -0,0 +1,178 @@
+package org.example;
+
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.control.ComboBox;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Serviço de tradução compartilhado por todas as telas.
+ * Os arquivos {@code lang_*.properties} de cada idioma suportado são lidos uma única vez
+ * e copiados para tabelas simples de chave e texto.
+ * <p>
+ * O idioma é único para toda a aplicação. Os controladores ligam os textos dos seus componentes
+ * a {@link #texto(String)}, de modo que uma troca de idioma atualiza os componentes existentes
+ * sem recriar colunas, células ou fábricas de células.
+ * <p>
+ * A propriedade do idioma, como toda propriedade do JavaFX, só pode ser usada na thread do JavaFX.
+ * As telas pré-carregadas em segundo plano fazem as suas ligações por {@link #vincular(Runnable)}.
+ *
+ * @author David Neves Dias
+ */
+public class LocalizationService {
+
+    /** Português do Brasil, o idioma inicial. */
+    public static final Locale PORTUGUES = new Locale("pt", "BR");
+
+    /** Inglês dos Estados Unidos. */
+    public static final Locale INGLES = new Locale("en", "US");
+
+    /** Idiomas com arquivo de tradução, na ordem de exibição. */
+    public static final List<Locale> IDIOMAS = List.of(PORTUGUES, INGLES);
+
+    private static LocalizationService instance;
+
+    private final Map<Locale, Map<String, String>> tabelas = new HashMap<>();
+
+    private final ReadOnlyObjectWrapper<Locale> locale = new ReadOnlyObjectWrapper<>(PORTUGUES);
+
+    /**
+     * Cria o serviço, carregando as traduções de todos os idiomas suportados.
+     */
+    public LocalizationService() {
+        for (Locale idioma : IDIOMAS) {
+            ResourceBundle bundle = ResourceBundle.getBundle("lang", idioma);
+            Map<String, String> tabela = new HashMap<>();
+            for (String chave : bundle.keySet()) {
+                tabela.put(chave, bundle.getString(chave));
+            }
+            tabelas.put(idioma, tabela);
+        }
+    }
+
+    /**
+     * Retorna o serviço compartilhado, carregando as traduções na primeira chamada.
+     *
+     * @return A instância do serviço.
+     */
+    public static synchronized LocalizationService getInstance() {
+        if (instance == null) {
+            instance = new LocalizationService();
+        }
+        return instance;
+    }
+
+    /**
+     * Retorna o idioma atual da aplicação.
+     *
+     * @return O idioma atual.
+     */
+    public Locale getLocale() {
+        return locale.get();
+    }
+
+    /**
+     * Propriedade observável do idioma atual, para quem precisar reagir às trocas de idioma.
+     *
+     * @return A propriedade do idioma.
+     */
+    public ReadOnlyObjectProperty<Locale> localeProperty() {
+        return locale.getReadOnlyProperty();
+    }
+
+    /**
+     * Troca o idioma de toda a aplicação. Deve ser chamado na thread do JavaFX.
+     *
+     * @param novo O novo idioma.
+     * @throws IllegalArgumentException Se o idioma não tiver arquivo de tradução.
+     */
+    public void setLocale(Locale novo) {
+        if (!tabelas.containsKey(novo)) {
+            throw new IllegalArgumentException("Idioma não suportado: " + novo);
+        }
+        locale.set(novo);
+    }
+
+    /**
+     * Retorna o texto de uma chave no idioma atual.
+     *
+     * @param chave A chave do texto.
+     * @return O texto traduzido, o texto em português se não houver tradução, ou a própria chave.
+     */
+    public String get(String chave) {
+        return get(locale.get(), chave);
+    }
+
+    /**
+     * Retorna o texto de uma chave no idioma informado.
+     *
+     * @param idioma O idioma desejado.
+     * @param chave  A chave do texto.
+     * @return O texto traduzido, o texto em português se não houver tradução, ou a própria chave.
+     */
+    public String get(Locale idioma, String chave) {
+        String texto = tabelas.getOrDefault(idioma, Map.of()).get(chave);
+        if (texto == null) {
+            texto = tabelas.get(PORTUGUES).getOrDefault(chave, chave);
+        }
+        return texto;
+    }
+
+    /**
+     * Cria um texto observável que acompanha o idioma atual, para ser ligado a um componente.
+     *
+     * @param chave A chave do texto.
+     * @return O texto observável.
+     */
+    public StringBinding texto(String chave) {
+        return Bindings.createStringBinding(() -> get(chave), locale);
+    }
+
+    /**
+     * Executa as ligações de uma tela ao idioma na thread do JavaFX: imediatamente, se já estiver nela,
+     * ou assim que possível, se a tela estiver sendo carregada em segundo plano. Tanto {@link #texto(String)}
+     * quanto {@link #vincularSeletor(ComboBox, String...)} e os ouvintes de {@link #localeProperty()}
+     * registram ouvintes na propriedade compartilhada do idioma, que não aceita acesso concorrente.
+     *
+     * @param vinculos As ligações da tela.
+     */
+    public void vincular(Runnable vinculos) {
+        if (Platform.isFxApplicationThread()) {
+            vinculos.run();
+        } else {
+            Platform.runLater(vinculos);
+        }
+    }
+
+    /**
+     * Liga um ComboBox de seleção de idioma ao idioma da aplicação, nos dois sentidos:
+     * escolher uma opção troca o idioma, e uma troca feita em outra tela atualiza a opção exibida.
+     *
+     * @param seletor O ComboBox de idiomas.
+     * @param rotulos O rótulo de cada idioma de {@link #IDIOMAS}, na mesma ordem.
+     * @throws IllegalArgumentException Se o número de rótulos não corresponder ao de idiomas.
+     */
+    public void vincularSeletor(ComboBox<String> seletor, String... rotulos) {
+        if (rotulos.length != IDIOMAS.size()) {
+            throw new IllegalArgumentException("Informe um rótulo para cada idioma suportado.");
+        }
+        List<String> opcoes = List.of(rotulos);
+        seletor.getItems().setAll(opcoes);
+        seletor.setValue(opcoes.get(IDIOMAS.indexOf(getLocale())));
+        seletor.valueProperty().addListener((observable, antigo, novo) -> {
+            int indice = opcoes.indexOf(novo);
+            if (indice >= 0 && !IDIOMAS.get(indice).equals(getLocale())) {
+                setLocale(IDIOMAS.get(indice));
+            }
+        });
+        locale.addListener((observable, antigo, novo) -> seletor.setValue(opcoes.get(IDIOMAS.indexOf(novo))));
+    }
+}
@@ -5,14 +5,10 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.text.Text;
 
-import java.io.IOException;
-import java.util.List;
-import java.util.Locale;
-import java.util.ResourceBundle;
-
 /**
  * Controlador para a tela de login.
  * Gera interatividade com os elementos visuais e valida as credenciais do usuário.
@@ -21,6 +17,8 @@ import java.util.ResourceBundle;
  */
 public class LoginController {
 
+    private static final System.Logger LOGGER = System.getLogger(LoginController.class.getName());
+
     @FXML
     private Label emailId;
 
@@ -33,6 +31,9 @@ public class LoginController {
     @FXML
     private Button loginButton;
 
+    @FXML
+    private ProgressIndicator progressIndicator;
+
     @FXML
     private TextField usernameTextField;
 
@@ -60,7 +61,7 @@ public class LoginController {
     @FXML
     private Text totalPrice;
 
-    private ResourceBundle bundle;
+    private final LocalizationService i18n = LocalizationService.getInstance();
 
     private ControllerScreens controllerScreens;
 
@@ -74,78 +75,62 @@ public class LoginController {
     }
 
     /**
-     * Inicializa os componentes da interface e configura o comportamento do ComboBox de idioma.
+     * Inicializa os componentes da interface e liga seus textos ao idioma da aplicação.
      */
     @FXML
     public void initialize() {
-        // Configurar opções de idiomas no ComboBox
-        languageComboBox.getItems().addAll("Português", "English");
-        languageComboBox.setValue("Português"); // Idioma padrão
-
-        // Atualizar idioma para o padrão inicial
-        updateLanguage("pt", "BR");
-
-        // Configurar listener para mudanças no ComboBox de idioma
-        languageComboBox.setOnAction(event -> {
-            String selectedLanguage = languageComboBox.getValue();
-            if ("Português".equals(selectedLanguage)) {
-                updateLanguage("pt", "BR");
-            } else if ("English".equals(selectedLanguage)) {
-                updateLanguage("en", "US");
-            }
+        i18n.vincular(() -> {
+            // Configurar opções de idiomas no ComboBox
+            i18n.vincularSeletor(languageComboBox, "Português", "English");
+
+            // Ligar os textos exibidos na interface ao idioma atual
+            emailId.textProperty().bind(i18n.texto("label.emailId"));
+            passwordId.textProperty().bind(i18n.texto("label.passwordId"));
+            enterPasswordField.promptTextProperty().bind(i18n.texto("placeholder.password"));
+            usernameTextField.promptTextProperty().bind(i18n.texto("placeholder.email"));
+            loginButton.textProperty().bind(i18n.texto("button.login"));
+
+            // Limpar mensagens de validação ao trocar o idioma
+            i18n.localeProperty().addListener((observable, oldValue, newValue) -> limparMensagens());
         });
 
         // Inicializar textos de erro como vazios
-        emailNotFilledIn.setText("");
-        passwordNotFilledIn.setText("");
+        limparMensagens();
     }
 
     /**
      * Executa a validação das credenciais de login ao clicar no botão.
+     * A verificação roda em segundo plano, com o botão desabilitado até o resultado chegar.
      *
      * @param actionEvent O evento associado ao clique do botão.
-     * @throws IOException Se ocorrer um erro ao validar credenciais.
      */
     @FXML
-    public void onHelloButtonClick(ActionEvent actionEvent) throws IOException {
+    public void onHelloButtonClick(ActionEvent actionEvent) {
         String username = usernameTextField.getText();
         String password = enterPasswordField.getText();
 
         // Validar campos preenchidos
         boolean check = checkIfThereIsNoEmptyField(username, password);
         if (check) {
-            // Validar credenciais
-            if (validateLogin(username, password)) {
-                UserTestFacade userTestFacade = new UserTestFacade();
-                String id = userTestFacade.getIdByUserEmail(username);
-                SessionManager.login(id); // Armazena o ID do usuário na sessão
-                controllerScreens.removeScene();
-            } else {
-                validateLogin.setText(bundle.getString("error.invalidCredentials"));
-            }
+            validateLogin.setText("");
+            // Validar credenciais fora da thread do JavaFX
+            FxTasks.executar(() -> TicketService.getInstance().autenticar(username, password).join(),
+                    loginButton, progressIndicator,
+                    id -> {
+                        if (id.isPresent()) {
+                            SessionManager.login(id.get()); // Armazena o ID do usuário na sessão
+                            controllerScreens.removeScene();
+                        } else {
+                            validateLogin.setText(i18n.get("error.invalidCredentials"));
+                        }
+                    },
+                    erro -> {
+                        FxTasks.registrarFalha(LOGGER, "login", erro);
+                        validateLogin.setText(i18n.get("error.operationFailed"));
+                    });
         }
     }
 
-    /**
-     * Valida as credenciais do usuário comparando-as com dados armazenados.
-     *
-     * @param email    O e-mail inserido.
-     * @param password A senha inserida.
-     * @return {@code true} se as credenciais forem válidas, {@code false} caso contrário.
-     * @throws IOException Se ocorrer um erro ao ler os dados.
-     */
-    private boolean validateLogin(String email, String password) throws IOException {
-        UsuarioManager usuarioManager = new UsuarioManager();
-        List<Usuario> usuarios = usuarioManager.lerConteudoArquivo();
-
-        for (Usuario usuario : usuarios) {
-            if (usuario.getEmail().equals(email) && usuario.getSenha().equals(password)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Verifica se os campos obrigatórios foram preenchidos.
      *
@@ -157,14 +142,14 @@ public class LoginController {
         boolean allFieldsFilled = true;
 
         if (email == null || email.trim().isEmpty()) {
-            emailNotFilledIn.setText(bundle.getString("error.emailNotFilledIn"));
+            emailNotFilledIn.setText(i18n.get("error.emailNotFilledIn"));
             allFieldsFilled = false;
         } else {
             emailNotFilledIn.setText(""); // Limpar mensagem de erro
         }
 
         if (password == null || password.trim().isEmpty()) {
-            passwordNotFilledIn.setText(bundle.getString("error.passwordNotFilledIn"));
+            passwordNotFilledIn.setText(i18n.get("error.passwordNotFilledIn"));
             allFieldsFilled = false;
         } else {
             passwordNotFilledIn.setText(""); // Limpar mensagem de erro
@@ -174,23 +159,9 @@ public class LoginController {
     }
 
     /**
-     * Atualiza o idioma da interface com base no código de idioma e país fornecidos.
-     *
-     * @param language O código do idioma (e.g., "pt").
-     * @param country  O código do país (e.g., "BR").
+     * Limpa as mensagens de validação exibidas na interface.
      */
-    private void updateLanguage(String language, String country) {
-        Locale locale = new Locale(language, country);
-        bundle = ResourceBundle.getBundle("lang", locale);
-
-        // Atualizar textos exibidos na interface
-        emailId.setText(bundle.getString("label.emailId"));
-        passwordId.setText(bundle.getString("label.passwordId"));
-        enterPasswordField.setPromptText(bundle.getString("placeholder.password"));
-        usernameTextField.setPromptText(bundle.getString("placeholder.email"));
-        loginButton.setText(bundle.getString("button.login"));
-
-        // Atualizar mensagens de validação
+    private void limparMensagens() {
         validateLogin.setText("");
         emailNotFilledIn.setText("");
         passwordNotFilledIn.setText("");
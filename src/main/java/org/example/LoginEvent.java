@@ -0,0 +1,60 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder para uma tentativa de login, com a duração da verificação da senha
+ * e o desfecho. O e-mail informado não é gravado; só o ID do usuário, quando o login é aceito.
+ *
+ * @author David Neves Dias
+ */
+@Name("org.example.Login")
+@Label("Login")
+@Category({"Venda de Ingressos", "Autenticação"})
+@Description("Tentativa de login pelo e-mail e senha")
+final class LoginEvent extends jdk.jfr.Event {
+
+    private static final EventType TIPO = EventType.getEventType(LoginEvent.class);
+
+    @Label("Desfecho")
+    @Description("sucesso, falha (credenciais inválidas) ou erro")
+    String desfecho;
+
+    @Label("ID do usuário")
+    String usuarioId;
+
+    /**
+     * Inicia o evento se ele estiver habilitado numa gravação em andamento. Como a verificação
+     * da senha termina em outra thread, o evento não pode ser eliminado pelo compilador, e por isso
+     * só é criado quando vai ser gravado.
+     *
+     * @return O evento iniciado, ou {@code null} se ele não estiver habilitado.
+     */
+    static LoginEvent iniciar() {
+        if (!TIPO.isEnabled()) {
+            return null;
+        }
+        LoginEvent evento = new LoginEvent();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Preenche e grava o evento, se tiver passado do limite de duração configurado.
+     *
+     * @param desfecho  {@code sucesso}, {@code falha} ou {@code erro}.
+     * @param usuarioId O ID do usuário autenticado, ou {@code null}.
+     */
+    void concluir(String desfecho, String usuarioId) {
+        end();
+        if (shouldCommit()) {
+            this.desfecho = desfecho;
+            this.usuarioId = usuarioId;
+            commit();
+        }
+    }
+}
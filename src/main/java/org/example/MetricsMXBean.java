@@ -0,0 +1,45 @@
+package org.example;
+
+import java.util.Map;
+
+/**
+ * Interface JMX das métricas da aplicação, registrada como {@code org.example:type=Metrics}
+ * e visível, por exemplo, no JConsole ou no Java Mission Control.
+ *
+ * @author David Neves Dias
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Retorna o valor de cada contador.
+     *
+     * @return Os contadores, pelo nome.
+     */
+    Map<String, Long> getContadores();
+
+    /**
+     * Retorna o valor atual de cada medidor.
+     *
+     * @return Os medidores, pelo nome.
+     */
+    Map<String, Long> getMedidores();
+
+    /**
+     * Retorna o resumo de cada histograma de latência, em nanossegundos.
+     *
+     * @return Os resumos, pelo nome.
+     */
+    Map<String, LatencyHistogram.Resumo> getHistogramas();
+
+    /**
+     * Retorna todas as métricas num documento JSON, no mesmo formato do arquivo gravado periodicamente.
+     *
+     * @return O JSON das métricas.
+     */
+    String getJson();
+
+    /**
+     * Zera os contadores e os histogramas. Os medidores não são afetados.
+     */
+    void zerar();
+}
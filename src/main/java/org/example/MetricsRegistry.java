@@ -0,0 +1,201 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro das métricas da aplicação: contadores, medidores e histogramas de latência, pelo nome.
+ * <p>
+ * Os contadores são {@link LongAdder} e os histogramas são {@link LatencyHistogram}, ambos sem bloqueio;
+ * quem mede um caminho crítico deve guardar a métrica num campo em vez de procurá-la pelo nome a cada uso.
+ * Os medidores são lidos só quando as métricas são consultadas.
+ * <p>
+ * As métricas ficam disponíveis pelo JMX ({@link MetricsMXBean}) e, se a propriedade
+ * {@code venda.metricas.arquivo} for informada, são gravadas em JSON nesse arquivo a cada
+ * {@code venda.metricas.intervalo.segundos} (padrão 60).
+ *
+ * @author David Neves Dias
+ */
+public final class MetricsRegistry implements MetricsMXBean {
+
+    private static final System.Logger LOGGER = System.getLogger(MetricsRegistry.class.getName());
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static MetricsRegistry instance;
+
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+
+    private final Map<String, LongSupplier> medidores = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> valores = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyHistogram> histogramas = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna o registro compartilhado, registrando-o no JMX e iniciando a gravação periódica
+     * na primeira chamada.
+     *
+     * @return A instância do registro.
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+            instance.registrarJmx();
+            String arquivo = System.getProperty("venda.metricas.arquivo");
+            if (arquivo != null) {
+                instance.gravarPeriodicamente(Path.of(arquivo), Long.getLong("venda.metricas.intervalo.segundos", 60));
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Retorna o contador com o nome informado, criando-o se necessário.
+     *
+     * @param nome O nome do contador.
+     * @return O contador.
+     */
+    public LongAdder contador(String nome) {
+        return contadores.computeIfAbsent(nome, n -> new LongAdder());
+    }
+
+    /**
+     * Retorna o histograma de latência com o nome informado, criando-o se necessário.
+     *
+     * @param nome O nome do histograma.
+     * @return O histograma.
+     */
+    public LatencyHistogram histograma(String nome) {
+        return histogramas.computeIfAbsent(nome, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Registra um medidor calculado na consulta, substituindo outro com o mesmo nome.
+     *
+     * @param nome  O nome do medidor.
+     * @param valor A função que calcula o valor atual.
+     */
+    public void medidor(String nome, LongSupplier valor) {
+        medidores.put(nome, valor);
+    }
+
+    /**
+     * Retorna um medidor cujo valor é atribuído por quem mede, criando-o se necessário.
+     *
+     * @param nome O nome do medidor.
+     * @return O valor do medidor.
+     */
+    public AtomicLong valor(String nome) {
+        return valores.computeIfAbsent(nome, n -> {
+            AtomicLong valor = new AtomicLong();
+            medidores.put(n, valor::get);
+            return valor;
+        });
+    }
+
+    @Override
+    public Map<String, Long> getContadores() {
+        Map<String, Long> resultado = new TreeMap<>();
+        contadores.forEach((nome, contador) -> resultado.put(nome, contador.sum()));
+        return resultado;
+    }
+
+    @Override
+    public Map<String, Long> getMedidores() {
+        Map<String, Long> resultado = new TreeMap<>();
+        medidores.forEach((nome, medidor) -> {
+            try {
+                resultado.put(nome, medidor.getAsLong());
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Falha ao ler o medidor " + nome, e);
+            }
+        });
+        return resultado;
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Resumo> getHistogramas() {
+        Map<String, LatencyHistogram.Resumo> resultado = new TreeMap<>();
+        histogramas.forEach((nome, histograma) -> resultado.put(nome, histograma.resumo()));
+        return resultado;
+    }
+
+    @Override
+    public String getJson() {
+        return GSON.toJson(new Documento(Instant.now().toString(), getContadores(), getMedidores(), getHistogramas()));
+    }
+
+    @Override
+    public void zerar() {
+        contadores.values().forEach(LongAdder::reset);
+        histogramas.values().forEach(LatencyHistogram::zerar);
+    }
+
+    private void registrarJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("org.example:type=Metrics"));
+        } catch (JMException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Não foi possível registrar as métricas no JMX", e);
+        }
+    }
+
+    private void gravarPeriodicamente(Path arquivo, long intervaloSegundos) {
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gravacao-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(() -> {
+            try {
+                gravar(arquivo);
+            } catch (IOException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Falha ao gravar as métricas em " + arquivo, e);
+            }
+        }, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Grava as métricas em JSON, substituindo o arquivo atomicamente para que um leitor nunca veja
+     * um documento pela metade.
+     *
+     * @param arquivo O arquivo de destino.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo.
+     */
+    public void gravar(Path arquivo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Files.writeString(temporario, getJson(), StandardCharsets.UTF_8);
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Formato do JSON das métricas.
+     *
+     * @param instante    O instante da leitura, no formato ISO-8601.
+     * @param contadores  Os contadores.
+     * @param medidores   Os medidores.
+     * @param histogramas Os resumos dos histogramas, em nanossegundos.
+     */
+    private record Documento(String instante, Map<String, Long> contadores, Map<String, Long> medidores,
+                             Map<String, LatencyHistogram.Resumo> histogramas) {
+    }
+}
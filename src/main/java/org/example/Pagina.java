@@ -0,0 +1,25 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Uma página do resultado de uma consulta.
+ *
+ * @param itens  Os itens da página, na ordem do resultado.
+ * @param inicio A posição do primeiro item da página no resultado completo.
+ * @param total  A quantidade de itens do resultado completo.
+ * @param <T>    O tipo dos itens.
+ *
+ * @author David Neves Dias
+ */
+public record Pagina<T>(List<T> itens, int inicio, int total) {
+
+    /**
+     * Indica se há itens depois desta página.
+     *
+     * @return {@code true} se esta não for a última página.
+     */
+    public boolean temProxima() {
+        return inicio + itens.size() < total;
+    }
+}
@@ -0,0 +1,173 @@
+package org.example;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Geração e verificação de hashes de senha com PBKDF2-HMAC-SHA256 e sal aleatório.
+ * O cálculo é deliberadamente lento, por isso é feito num pool próprio e limitado de threads
+ * ({@code venda.senha.threads}, padrão metade dos processadores) com fila limitada
+ * ({@code venda.senha.fila}, padrão 256): uma rajada de logins espera ou é recusada,
+ * mas nunca ocupa os processadores usados pelas compras.
+ * <p>
+ * Os hashes são gravados no formato {@code pbkdf2$<iterações>$<sal>$<hash>}, em Base64.
+ * Senhas gravadas em texto puro por versões antigas são reconhecidas pela ausência desse prefixo.
+ *
+ * @author David Neves Dias
+ */
+public class PasswordHasher implements AutoCloseable {
+
+    private static final String PREFIXO = "pbkdf2$";
+
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+
+    /** Número de iterações usado nos novos hashes. */
+    public static final int ITERACOES_PADRAO = Integer.getInteger("venda.senha.iteracoes", 120_000);
+
+    private static final int BYTES_SAL = 16;
+
+    private static final int BITS_HASH = 256;
+
+    private static PasswordHasher instance;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final ExecutorService executor;
+
+    private final int iteracoes;
+
+    /**
+     * Cria o gerador com o pool de threads e o número de iterações informados.
+     *
+     * @param threads   O número de threads que calculam hashes.
+     * @param fila      O número máximo de cálculos aguardando uma thread.
+     * @param iteracoes O número de iterações dos novos hashes.
+     */
+    public PasswordHasher(int threads, int fila, int iteracoes) {
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), runnable -> {
+                    Thread thread = new Thread(runnable, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.iteracoes = iteracoes;
+    }
+
+    /**
+     * Retorna a instância compartilhada, configurada pelas propriedades do sistema.
+     *
+     * @return A instância do gerador.
+     */
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            int threads = Integer.getInteger("venda.senha.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            instance = new PasswordHasher(threads, Integer.getInteger("venda.senha.fila", 256), ITERACOES_PADRAO);
+        }
+        return instance;
+    }
+
+    /**
+     * Indica se o valor armazenado já é um hash gerado por esta classe.
+     *
+     * @param armazenado A senha armazenada.
+     * @return {@code false} se for uma senha em texto puro de um cadastro antigo.
+     */
+    public static boolean isHash(String armazenado) {
+        return armazenado != null && armazenado.startsWith(PREFIXO);
+    }
+
+    /**
+     * Gera o hash de uma senha no pool de threads.
+     *
+     * @param senha A senha em texto puro.
+     * @return Um futuro com o hash a ser armazenado; falha com {@link RejectedExecutionException}
+     * se a fila do pool estiver cheia.
+     */
+    public CompletableFuture<String> hash(String senha) {
+        return executar(() -> gerar(senha));
+    }
+
+    /**
+     * Verifica uma senha contra o valor armazenado, no pool de threads.
+     * Valores em texto puro são comparados em tempo constante.
+     *
+     * @param senha      A senha informada.
+     * @param armazenado A senha armazenada, com hash ou em texto puro.
+     * @return Um futuro com o resultado da verificação; falha com {@link RejectedExecutionException}
+     * se a fila do pool estiver cheia.
+     */
+    public CompletableFuture<Boolean> verificar(String senha, String armazenado) {
+        if (senha == null || armazenado == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!isHash(armazenado)) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    senha.getBytes(StandardCharsets.UTF_8), armazenado.getBytes(StandardCharsets.UTF_8)));
+        }
+        return executar(() -> conferir(senha, armazenado));
+    }
+
+    /**
+     * Encerra o pool de threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String gerar(String senha) {
+        byte[] sal = new byte[BYTES_SAL];
+        random.nextBytes(sal);
+        byte[] hash = derivar(senha, sal, iteracoes);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIXO + iteracoes + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(hash);
+    }
+
+    private boolean conferir(String senha, String armazenado) {
+        String[] partes = armazenado.split("\\$");
+        if (partes.length != 4) {
+            return false;
+        }
+        try {
+            int iteracoesArmazenadas = Integer.parseInt(partes[1]);
+            byte[] sal = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            return MessageDigest.isEqual(esperado, derivar(senha, sal, iteracoesArmazenadas));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] derivar(String senha, byte[] sal, int iteracoes) {
+        PBEKeySpec spec = new PBEKeySpec(senha.toCharArray(), sal, iteracoes, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 indisponível", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
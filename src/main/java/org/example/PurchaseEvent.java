@@ -0,0 +1,69 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder para uma compra de ingressos, da chamada até a gravação durável
+ * do journal, com o evento comprado, a quantidade e o desfecho.
+ *
+ * @author David Neves Dias
+ */
+@Name("org.example.Purchase")
+@Label("Compra")
+@Category({"Venda de Ingressos", "Compras"})
+@Description("Compra de ingressos de um evento")
+final class PurchaseEvent extends jdk.jfr.Event {
+
+    private static final EventType TIPO = EventType.getEventType(PurchaseEvent.class);
+
+    @Label("ID do evento")
+    String eventoId;
+
+    @Label("Quantidade")
+    int quantidade;
+
+    @Label("Com reserva")
+    boolean comReserva;
+
+    @Label("Desfecho")
+    @Description("O status da compra, ou ERRO se a gravação falhou")
+    String desfecho;
+
+    /**
+     * Inicia o evento se ele estiver habilitado numa gravação em andamento; como em
+     * {@link LoginEvent#iniciar()}, nada é alocado quando não há gravação.
+     *
+     * @param eventoId   O ID do evento comprado.
+     * @param quantidade O número de ingressos.
+     * @param comReserva Se a compra consome uma reserva feita antes.
+     * @return O evento iniciado, ou {@code null} se ele não estiver habilitado.
+     */
+    static PurchaseEvent iniciar(String eventoId, int quantidade, boolean comReserva) {
+        if (!TIPO.isEnabled()) {
+            return null;
+        }
+        PurchaseEvent evento = new PurchaseEvent();
+        evento.eventoId = eventoId;
+        evento.quantidade = quantidade;
+        evento.comReserva = comReserva;
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Grava o evento com o desfecho da compra, se tiver passado do limite de duração configurado.
+     *
+     * @param desfecho O status da compra, ou {@code ERRO}.
+     */
+    void concluir(String desfecho) {
+        end();
+        if (shouldCommit()) {
+            this.desfecho = desfecho;
+            commit();
+        }
+    }
+}
@@ -5,14 +5,10 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.text.Text;
 
-import java.io.IOException;
-import java.util.Locale;
-import java.util.ResourceBundle;
-import java.util.UUID;
-
 /**
  * Controlador responsável pela lógica da tela de registro de usuários.
  * Garante validações de campos e interação com o sistema de persistência.
@@ -21,6 +17,8 @@ import java.util.UUID;
  */
 public class RegisterController {
 
+    private static final System.Logger LOGGER = System.getLogger(RegisterController.class.getName());
+
     @FXML
     private Label cpfId;
 
@@ -60,6 +58,9 @@ public class RegisterController {
     @FXML
     private Text passwordNotFilledIn;
 
+    @FXML
+    private ProgressIndicator progressIndicator;
+
     @FXML
     private ComboBox<String> languageComboBox;
 
@@ -68,7 +69,7 @@ public class RegisterController {
 
     private ControllerScreens controllerScreens;
 
-    private ResourceBundle bundle;
+    private final LocalizationService i18n = LocalizationService.getInstance();
 
     /**
      * Configura o controlador de telas para alternância entre diferentes cenas.
@@ -80,57 +81,34 @@ public class RegisterController {
     }
 
     /**
-     * Inicializa os componentes da interface gráfica e configura o idioma padrão.
+     * Inicializa os componentes da interface gráfica e liga seus textos ao idioma da aplicação.
      */
     @FXML
     public void initialize() {
-        configureLanguageComboBox();
-        clearErrorMessages();
-        updateLanguage("pt", "BR");
-    }
-
-    /**
-     * Configura as opções de idioma no ComboBox.
-     */
-    private void configureLanguageComboBox() {
-        languageComboBox.getItems().addAll("Português", "English");
-        languageComboBox.setValue("Português");
-        languageComboBox.setOnAction(event -> {
-            String selectedLanguage = languageComboBox.getValue();
-            if ("Português".equals(selectedLanguage)) {
-                updateLanguage("pt", "BR");
-            } else if ("English".equals(selectedLanguage)) {
-                updateLanguage("en", "US");
-            }
+        i18n.vincular(() -> {
+            i18n.vincularSeletor(languageComboBox, "Português", "English");
+            vincularTextos();
+            i18n.localeProperty().addListener((observable, oldValue, newValue) -> clearErrorMessages());
         });
+        clearErrorMessages();
     }
 
     /**
-     * Atualiza os textos exibidos na interface com base no idioma selecionado.
-     *
-     * @param language O código do idioma.
-     * @param country  O código do país.
+     * Liga os textos exibidos na interface ao idioma atual.
      */
-    private void updateLanguage(String language, String country) {
-        Locale locale = new Locale(language, country);
-        bundle = ResourceBundle.getBundle("lang", locale);
-
-        // Atualizar textos da interface
-        cpfId.setText(bundle.getString("label.cpfId"));
-        emailId.setText(bundle.getString("label.emailId"));
-        nameId.setText(bundle.getString("label.nameId"));
-        passwordId.setText(bundle.getString("label.passwordId"));
-        loginButton.setText(bundle.getString("button.login"));
-        registerBottom.setText(bundle.getString("button.register"));
-
-        // Atualizar placeholders
-        cpfTextField.setPromptText(bundle.getString("placeholder.cpf"));
-        emailTextField.setPromptText(bundle.getString("placeholder.email"));
-        nameTextField.setPromptText(bundle.getString("placeholder.name"));
-        enterPasswordField.setPromptText(bundle.getString("placeholder.password"));
-
-        // Limpar mensagens de erro
-        clearErrorMessages();
+    private void vincularTextos() {
+        cpfId.textProperty().bind(i18n.texto("label.cpfId"));
+        emailId.textProperty().bind(i18n.texto("label.emailId"));
+        nameId.textProperty().bind(i18n.texto("label.nameId"));
+        passwordId.textProperty().bind(i18n.texto("label.passwordId"));
+        loginButton.textProperty().bind(i18n.texto("button.login"));
+        registerBottom.textProperty().bind(i18n.texto("button.register"));
+
+        // Placeholders
+        cpfTextField.promptTextProperty().bind(i18n.texto("placeholder.cpf"));
+        emailTextField.promptTextProperty().bind(i18n.texto("placeholder.email"));
+        nameTextField.promptTextProperty().bind(i18n.texto("placeholder.name"));
+        enterPasswordField.promptTextProperty().bind(i18n.texto("placeholder.password"));
     }
 
     /**
@@ -146,24 +124,31 @@ public class RegisterController {
     /**
      * Método chamado ao clicar no botão de registro.
      * Valida os campos e registra o usuário se os dados forem válidos.
+     * O cadastro, que grava no disco, roda em segundo plano com o botão desabilitado.
      *
      * @param event O evento acionado.
-     * @throws IOException Se houver erro na persistência de dados.
      */
     @FXML
-    void onHelloButtonClick(ActionEvent event) throws IOException {
-        UsuarioManager usuarioManager = new UsuarioManager();
+    void onHelloButtonClick(ActionEvent event) {
         String name = nameTextField.getText();
         String password = enterPasswordField.getText();
         String cpf = cpfTextField.getText();
         String email = emailTextField.getText();
 
         if (validateFields(name, password, cpf, email)) {
-            UUID uuid = UUID.randomUUID();
-            String id = uuid.toString();
-            if (usuarioManager.adicionarUsuarioNoArquivo(name, password, cpf, email, false, id)) {
-                controllerScreens.removeScene();
-            }
+            FxTasks.executar(() -> TicketService.getInstance().cadastrar(name, password, cpf, email),
+                    loginButton, progressIndicator,
+                    usuario -> {
+                        if (usuario.isPresent()) {
+                            controllerScreens.removeScene();
+                        } else {
+                            emailNotFilledIn.setText(i18n.get("error.userAlreadyRegistered"));
+                        }
+                    },
+                    erro -> {
+                        FxTasks.registrarFalha(LOGGER, "cadastro", erro);
+                        FxTasks.mostrarErro(i18n.get("error.operationFailed"));
+                    });
         }
     }
 
@@ -180,28 +165,28 @@ public class RegisterController {
         boolean allFieldsFilled = true;
 
         if (name == null || name.trim().isEmpty()) {
-            nameNotFilledIn.setText(bundle.getString("error.nameNotFilledIn"));
+            nameNotFilledIn.setText(i18n.get("error.nameNotFilledIn"));
             allFieldsFilled = false;
         } else {
             nameNotFilledIn.setText("");
         }
 
         if (password == null || password.trim().isEmpty()) {
-            passwordNotFilledIn.setText(bundle.getString("error.passwordNotFilledIn"));
+            passwordNotFilledIn.setText(i18n.get("error.passwordNotFilledIn"));
             allFieldsFilled = false;
         } else {
             passwordNotFilledIn.setText("");
         }
 
         if (cpf == null || cpf.trim().isEmpty()) {
-            cpfNotFilledIn.setText(bundle.getString("error.cpfNotFilledIn"));
+            cpfNotFilledIn.setText(i18n.get("error.cpfNotFilledIn"));
             allFieldsFilled = false;
         } else {
             cpfNotFilledIn.setText("");
         }
 
         if (email == null || email.trim().isEmpty()) {
-            emailNotFilledIn.setText(bundle.getString("error.emailNotFilledIn"));
+            emailNotFilledIn.setText(i18n.get("error.emailNotFilledIn"));
             allFieldsFilled = false;
         } else {
             emailNotFilledIn.setText("");
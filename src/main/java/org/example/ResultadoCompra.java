@@ -0,0 +1,49 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Resultado de uma tentativa de compra de ingressos.
+ *
+ * @param status     O desfecho da compra.
+ * @param ingressos  Os ingressos emitidos, vazio se a compra não foi concluída.
+ * @param restantes  Os assentos ainda disponíveis no evento após a tentativa.
+ *
+ * @author David Neves Dias
+ */
+public record ResultadoCompra(Status status, List<Ingresso> ingressos, int restantes) {
+
+    /**
+     * Desfechos possíveis de uma compra.
+     */
+    public enum Status {
+        /** Os ingressos foram emitidos e gravados. */
+        SUCESSO,
+        /** Não há assentos suficientes no evento. */
+        ESGOTADO,
+        /** O evento informado não existe. */
+        EVENTO_INEXISTENTE,
+        /** O usuário informado não existe. */
+        USUARIO_INEXISTENTE
+    }
+
+    /**
+     * Indica se a compra foi concluída.
+     *
+     * @return {@code true} se os ingressos foram emitidos.
+     */
+    public boolean sucesso() {
+        return status == Status.SUCESSO;
+    }
+
+    /**
+     * Cria o resultado de uma compra recusada.
+     *
+     * @param status    O motivo da recusa.
+     * @param restantes Os assentos disponíveis no evento.
+     * @return O resultado.
+     */
+    static ResultadoCompra recusada(Status status, int restantes) {
+        return new ResultadoCompra(status, List.of(), restantes);
+    }
+}
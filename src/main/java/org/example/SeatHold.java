@@ -0,0 +1,98 @@
+package org.example;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserva temporária de assentos de um evento, mantida enquanto o comprador confirma a compra.
+ * Se não for confirmada nem liberada até expirar, os assentos voltam ao estoque.
+ *
+ * @author David Neves Dias
+ */
+public final class SeatHold implements Delayed {
+
+    private final String id;
+
+    private final String usuarioId;
+
+    private final SeatInventory estoque;
+
+    private final int quantidade;
+
+    private final long expiraEmNanos;
+
+    /**
+     * Cria uma reserva.
+     *
+     * @param id            O ID da reserva.
+     * @param usuarioId     O ID do usuário dono da reserva, o único que pode confirmá-la ou liberá-la.
+     * @param estoque       O estoque de onde os assentos foram reservados.
+     * @param quantidade    O número de assentos reservados.
+     * @param expiraEmNanos O instante de expiração, na escala de {@link System#nanoTime()}.
+     */
+    SeatHold(String id, String usuarioId, SeatInventory estoque, int quantidade, long expiraEmNanos) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+        this.estoque = estoque;
+        this.quantidade = quantidade;
+        this.expiraEmNanos = expiraEmNanos;
+    }
+
+    /**
+     * Obtém o ID da reserva.
+     *
+     * @return O ID da reserva.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Obtém o ID do usuário dono da reserva.
+     *
+     * @return O ID do usuário.
+     */
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    /**
+     * Obtém o ID do evento reservado.
+     *
+     * @return O ID do evento.
+     */
+    public String getEventoId() {
+        return estoque.getEventoId();
+    }
+
+    /**
+     * Obtém o número de assentos reservados.
+     *
+     * @return A quantidade de assentos.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Obtém o estoque de onde os assentos foram reservados.
+     *
+     * @return O estoque do evento.
+     */
+    SeatInventory getEstoque() {
+        return estoque;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiraEmNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed outro) {
+        if (outro instanceof SeatHold hold) {
+            return Long.compare(expiraEmNanos, hold.expiraEmNanos);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), outro.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,156 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Gerencia as reservas temporárias de assentos entre a escolha da quantidade e a confirmação da compra.
+ * <p>
+ * As reservas ativas ficam num mapa concorrente e, em paralelo, numa {@link DelayQueue} ordenada
+ * pelo instante de expiração. Uma thread dedicada retira da fila apenas as reservas já vencidas e
+ * devolve seus assentos ao estoque, sem varrer periodicamente todas as reservas. Confirmar ou liberar
+ * uma reserva apenas a remove do mapa; a entrada correspondente na fila é descartada quando vencer.
+ * Cada reserva pertence ao usuário que a fez, e só ele pode confirmá-la ou liberá-la.
+ *
+ * @author David Neves Dias
+ */
+public class SeatHoldManager {
+
+    private static final System.Logger LOGGER = System.getLogger(SeatHoldManager.class.getName());
+
+    /** Duração padrão de uma reserva. */
+    public static final Duration TTL_PADRAO = Duration.ofSeconds(Long.getLong("venda.reserva.ttl.segundos", 300));
+
+    private static SeatHoldManager instance;
+
+    private final Map<String, SeatHold> ativas = new ConcurrentHashMap<>();
+
+    private final DelayQueue<SeatHold> expiracoes = new DelayQueue<>();
+
+    /**
+     * Cria o gerenciador e inicia a thread de expiração das reservas.
+     */
+    public SeatHoldManager() {
+        Thread expirador = new Thread(this::expirarReservas, "expiracao-reservas");
+        expirador.setDaemon(true);
+        expirador.start();
+    }
+
+    /**
+     * Retorna a instância compartilhada do gerenciador.
+     *
+     * @return A instância do gerenciador.
+     */
+    public static synchronized SeatHoldManager getInstance() {
+        if (instance == null) {
+            instance = new SeatHoldManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Reserva assentos no estoque informado pela duração padrão.
+     *
+     * @param usuarioId  O ID do usuário que faz a reserva.
+     * @param estoque    O estoque do evento.
+     * @param quantidade O número de assentos.
+     * @return A reserva criada, ou vazio se não houver assentos suficientes.
+     */
+    public Optional<SeatHold> hold(String usuarioId, SeatInventory estoque, int quantidade) {
+        return hold(usuarioId, estoque, quantidade, TTL_PADRAO);
+    }
+
+    /**
+     * Reserva assentos no estoque informado pela duração informada.
+     *
+     * @param usuarioId  O ID do usuário que faz a reserva.
+     * @param estoque    O estoque do evento.
+     * @param quantidade O número de assentos.
+     * @param ttl        Por quanto tempo a reserva é mantida sem confirmação.
+     * @return A reserva criada, ou vazio se não houver assentos suficientes.
+     */
+    public Optional<SeatHold> hold(String usuarioId, SeatInventory estoque, int quantidade, Duration ttl) {
+        if (!estoque.tryReserve(quantidade)) {
+            return Optional.empty();
+        }
+        SeatHold reserva = new SeatHold(UUID.randomUUID().toString(), usuarioId, estoque, quantidade, System.nanoTime() + ttl.toNanos());
+        ativas.put(reserva.getId(), reserva);
+        expiracoes.add(reserva);
+        return Optional.of(reserva);
+    }
+
+    /**
+     * Confirma a reserva, transformando os assentos reservados em venda definitiva.
+     *
+     * @param holdId    O ID da reserva.
+     * @param usuarioId O ID do usuário que confirma a compra.
+     * @return A reserva confirmada, ou vazio se ela já expirou, foi liberada ou confirmada, ou se
+     * pertence a outro usuário.
+     */
+    public Optional<SeatHold> confirm(String holdId, String usuarioId) {
+        return Optional.ofNullable(remover(holdId, usuarioId));
+    }
+
+    /**
+     * Libera a reserva, devolvendo os assentos ao estoque.
+     *
+     * @param holdId    O ID da reserva.
+     * @param usuarioId O ID do usuário que libera a reserva.
+     * @return {@code true} se a reserva estava ativa, pertencia ao usuário e foi liberada.
+     */
+    public boolean release(String holdId, String usuarioId) {
+        SeatHold reserva = remover(holdId, usuarioId);
+        if (reserva == null) {
+            return false;
+        }
+        reserva.getEstoque().release(reserva.getQuantidade());
+        return true;
+    }
+
+    /**
+     * Retorna o número de reservas ativas.
+     *
+     * @return A quantidade de reservas pendentes de confirmação.
+     */
+    public int pendentes() {
+        return ativas.size();
+    }
+
+    /**
+     * Remove a reserva ativa com o ID informado, se ela pertencer ao usuário.
+     *
+     * @return A reserva removida, ou {@code null} se não houver uma reserva ativa do usuário com esse ID.
+     */
+    private SeatHold remover(String holdId, String usuarioId) {
+        if (holdId == null) {
+            return null;
+        }
+        SeatHold reserva = ativas.get(holdId);
+        if (reserva == null || !reserva.getUsuarioId().equals(usuarioId) || !ativas.remove(holdId, reserva)) {
+            return null;
+        }
+        return reserva;
+    }
+
+    /**
+     * Laço da thread de expiração: aguarda a próxima reserva vencida e a libera, caso ainda esteja ativa.
+     */
+    private void expirarReservas() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                SeatHold reserva = expiracoes.take();
+                if (ativas.remove(reserva.getId(), reserva)) {
+                    reserva.getEstoque().release(reserva.getQuantidade());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Falha ao expirar reserva de assentos", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estoque de assentos de um evento.
+ * As reservas são feitas com decrementos atômicos por compare-and-set, sem nenhum lock global,
+ * e nunca deixam o número de assentos restantes ficar negativo, o que impede a venda
+ * de mais ingressos do que a capacidade do evento.
+ *
+ * @author David Neves Dias
+ */
+public class SeatInventory {
+
+    private final String eventoId;
+
+    private final int capacidade;
+
+    private final AtomicInteger restantes;
+
+    /**
+     * Cria o estoque de um evento.
+     *
+     * @param eventoId   O ID do evento.
+     * @param capacidade A capacidade total do evento.
+     * @param vendidos   A quantidade de ingressos já vendidos.
+     */
+    public SeatInventory(String eventoId, int capacidade, int vendidos) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("A capacidade não pode ser negativa.");
+        }
+        this.eventoId = eventoId;
+        this.capacidade = capacidade;
+        this.restantes = new AtomicInteger(Math.max(0, capacidade - vendidos));
+    }
+
+    /**
+     * Tenta reservar a quantidade de assentos informada.
+     *
+     * @param quantidade O número de assentos desejado.
+     * @return {@code true} se os assentos foram reservados, {@code false} se não há assentos suficientes.
+     * @throws IllegalArgumentException Se a quantidade não for positiva.
+     */
+    public boolean tryReserve(int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("A quantidade deve ser positiva.");
+        }
+        int atual;
+        do {
+            atual = restantes.get();
+            if (atual < quantidade) {
+                return false;
+            }
+        } while (!restantes.compareAndSet(atual, atual - quantidade));
+        return true;
+    }
+
+    /**
+     * Devolve ao estoque assentos reservados anteriormente, por exemplo quando a compra falha
+     * ou um ingresso é reembolsado.
+     *
+     * @param quantidade O número de assentos devolvidos.
+     */
+    public void release(int quantidade) {
+        if (quantidade <= 0) {
+            return;
+        }
+        int atual;
+        do {
+            atual = restantes.get();
+        } while (!restantes.compareAndSet(atual, Math.min(capacidade, atual + quantidade)));
+    }
+
+    /**
+     * Retorna o número de assentos ainda disponíveis.
+     *
+     * @return Os assentos restantes.
+     */
+    public int remaining() {
+        return restantes.get();
+    }
+
+    /**
+     * Retorna a capacidade total do evento.
+     *
+     * @return A capacidade.
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Retorna o ID do evento deste estoque.
+     *
+     * @return O ID do evento.
+     */
+    public String getEventoId() {
+        return eventoId;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro dos estoques de assentos de todos os eventos.
+ * Cada estoque é criado na primeira consulta ao evento, descontando da capacidade
+ * os ingressos já vendidos no {@link IngressoRepository}. Os assentos de um ingresso reembolsado
+ * voltam ao estoque do evento, se ele já tiver sido criado; senão, a contagem inicial já não o inclui.
+ *
+ * @author David Neves Dias
+ */
+public class SeatInventoryRegistry {
+
+    private static SeatInventoryRegistry instance;
+
+    private final IngressoRepository ingressoRepository;
+
+    private final Map<String, SeatInventory> estoques = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o registro usando o repositório de ingressos informado para contar as vendas.
+     *
+     * @param ingressoRepository O repositório de ingressos.
+     */
+    public SeatInventoryRegistry(IngressoRepository ingressoRepository) {
+        this.ingressoRepository = ingressoRepository;
+        ingressoRepository.aoReembolsar(ingresso -> {
+            if (ingresso.getEventoId() == null) {
+                // Ingressos antigos não registravam o evento e não ocupam assento em nenhum estoque.
+                return;
+            }
+            SeatInventory estoque = estoques.get(ingresso.getEventoId());
+            if (estoque != null) {
+                estoque.release(1);
+            }
+        });
+    }
+
+    /**
+     * Retorna a instância compartilhada do registro.
+     *
+     * @return A instância do registro.
+     * @throws IOException Se ocorrer um erro ao carregar o repositório de ingressos.
+     */
+    public static synchronized SeatInventoryRegistry getInstance() throws IOException {
+        if (instance == null) {
+            instance = new SeatInventoryRegistry(IngressoRepository.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Retorna o estoque de assentos do evento, criando-o se necessário.
+     *
+     * @param evento O evento.
+     * @return O estoque do evento.
+     */
+    public SeatInventory estoque(Evento evento) {
+        return estoques.computeIfAbsent(evento.getId(),
+                id -> new SeatInventory(id, evento.getCapacidade(), ingressoRepository.contarPorEvento(id)));
+    }
+
+    /**
+     * Retorna o estoque de um evento já consultado anteriormente.
+     *
+     * @param eventoId O ID do evento.
+     * @return O estoque do evento, ou {@code null} se ele ainda não foi criado.
+     */
+    public SeatInventory estoque(String eventoId) {
+        return estoques.get(eventoId);
+    }
+}
@@ -1,40 +1,238 @@
 package org.example;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Gerencia a sessão do usuário atual no sistema.
+ * Registro das sessões dos usuários autenticados.
+ * Cada login recebe um token opaco e aleatório, associado ao ID do usuário num mapa concorrente,
+ * de modo que muitas sessões simultâneas convivem sem bloquear umas às outras.
+ * <p>
+ * Uma sessão expira depois de ficar ociosa por {@code venda.sessao.ociosa.minutos} (padrão 30)
+ * ou, em qualquer caso, depois de {@code venda.sessao.maxima.horas} (padrão 12) desde o login.
+ * Sessões expiradas são removidas na primeira consulta após a expiração e, periodicamente,
+ * por uma varredura em segundo plano.
+ * <p>
+ * Os métodos estáticos mantêm a sessão única do aplicativo desktop, guardando o token do usuário atual.
  *
  * @author David Neves Dias
  */
 public class SessionManager {
 
-    private static String currentUserId;
+    /** Tempo máximo sem uso antes de a sessão expirar. */
+    public static final Duration OCIOSIDADE_PADRAO = Duration.ofMinutes(Long.getLong("venda.sessao.ociosa.minutos", 30));
+
+    /** Tempo máximo de vida da sessão, mesmo com uso contínuo. */
+    public static final Duration DURACAO_MAXIMA_PADRAO = Duration.ofHours(Long.getLong("venda.sessao.maxima.horas", 12));
+
+    /** Intervalo entre as varreduras de sessões expiradas. */
+    private static final long INTERVALO_VARREDURA_SEGUNDOS = 60;
+
+    /** Quantidade de bytes aleatórios de cada token. */
+    private static final int BYTES_TOKEN = 32;
+
+    private static final ScheduledExecutorService VARREDOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expiracao-sessoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Token da sessão do usuário logado no aplicativo desktop. */
+    private static volatile String currentToken;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Sessao> sessoes = new ConcurrentHashMap<>();
+
+    private final long ociosidadeNanos;
+
+    private final long duracaoMaximaNanos;
 
     /**
-     * Realiza o login do usuário, armazenando seu ID na sessão.
+     * Cria um registro de sessões com os limites de expiração informados.
      *
-     * @param userId O ID do usuário que será armazenado na sessão.
+     * @param ociosidade    Tempo máximo sem uso antes de a sessão expirar.
+     * @param duracaoMaxima Tempo máximo de vida da sessão.
+     */
+    public SessionManager(Duration ociosidade, Duration duracaoMaxima) {
+        this.ociosidadeNanos = ociosidade.toNanos();
+        this.duracaoMaximaNanos = duracaoMaxima.toNanos();
+    }
+
+    /**
+     * Retorna o registro compartilhado de sessões, iniciando a varredura periódica na primeira chamada.
+     * A instância é criada pela inicialização preguiçosa da classe {@link Compartilhado}, sem bloqueio
+     * nas chamadas seguintes.
+     *
+     * @return A instância do registro.
+     */
+    public static SessionManager getInstance() {
+        return Compartilhado.INSTANCIA;
+    }
+
+    /**
+     * Abre uma nova sessão para o usuário.
+     *
+     * @param userId O ID do usuário autenticado.
+     * @return O token da sessão.
      * @throws IllegalArgumentException Se o ID do usuário for nulo ou vazio.
      */
-    public static synchronized void login(String userId) {
+    public String criar(String userId) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new IllegalArgumentException("O ID do usuário não pode ser nulo ou vazio.");
         }
-        currentUserId = userId;
+        byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessoes.put(token, new Sessao(userId, System.nanoTime()));
+        return token;
+    }
+
+    /**
+     * Retorna o usuário da sessão, renovando seu prazo de ociosidade.
+     * A sessão é removida se já tiver expirado.
+     *
+     * @param token O token da sessão.
+     * @return O ID do usuário, ou vazio se o token for desconhecido ou a sessão tiver expirado.
+     */
+    public Optional<String> validar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Sessao sessao = sessoes.get(token);
+        if (sessao == null) {
+            return Optional.empty();
+        }
+        long agora = System.nanoTime();
+        if (sessao.expirada(agora, ociosidadeNanos, duracaoMaximaNanos)) {
+            sessoes.remove(token, sessao);
+            return Optional.empty();
+        }
+        sessao.ultimoAcesso = agora;
+        return Optional.of(sessao.userId);
+    }
+
+    /**
+     * Encerra a sessão.
+     *
+     * @param token O token da sessão.
+     */
+    public void encerrar(String token) {
+        if (token != null) {
+            sessoes.remove(token);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de sessões registradas, incluindo expiradas ainda não removidas.
+     *
+     * @return O número de sessões.
+     */
+    public int tamanho() {
+        return sessoes.size();
+    }
+
+    /**
+     * Remove todas as sessões expiradas.
+     *
+     * @return A quantidade de sessões removidas.
+     */
+    public int removerExpiradas() {
+        long agora = System.nanoTime();
+        int removidas = 0;
+        for (Map.Entry<String, Sessao> entrada : sessoes.entrySet()) {
+            if (entrada.getValue().expirada(agora, ociosidadeNanos, duracaoMaximaNanos)
+                    && sessoes.remove(entrada.getKey(), entrada.getValue())) {
+                removidas++;
+            }
+        }
+        return removidas;
+    }
+
+    /**
+     * Realiza o login do usuário no aplicativo desktop, abrindo uma sessão para ele.
+     * Uma sessão anterior do aplicativo é encerrada.
+     *
+     * @param userId O ID do usuário que será armazenado na sessão.
+     * @return O token da nova sessão.
+     * @throws IllegalArgumentException Se o ID do usuário for nulo ou vazio.
+     */
+    public static String login(String userId) {
+        SessionManager registro = getInstance();
+        String token = registro.criar(userId);
+        String anterior = currentToken;
+        currentToken = token;
+        registro.encerrar(anterior);
+        return token;
+    }
+
+    /**
+     * Retorna o ID do usuário atualmente logado no aplicativo desktop.
+     *
+     * @return O ID do usuário logado ou null se nenhum usuário estiver logado ou a sessão tiver expirado.
+     */
+    public static String getCurrentUserId() {
+        String token = currentToken;
+        return token == null ? null : getInstance().validar(token).orElse(null);
     }
 
     /**
-     * Retorna o ID do usuário atualmente logado.
+     * Retorna o token da sessão do aplicativo desktop.
      *
-     * @return O ID do usuário logado ou null se nenhum usuário estiver logado.
+     * @return O token, ou null se nenhum usuário estiver logado.
+     */
+    public static String getCurrentToken() {
+        return currentToken;
+    }
+
+    /**
+     * Realiza o logout do usuário do aplicativo desktop, encerrando sua sessão.
      */
-    public static synchronized String getCurrentUserId() {
-        return currentUserId;
+    public static void logout() {
+        String token = currentToken;
+        currentToken = null;
+        getInstance().encerrar(token);
     }
 
     /**
-     * Realiza o logout do usuário, limpando o ID armazenado na sessão.
+     * Guarda a instância compartilhada, criada na primeira chamada de {@link #getInstance()}.
      */
-    public static synchronized void logout() {
-        currentUserId = null;
+    private static final class Compartilhado {
+
+        private static final SessionManager INSTANCIA = new SessionManager(OCIOSIDADE_PADRAO, DURACAO_MAXIMA_PADRAO);
+
+        static {
+            VARREDOR.scheduleWithFixedDelay(INSTANCIA::removerExpiradas,
+                    INTERVALO_VARREDURA_SEGUNDOS, INTERVALO_VARREDURA_SEGUNDOS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Sessão de um usuário. O último acesso é atualizado sem bloqueio a cada consulta.
+     */
+    private static final class Sessao {
+
+        private final String userId;
+
+        private final long criadaEm;
+
+        private volatile long ultimoAcesso;
+
+        private Sessao(String userId, long criadaEm) {
+            this.userId = userId;
+            this.criadaEm = criadaEm;
+            this.ultimoAcesso = criadaEm;
+        }
+
+        private boolean expirada(long agora, long ociosidadeNanos, long duracaoMaximaNanos) {
+            return agora - ultimoAcesso > ociosidadeNanos || agora - criadaEm > duracaoMaximaNanos;
+        }
     }
 }
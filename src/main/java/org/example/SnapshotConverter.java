@@ -0,0 +1,96 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte snapshots entre o formato JSON e o binário, fora da aplicação.
+ * <p>
+ * Uso: {@code SnapshotConverter <usuarios|ingressos> <json|binario> <origem> <destino>},
+ * onde o segundo argumento é o formato de destino. Por exemplo, para gerar o snapshot
+ * binário de usuários a partir do JSON:
+ * <pre>
+ * java org.example.SnapshotConverter usuarios binario usuarios.json usuarios.snap
+ * </pre>
+ * A conversão deve ser feita com a aplicação parada e com o journal já compactado,
+ * pois os registros do journal não são incorporados. O arquivo {@code .snap} sem número
+ * é lido pela aplicação como a geração 0 do snapshot binário (veja {@link BinarySnapshot}).
+ *
+ * @author David Neves Dias
+ */
+public final class SnapshotConverter {
+
+    private SnapshotConverter() {
+    }
+
+    /**
+     * Executa a conversão descrita pelos argumentos.
+     *
+     * @param args O tipo de snapshot, o formato de destino, o arquivo de origem e o de destino.
+     * @throws IOException Se ocorrer um erro ao ler ou gravar os arquivos.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4 || !List.of("usuarios", "ingressos").contains(args[0])
+                || !List.of("json", "binario").contains(args[1])) {
+            System.err.println("Uso: SnapshotConverter <usuarios|ingressos> <json|binario> <origem> <destino>");
+            System.exit(2);
+            return;
+        }
+        boolean paraBinario = args[1].equals("binario");
+        Path origem = Path.of(args[2]);
+        Path destino = Path.of(args[3]);
+        int convertidos = args[0].equals("usuarios")
+                ? converterUsuarios(origem, destino, paraBinario)
+                : converterIngressos(origem, destino, paraBinario);
+        System.out.println(convertidos + " " + args[0] + " convertidos para " + destino);
+    }
+
+    /**
+     * Converte um snapshot de usuários. Usuários com ingressos aninhados no formato antigo
+     * não podem ser gravados no formato binário; nesse caso a aplicação deve ser iniciada
+     * uma vez antes, para migrar os ingressos.
+     *
+     * @param origem      O snapshot de origem.
+     * @param destino     O snapshot de destino.
+     * @param paraBinario Se o destino é binário (e a origem JSON) ou o contrário.
+     * @return A quantidade de usuários convertidos.
+     * @throws IOException Se ocorrer um erro ao ler ou gravar os arquivos.
+     */
+    static int converterUsuarios(Path origem, Path destino, boolean paraBinario) throws IOException {
+        List<Usuario> usuarios = new ArrayList<>();
+        if (paraBinario) {
+            JsonSnapshot.ler(origem, Usuario.class, usuarios::add);
+            UsuarioSnapshotView.gravar(destino, usuarios);
+        } else {
+            UsuarioSnapshotView view = UsuarioSnapshotView.abrir(origem);
+            for (int i = 0; i < view.tamanho(); i++) {
+                usuarios.add(view.usuario(i));
+            }
+            JsonSnapshot.gravar(destino, Usuario.class, usuarios);
+        }
+        return usuarios.size();
+    }
+
+    /**
+     * Converte um snapshot de ingressos.
+     *
+     * @param origem      O snapshot de origem.
+     * @param destino     O snapshot de destino.
+     * @param paraBinario Se o destino é binário (e a origem JSON) ou o contrário.
+     * @return A quantidade de ingressos convertidos.
+     * @throws IOException Se ocorrer um erro ao ler ou gravar os arquivos.
+     */
+    static int converterIngressos(Path origem, Path destino, boolean paraBinario) throws IOException {
+        List<Ingresso> ingressos = new ArrayList<>();
+        if (paraBinario) {
+            JsonSnapshot.ler(origem, Ingresso.class, ingressos::add);
+            IngressoSnapshot.gravar(destino, ingressos);
+        } else {
+            IngressoSnapshot.ler(origem, ingressos::add);
+            JsonSnapshot.gravar(destino, Ingresso.class, ingressos);
+        }
+        return ingressos.size();
+    }
+}
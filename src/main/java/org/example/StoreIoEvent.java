@@ -0,0 +1,74 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder para a leitura ou gravação de um snapshot de usuários ou ingressos,
+ * com a duração da operação, o tamanho do arquivo e a quantidade de registros.
+ * <p>
+ * Como os demais eventos da aplicação, só é gravado quando habilitado numa gravação (veja
+ * {@link FlightRecording}); fora disso, {@link #shouldCommit()} é falso e o evento nem é preenchido.
+ *
+ * @author David Neves Dias
+ */
+@Name("org.example.StoreIo")
+@Label("Snapshot")
+@Category({"Venda de Ingressos", "Persistência"})
+@Description("Leitura ou gravação de um snapshot de usuários ou ingressos")
+final class StoreIoEvent extends jdk.jfr.Event {
+
+    @Label("Repositório")
+    String repositorio;
+
+    @Label("Operação")
+    String operacao;
+
+    @Label("Formato")
+    String formato;
+
+    @Label("Arquivo")
+    String arquivo;
+
+    @Label("Tamanho")
+    @DataAmount
+    long bytes;
+
+    @Label("Registros")
+    int registros;
+
+    /**
+     * Preenche e grava o evento, se ele estiver habilitado e tiver passado do limite de duração
+     * configurado. Deve ser chamado depois de {@link #begin()}, ao fim da operação.
+     *
+     * @param repositorio O nome do repositório, como {@code usuarios} ou {@code ingressos}.
+     * @param operacao    {@code leitura} ou {@code gravacao}.
+     * @param binario     Se o arquivo está no formato binário.
+     * @param arquivo     O arquivo lido ou gravado.
+     * @param registros   A quantidade de registros lidos ou gravados.
+     */
+    void concluir(String repositorio, String operacao, boolean binario, Path arquivo, int registros) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.repositorio = repositorio;
+        this.operacao = operacao;
+        this.formato = binario ? "binario" : "json";
+        this.arquivo = arquivo.toString();
+        this.registros = registros;
+        try {
+            this.bytes = Files.exists(arquivo) ? Files.size(arquivo) : 0;
+        } catch (IOException e) {
+            this.bytes = -1;
+        }
+        commit();
+    }
+}
@@ -0,0 +1,390 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Front-end HTTP opcional do {@link TicketService}, baseado no {@link HttpServer} do JDK.
+ * Cada requisição é atendida numa thread virtual, de modo que uma única instância atende
+ * muitos clientes simultâneos mesmo quando as compras aguardam o commit em disco.
+ * <p>
+ * Rotas:
+ * <ul>
+ *     <li>{@code POST /usuarios} — cadastra um usuário ({@code nome}, {@code senha}, {@code cpf}, {@code email});</li>
+ *     <li>{@code POST /login} — autentica ({@code email}, {@code senha}) e retorna o {@code usuarioId} e o {@code token} da sessão;</li>
+ *     <li>{@code GET /eventos?idioma=en-US} — lista os eventos, opcionalmente filtrados por {@code categoria} e
+ *     {@code texto}, ordenados por {@code ordem} ({@code data}, {@code nome} ou {@code categoria}, com {@code -} na
+ *     frente para inverter) e paginados por {@code inicio} e {@code tamanho}; o total vem no cabeçalho {@code X-Total-Count};</li>
+ *     <li>{@code POST /compras} — compra ingressos ({@code eventoId}, {@code quantidade}) para o usuário da sessão;
+ *     com o cabeçalho {@code Idempotency-Key}, repetir a requisição devolve o resultado da compra original;</li>
+ *     <li>{@code GET /usuarios/{id}/ingressos} — lista os ingressos do usuário da sessão, que deve ser o do caminho.</li>
+ * </ul>
+ * As rotas de compra e de ingressos exigem o cabeçalho {@code Authorization: Bearer <token>} com o token
+ * devolvido pelo login, e respondem 401 sem ele ou com uma sessão inválida.
+ *
+ * @author David Neves Dias
+ */
+public class TicketHttpServer implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(TicketHttpServer.class.getName());
+
+    private final Gson gson = new Gson();
+
+    private final TicketService service;
+
+    private final SessionManager sessoes;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Cria o servidor na porta informada, sem iniciá-lo.
+     *
+     * @param service O serviço atendido pelo servidor.
+     * @param porta   A porta TCP; {@code 0} escolhe uma porta livre.
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public TicketHttpServer(TicketService service, int porta) throws IOException {
+        this(service, SessionManager.getInstance(), porta);
+    }
+
+    /**
+     * Cria o servidor na porta informada, usando o registro de sessões informado, sem iniciá-lo.
+     *
+     * @param service O serviço atendido pelo servidor.
+     * @param sessoes O registro das sessões abertas pelo login.
+     * @param porta   A porta TCP; {@code 0} escolhe uma porta livre.
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public TicketHttpServer(TicketService service, SessionManager sessoes, int porta) throws IOException {
+        this.service = service;
+        this.sessoes = sessoes;
+        this.server = HttpServer.create(new InetSocketAddress(porta), 0);
+        server.setExecutor(executor);
+        server.createContext("/usuarios", this::tratarUsuarios);
+        server.createContext("/login", this::tratarLogin);
+        server.createContext("/eventos", this::tratarEventos);
+        server.createContext("/compras", this::tratarCompras);
+    }
+
+    /**
+     * Inicia o atendimento das requisições.
+     */
+    public void start() {
+        server.start();
+        LOGGER.log(System.Logger.Level.INFO, "Servidor HTTP escutando na porta " + getPorta());
+    }
+
+    /**
+     * Retorna a porta em que o servidor está escutando.
+     *
+     * @return A porta TCP.
+     */
+    public int getPorta() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Encerra o servidor, aguardando até um segundo pelas requisições em andamento.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void tratarUsuarios(HttpExchange exchange) throws IOException {
+        String[] partes = exchange.getRequestURI().getPath().split("/");
+        if (partes.length == 4 && "ingressos".equals(partes[3]) && "GET".equals(exchange.getRequestMethod())) {
+            String usuarioId = usuarioDaSessao(exchange);
+            if (usuarioId == null) {
+                return;
+            }
+            if (!usuarioId.equals(partes[2])) {
+                responder(exchange, 403, Map.of("erro", "A sessão não pertence a este usuário"));
+                return;
+            }
+            List<IngressoResposta> ingressos = service.listarIngressos(usuarioId).stream().map(this::responderIngresso).toList();
+            responder(exchange, 200, ingressos);
+        } else if (partes.length == 2 && "POST".equals(exchange.getRequestMethod())) {
+            CadastroRequisicao requisicao = ler(exchange, CadastroRequisicao.class);
+            if (requisicao == null) {
+                return;
+            }
+            if (vazio(requisicao.nome()) || vazio(requisicao.senha()) || vazio(requisicao.cpf()) || vazio(requisicao.email())) {
+                responder(exchange, 400, Map.of("erro", "Nome, senha, CPF e e-mail são obrigatórios"));
+                return;
+            }
+            Optional<Usuario> usuario;
+            try {
+                usuario = service.cadastrar(requisicao.nome(), requisicao.senha(), requisicao.cpf(), requisicao.email());
+            } catch (IOException | CompletionException | RejectedExecutionException e) {
+                responderFalha(exchange, e, "Falha ao gravar o cadastro", "Muitos cadastros simultâneos, tente novamente");
+                return;
+            }
+            usuario.ifPresentOrElse(
+                    cadastrado -> responderSemFalha(exchange, 201, Map.of("id", cadastrado.getId())),
+                    () -> responderSemFalha(exchange, 409, Map.of("erro", "E-mail ou CPF já cadastrado")));
+        } else {
+            responder(exchange, 404, Map.of("erro", "Rota não encontrada"));
+        }
+    }
+
+    private void tratarLogin(HttpExchange exchange) throws IOException {
+        if (!exigirMetodo(exchange, "POST")) {
+            return;
+        }
+        LoginRequisicao requisicao = ler(exchange, LoginRequisicao.class);
+        if (requisicao == null) {
+            return;
+        }
+        if (vazio(requisicao.email()) || vazio(requisicao.senha())) {
+            responder(exchange, 400, Map.of("erro", "E-mail e senha são obrigatórios"));
+            return;
+        }
+        Optional<String> usuarioId;
+        try {
+            usuarioId = service.autenticar(requisicao.email(), requisicao.senha()).join();
+        } catch (CompletionException | RejectedExecutionException e) {
+            responderFalha(exchange, e, "Falha ao verificar o login", "Muitos logins simultâneos, tente novamente");
+            return;
+        }
+        usuarioId.ifPresentOrElse(
+                id -> responderSemFalha(exchange, 200, Map.of("usuarioId", id, "token", sessoes.criar(id))),
+                () -> responderSemFalha(exchange, 401, Map.of("erro", "Credenciais inválidas")));
+    }
+
+    private void tratarEventos(HttpExchange exchange) throws IOException {
+        if (!exigirMetodo(exchange, "GET")) {
+            return;
+        }
+        String idioma = parametro(exchange.getRequestURI(), "idioma");
+        Locale locale = idioma == null ? TicketService.LOCALE_PADRAO : Locale.forLanguageTag(idioma);
+        URI uri = exchange.getRequestURI();
+        String ordem = parametro(uri, "ordem");
+        boolean decrescente = ordem != null && ordem.startsWith("-");
+        ConsultaEventos consulta;
+        int inicio;
+        int tamanho;
+        try {
+            ConsultaEventos.Ordem criterio = ordem == null ? ConsultaEventos.Ordem.DATA
+                    : ConsultaEventos.Ordem.valueOf((decrescente ? ordem.substring(1) : ordem).toUpperCase(Locale.ROOT));
+            consulta = new ConsultaEventos(parametro(uri, "categoria"), parametro(uri, "texto"), criterio, decrescente, locale);
+            inicio = parametro(uri, "inicio") == null ? 0 : Integer.parseInt(parametro(uri, "inicio"));
+            tamanho = parametro(uri, "tamanho") == null ? Integer.MAX_VALUE : Integer.parseInt(parametro(uri, "tamanho"));
+            if (inicio < 0 || tamanho < 0) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException e) {
+            responder(exchange, 400, Map.of("erro", "Parâmetros de consulta inválidos"));
+            return;
+        }
+        Pagina<Evento> pagina = service.consultarEventos(consulta, inicio, tamanho);
+        List<EventoResposta> eventos = pagina.itens().stream()
+                .map(evento -> new EventoResposta(evento.getId(), evento.getNome(locale), evento.getDescricao(locale),
+                        evento.formatDate(), evento.getCapacidade(), service.assentosRestantes(evento)))
+                .toList();
+        exchange.getResponseHeaders().set("X-Total-Count", Integer.toString(pagina.total()));
+        responder(exchange, 200, eventos);
+    }
+
+    private void tratarCompras(HttpExchange exchange) throws IOException {
+        if (!exigirMetodo(exchange, "POST")) {
+            return;
+        }
+        String usuarioId = usuarioDaSessao(exchange);
+        if (usuarioId == null) {
+            return;
+        }
+        CompraRequisicao requisicao = ler(exchange, CompraRequisicao.class);
+        if (requisicao == null) {
+            return;
+        }
+        if (requisicao.eventoId() == null || requisicao.eventoId().isBlank()) {
+            responder(exchange, 400, Map.of("erro", "O eventoId é obrigatório"));
+            return;
+        }
+        if (requisicao.quantidade() <= 0) {
+            responder(exchange, 400, Map.of("erro", "A quantidade deve ser positiva"));
+            return;
+        }
+        String chave = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        ResultadoCompra resultado;
+        try {
+            resultado = service.comprar(usuarioId, requisicao.eventoId(), requisicao.quantidade(), null, chave).join();
+        } catch (IllegalArgumentException e) {
+            responder(exchange, 422, Map.of("erro", e.getMessage()));
+            return;
+        } catch (CompletionException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Falha ao gravar compra", e.getCause());
+            responder(exchange, 500, Map.of("erro", "Falha ao gravar a compra"));
+            return;
+        }
+        int status = switch (resultado.status()) {
+            case SUCESSO -> 201;
+            case ESGOTADO -> 409;
+            case EVENTO_INEXISTENTE, USUARIO_INEXISTENTE -> 404;
+        };
+        responder(exchange, status, new CompraResposta(resultado.status().name(),
+                resultado.ingressos().stream().map(this::responderIngresso).toList(), resultado.restantes()));
+    }
+
+    /**
+     * Retorna o usuário da sessão informada no cabeçalho {@code Authorization}, respondendo 401
+     * se o cabeçalho faltar ou a sessão for inválida.
+     *
+     * @return O ID do usuário, ou {@code null} se a resposta de erro já foi enviada.
+     */
+    private String usuarioDaSessao(HttpExchange exchange) throws IOException {
+        String autorizacao = exchange.getRequestHeaders().getFirst("Authorization");
+        String token = autorizacao != null && autorizacao.startsWith("Bearer ")
+                ? autorizacao.substring("Bearer ".length()).trim() : null;
+        String usuarioId = sessoes.validar(token).orElse(null);
+        if (usuarioId == null) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            responder(exchange, 401, Map.of("erro", "Sessão inválida ou expirada"));
+        }
+        return usuarioId;
+    }
+
+    private boolean exigirMetodo(HttpExchange exchange, String metodo) throws IOException {
+        if (!metodo.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Allow", metodo);
+            responder(exchange, 405, Map.of("erro", "Método não permitido"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lê o corpo JSON da requisição, respondendo 400 se ele for inválido.
+     *
+     * @return O corpo convertido, ou {@code null} se a resposta de erro já foi enviada.
+     */
+    private <T> T ler(HttpExchange exchange, Class<T> tipo) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            T corpo = gson.fromJson(reader, tipo);
+            if (corpo != null) {
+                return corpo;
+            }
+        } catch (JsonParseException e) {
+            // Tratado abaixo como requisição inválida.
+        }
+        responder(exchange, 400, Map.of("erro", "Corpo JSON inválido"));
+        return null;
+    }
+
+    private void responder(HttpExchange exchange, int status, Object corpo) throws IOException {
+        byte[] bytes = gson.toJson(corpo).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = exchange.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    /**
+     * Responde 503 se o trabalho foi recusado por um pool saturado, ou 500 registrando a falha no log.
+     *
+     * @param falha          A exceção, possivelmente um {@link CompletionException} em volta da causa.
+     * @param mensagemErro   A mensagem da resposta 500 e do log.
+     * @param mensagemRecusa A mensagem da resposta 503.
+     */
+    private void responderFalha(HttpExchange exchange, Exception falha, String mensagemErro, String mensagemRecusa)
+            throws IOException {
+        Throwable causa = falha instanceof CompletionException && falha.getCause() != null ? falha.getCause() : falha;
+        if (causa instanceof RejectedExecutionException) {
+            responder(exchange, 503, Map.of("erro", mensagemRecusa));
+            return;
+        }
+        LOGGER.log(System.Logger.Level.ERROR, mensagemErro, causa);
+        responder(exchange, 500, Map.of("erro", mensagemErro));
+    }
+
+    private void responderSemFalha(HttpExchange exchange, int status, Object corpo) {
+        try {
+            responder(exchange, status, corpo);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Falha ao enviar resposta HTTP", e);
+        }
+    }
+
+    /**
+     * Monta a resposta de um ingresso, trazendo o nome e a data do evento do catálogo.
+     */
+    private IngressoResposta responderIngresso(Ingresso ingresso) {
+        Evento evento = service.buscarEvento(ingresso.getEventoId()).orElse(null);
+        return new IngressoResposta(ingresso.getId(), ingresso.getEventoId(),
+                evento == null ? ingresso.getNomeLegado() : evento.getNome(),
+                evento == null ? ingresso.getDataLegada() : evento.formatDate(),
+                ingresso.getPreco(), ingresso.getCompradoEm());
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static String parametro(URI uri, String nome) {
+        String consulta = uri.getRawQuery();
+        if (consulta == null) {
+            return null;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0 && par.substring(0, igual).equals(nome)) {
+                return java.net.URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inicia o servidor HTTP com os repositórios padrão.
+     * A porta pode ser informada como primeiro argumento ou pela propriedade {@code venda.http.porta}.
+     *
+     * @param args Argumentos da linha de comando.
+     * @throws IOException Se ocorrer um erro ao carregar os dados ou abrir a porta.
+     */
+    public static void main(String[] args) throws IOException {
+        FlightRecording.iniciarSeConfigurado();
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("venda.http.porta", 8080);
+        new TicketHttpServer(TicketService.getInstance(), porta).start();
+    }
+
+    private record CadastroRequisicao(String nome, String senha, String cpf, String email) {
+    }
+
+    private record LoginRequisicao(String email, String senha) {
+    }
+
+    private record CompraRequisicao(String eventoId, int quantidade) {
+    }
+
+    private record EventoResposta(String id, String nome, String categoria, String data, int capacidade, int restantes) {
+    }
+
+    private record IngressoResposta(String id, String eventoId, String evento, String data, double preco, long compradoEm) {
+    }
+
+    private record CompraResposta(String status, List<IngressoResposta> ingressos, int restantes) {
+    }
+}
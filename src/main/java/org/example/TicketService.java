@@ -0,0 +1,400 @@
+package org.example;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Camada de serviço da venda de ingressos, independente da interface gráfica.
+ * Concentra as regras de cadastro, autenticação, listagem de eventos e compra, de modo que possam
+ * ser usadas tanto pelos controladores JavaFX quanto pelo {@link TicketHttpServer} ou por testes de carga.
+ * <p>
+ * A latência e o desfecho de cada cadastro, login e compra, os ingressos vendidos no total e por evento
+ * ({@code ingressos.vendidos.<eventoId>}) e o tamanho dos repositórios são publicados no {@link MetricsRegistry}.
+ * O contador por evento só é criado numa compra bem-sucedida, que exige um evento do catálogo, de modo que
+ * o número de métricas fica limitado ao tamanho do catálogo mesmo que o cliente envie IDs quaisquer.
+ *
+ * @author David Neves Dias
+ */
+public class TicketService {
+
+    private static final System.Logger LOGGER = System.getLogger(TicketService.class.getName());
+
+    /** Preço fixo de cada ingresso, em centavos. */
+    public static final long PRECO_INGRESSO_CENTAVOS = 10_000;
+
+    /** Idioma usado quando nenhum é informado. */
+    public static final Locale LOCALE_PADRAO = new Locale("pt", "BR");
+
+    private static TicketService instance;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final IngressoRepository ingressoRepository;
+
+    private final SeatInventoryRegistry estoques;
+
+    private final SeatHoldManager reservas;
+
+    private final PasswordHasher hasher;
+
+    private final EventCatalog catalogo;
+
+    private final IdGenerator ids;
+
+    private final MetricsRegistry metricas = MetricsRegistry.getInstance();
+
+    private final IdempotencyCache compras = new IdempotencyCache();
+
+    private final LatencyHistogram latenciaCadastro = metricas.histograma("cadastro.latencia");
+
+    private final LatencyHistogram latenciaLogin = metricas.histograma("login.latencia");
+
+    private final LatencyHistogram latenciaCompra = metricas.histograma("compra.latencia");
+
+    private final LongAdder ingressosVendidos = metricas.contador("ingressos.vendidos");
+
+    /**
+     * Cria o serviço sobre os componentes informados.
+     *
+     * @param usuarioRepository  O repositório de usuários.
+     * @param ingressoRepository O repositório de ingressos.
+     * @param estoques           Os estoques de assentos dos eventos.
+     * @param reservas           O gerenciador de reservas temporárias.
+     * @param hasher             O gerador de hashes das senhas.
+     * @param catalogo           O catálogo de eventos.
+     * @param ids                O gerador dos IDs dos ingressos.
+     */
+    public TicketService(UsuarioRepository usuarioRepository, IngressoRepository ingressoRepository,
+                         SeatInventoryRegistry estoques, SeatHoldManager reservas, PasswordHasher hasher,
+                         EventCatalog catalogo, IdGenerator ids) {
+        this.usuarioRepository = usuarioRepository;
+        this.ingressoRepository = ingressoRepository;
+        this.estoques = estoques;
+        this.reservas = reservas;
+        this.hasher = hasher;
+        this.catalogo = catalogo;
+        this.ids = ids;
+        metricas.medidor("usuarios.total", usuarioRepository::tamanho);
+        metricas.medidor("ingressos.total", ingressoRepository::tamanho);
+        metricas.medidor("eventos.total", catalogo::tamanho);
+    }
+
+    /**
+     * Retorna a instância compartilhada do serviço, usando os repositórios padrão.
+     *
+     * @return A instância do serviço.
+     * @throws IOException Se ocorrer um erro ao carregar os repositórios.
+     */
+    public static synchronized TicketService getInstance() throws IOException {
+        if (instance == null) {
+            instance = new TicketService(UsuarioRepository.getInstance(), IngressoRepository.getInstance(),
+                    SeatInventoryRegistry.getInstance(), SeatHoldManager.getInstance(), PasswordHasher.getInstance(),
+                    EventCatalog.getInstance(), IdGenerator.padrao());
+        }
+        return instance;
+    }
+
+    /**
+     * Cadastra um novo usuário. A senha é armazenada apenas como hash.
+     *
+     * @param nome  O nome do usuário.
+     * @param senha A senha do usuário.
+     * @param cpf   O CPF do usuário.
+     * @param email O e-mail do usuário.
+     * @return O usuário cadastrado, ou vazio se o e-mail ou o CPF já estiverem em uso.
+     * @throws IOException Se ocorrer um erro ao gravar o cadastro.
+     */
+    public Optional<Usuario> cadastrar(String nome, String senha, String cpf, String email) throws IOException {
+        long inicio = System.nanoTime();
+        Usuario usuario = new Usuario(nome, hasher.hash(senha).join(), cpf, email, false, UUID.randomUUID().toString());
+        boolean adicionado = usuarioRepository.adicionar(usuario);
+        latenciaCadastro.registrarDesde(inicio);
+        metricas.contador(adicionado ? "cadastro.sucesso" : "cadastro.duplicado").increment();
+        return adicionado ? Optional.of(usuario) : Optional.empty();
+    }
+
+    /**
+     * Autentica um usuário pelo e-mail e senha.
+     * O usuário é localizado pelo índice de e-mails e a senha é verificada no pool do {@link PasswordHasher}.
+     * Uma senha ainda armazenada em texto puro é substituída pelo seu hash no primeiro login bem-sucedido.
+     *
+     * @param email O e-mail informado.
+     * @param senha A senha informada.
+     * @return Um futuro com o ID do usuário, ou vazio se as credenciais forem inválidas; falha com
+     * {@link java.util.concurrent.RejectedExecutionException} se o pool de verificação estiver saturado.
+     */
+    public CompletableFuture<Optional<String>> autenticar(String email, String senha) {
+        LoginEvent evento = LoginEvent.iniciar();
+        long inicio = System.nanoTime();
+        return verificarCredenciais(email, senha).whenComplete((id, erro) -> {
+            latenciaLogin.registrarDesde(inicio);
+            String desfecho = erro != null ? "erro" : id.isPresent() ? "sucesso" : "falha";
+            metricas.contador("login." + desfecho).increment();
+            if (evento != null) {
+                evento.concluir(desfecho, erro == null ? id.orElse(null) : null);
+            }
+        });
+    }
+
+    private CompletableFuture<Optional<String>> verificarCredenciais(String email, String senha) {
+        Usuario usuario = usuarioRepository.buscarPorEmail(email).orElse(null);
+        if (usuario == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        String armazenada = usuario.getSenha();
+        Optional<String> id = Optional.of(usuario.getId());
+        return hasher.verificar(senha, armazenada).thenCompose(valida -> {
+            if (!valida) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            if (PasswordHasher.isHash(armazenada)) {
+                return CompletableFuture.completedFuture(id);
+            }
+            return hasher.hash(senha).handle((hash, erro) -> {
+                if (erro == null) {
+                    migrarSenha(usuario.getId(), armazenada, hash);
+                }
+                return id;
+            });
+        });
+    }
+
+    /**
+     * Troca a senha em texto puro de um cadastro antigo pelo seu hash.
+     * Uma falha é apenas registrada: a migração é tentada de novo no próximo login.
+     */
+    private void migrarSenha(String usuarioId, String antiga, String hash) {
+        try {
+            usuarioRepository.substituirSenha(usuarioId, antiga, hash);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Falha ao migrar a senha do usuário " + usuarioId, e);
+        }
+    }
+
+    /**
+     * Lista os eventos disponíveis. Os mesmos objetos servem a todos os idiomas:
+     * use {@link Evento#getNome(Locale)} e {@link Evento#getDescricao(Locale)} para os textos.
+     *
+     * @return Os eventos do catálogo.
+     */
+    public List<Evento> listarEventos() {
+        return catalogo.listar();
+    }
+
+    /**
+     * Consulta uma página de eventos do catálogo, filtrada e ordenada conforme a consulta.
+     *
+     * @param consulta Os critérios de filtro e ordenação.
+     * @param inicio   A posição do primeiro evento da página.
+     * @param tamanho  A quantidade máxima de eventos da página.
+     * @return A página de eventos.
+     */
+    public Pagina<Evento> consultarEventos(ConsultaEventos consulta, int inicio, int tamanho) {
+        return catalogo.consultar(consulta, inicio, tamanho);
+    }
+
+    /**
+     * Retorna os eventos com data no intervalo, em ordem de data.
+     *
+     * @param de  O início do intervalo, inclusive.
+     * @param ate O fim do intervalo, exclusive.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> listarEventosEntre(Instant de, Instant ate) {
+        return catalogo.listarEntre(de, ate);
+    }
+
+    /**
+     * Retorna os próximos eventos a partir de agora, em ordem de data.
+     *
+     * @param limite A quantidade máxima de eventos.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> listarProximosEventos(int limite) {
+        return catalogo.listarProximos(Instant.now(), limite);
+    }
+
+    /**
+     * Retorna os eventos de uma categoria na semana atual, de segunda a domingo.
+     *
+     * @param categoria A chave da categoria.
+     * @return Os eventos encontrados, em ordem de data.
+     */
+    public List<Evento> listarEventosDaSemana(String categoria) {
+        return catalogo.listarNaSemana(categoria, LocalDate.now(Evento.FUSO_HORARIO));
+    }
+
+    /**
+     * Sugere os primeiros eventos, em ordem de data, cujo nome ou categoria tenham palavras começando
+     * com os trechos digitados.
+     *
+     * @param texto  O texto digitado.
+     * @param idioma O idioma dos nomes e categorias.
+     * @param limite A quantidade máxima de eventos.
+     * @return Os eventos encontrados.
+     */
+    public List<Evento> buscarEventos(String texto, Locale idioma, int limite) {
+        return catalogo.buscar(texto, idioma, limite);
+    }
+
+    /**
+     * Busca um evento pelo seu ID.
+     *
+     * @param eventoId O ID do evento.
+     * @return O evento encontrado, se existir.
+     */
+    public Optional<Evento> buscarEvento(String eventoId) {
+        return catalogo.buscarPorId(eventoId);
+    }
+
+    /**
+     * Retorna quantos assentos ainda estão disponíveis num evento.
+     *
+     * @param evento O evento.
+     * @return Os assentos restantes.
+     */
+    public int assentosRestantes(Evento evento) {
+        return estoques.estoque(evento).remaining();
+    }
+
+    /**
+     * Reserva temporariamente assentos de um evento enquanto o comprador decide.
+     * Só o próprio comprador pode usar a reserva numa compra ou liberá-la.
+     *
+     * @param usuarioId  O ID do comprador.
+     * @param eventoId   O ID do evento.
+     * @param quantidade O número de assentos.
+     * @return A reserva, ou vazio se o evento não existir ou não houver assentos suficientes.
+     */
+    public Optional<SeatHold> reservar(String usuarioId, String eventoId, int quantidade) {
+        return buscarEvento(eventoId)
+                .flatMap(evento -> reservas.hold(usuarioId, estoques.estoque(evento), quantidade));
+    }
+
+    /**
+     * Libera uma reserva temporária, devolvendo os assentos ao estoque.
+     *
+     * @param usuarioId O ID do comprador que fez a reserva.
+     * @param holdId    O ID da reserva.
+     * @return {@code true} se a reserva estava ativa e pertencia ao comprador.
+     */
+    public boolean liberarReserva(String usuarioId, String holdId) {
+        return reservas.release(holdId, usuarioId);
+    }
+
+    /**
+     * Compra ingressos de um evento, consumindo a reserva informada quando ela ainda for válida
+     * ou reservando os assentos no momento da compra. A gravação passa pelo commit agrupado, e os
+     * assentos são devolvidos ao estoque se ela falhar.
+     *
+     * @param usuarioId  O ID do comprador.
+     * @param eventoId   O ID do evento.
+     * @param quantidade O número de ingressos.
+     * @param holdId     O ID de uma reserva feita por {@link #reservar(String, String, int)}, ou {@code null}.
+     * @return Um futuro com o resultado da compra, completado com a exceção de gravação em caso de falha.
+     */
+    public CompletableFuture<ResultadoCompra> comprar(String usuarioId, String eventoId, int quantidade, String holdId) {
+        return comprar(usuarioId, eventoId, quantidade, holdId, null);
+    }
+
+    /**
+     * Compra ingressos como {@link #comprar(String, String, int, String)}, mas com uma chave de idempotência:
+     * repetir a compra com a mesma chave devolve o resultado da compra original, sem emitir novos ingressos
+     * nem gravar de novo. Uma compra que falhou ao gravar pode ser repetida com a mesma chave.
+     *
+     * @param usuarioId  O ID do comprador.
+     * @param eventoId   O ID do evento.
+     * @param quantidade O número de ingressos.
+     * @param holdId     O ID de uma reserva feita por {@link #reservar(String, String, int)}, ou {@code null}.
+     * @param chave      A chave de idempotência escolhida pelo cliente, ou {@code null} para não deduplicar.
+     * @return Um futuro com o resultado da compra, completado com a exceção de gravação em caso de falha.
+     * @throws IllegalArgumentException Se a quantidade não for positiva ou se a chave já tiver sido usada
+     *                                  numa compra de outro evento ou quantidade.
+     */
+    public CompletableFuture<ResultadoCompra> comprar(String usuarioId, String eventoId, int quantidade, String holdId,
+                                                      String chave) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("A quantidade deve ser positiva.");
+        }
+        if (chave == null) {
+            return comprarMedindo(usuarioId, eventoId, quantidade, holdId);
+        }
+        return compras.obter(usuarioId, chave, eventoId, quantidade,
+                () -> comprarMedindo(usuarioId, eventoId, quantidade, holdId));
+    }
+
+    private CompletableFuture<ResultadoCompra> comprarMedindo(String usuarioId, String eventoId, int quantidade, String holdId) {
+        PurchaseEvent evento = PurchaseEvent.iniciar(eventoId, quantidade, holdId != null);
+        long inicio = System.nanoTime();
+        return efetuarCompra(usuarioId, eventoId, quantidade, holdId).whenComplete((resultado, erro) -> {
+            latenciaCompra.registrarDesde(inicio);
+            if (evento != null) {
+                evento.concluir(erro != null ? "ERRO" : resultado.status().name());
+            }
+            if (erro != null) {
+                metricas.contador("compra.erro").increment();
+                return;
+            }
+            metricas.contador("compra." + resultado.status().name().toLowerCase(Locale.ROOT)).increment();
+            if (resultado.sucesso()) {
+                ingressosVendidos.add(quantidade);
+                metricas.contador("ingressos.vendidos." + eventoId).add(quantidade);
+            }
+        });
+    }
+
+    private CompletableFuture<ResultadoCompra> efetuarCompra(String usuarioId, String eventoId, int quantidade, String holdId) {
+        Optional<Evento> encontrado = buscarEvento(eventoId);
+        if (encontrado.isEmpty()) {
+            reservas.release(holdId, usuarioId);
+            return CompletableFuture.completedFuture(ResultadoCompra.recusada(ResultadoCompra.Status.EVENTO_INEXISTENTE, 0));
+        }
+        Evento evento = encontrado.get();
+        SeatInventory estoque = estoques.estoque(evento);
+        if (usuarioRepository.buscarPorId(usuarioId).isEmpty()) {
+            reservas.release(holdId, usuarioId);
+            return CompletableFuture.completedFuture(ResultadoCompra.recusada(ResultadoCompra.Status.USUARIO_INEXISTENTE, estoque.remaining()));
+        }
+
+        SeatHold confirmada = reservas.confirm(holdId, usuarioId).orElse(null);
+        if (confirmada != null && (confirmada.getEstoque() != estoque || confirmada.getQuantidade() != quantidade)) {
+            confirmada.getEstoque().release(confirmada.getQuantidade());
+            confirmada = null;
+        }
+        // Sem reserva válida (expirada ou nunca obtida), tenta reservar os assentos agora.
+        if (confirmada == null && !estoque.tryReserve(quantidade)) {
+            return CompletableFuture.completedFuture(ResultadoCompra.recusada(ResultadoCompra.Status.ESGOTADO, estoque.remaining()));
+        }
+
+        List<Ingresso> ingressos = new ArrayList<>(quantidade);
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < quantidade; i++) {
+            ingressos.add(new Ingresso(ids.next(), evento.getId(), usuarioId, PRECO_INGRESSO_CENTAVOS, agora));
+        }
+        return ingressoRepository.registrarCompraAgrupada(usuarioId, ingressos)
+                .whenComplete((ok, erro) -> {
+                    if (erro != null) {
+                        estoque.release(quantidade);
+                    }
+                })
+                .thenApply(ok -> new ResultadoCompra(ResultadoCompra.Status.SUCESSO, List.copyOf(ingressos), estoque.remaining()));
+    }
+
+    /**
+     * Lista os ingressos comprados por um usuário.
+     *
+     * @param usuarioId O ID do usuário.
+     * @return Os ingressos do usuário.
+     */
+    public List<Ingresso> listarIngressos(String usuarioId) {
+        return ingressoRepository.listarPorUsuario(usuarioId);
+    }
+}
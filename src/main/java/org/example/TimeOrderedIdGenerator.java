@@ -0,0 +1,113 @@
+package org.example;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Gerador de IDs ordenados pelo tempo, sem {@link SecureRandom} por ID e sem um contador compartilhado.
+ * <p>
+ * Cada thread usa uma de várias faixas independentes, escolhida pelo ID da thread. Cada faixa guarda,
+ * num único {@code long}, o último instante em milissegundos e uma sequência de 16 bits, avançados
+ * por CAS; faixas diferentes ficam em linhas de cache diferentes e não disputam entre si.
+ * Os IDs de uma mesma faixa são estritamente crescentes, mesmo se o relógio voltar.
+ * <p>
+ * <b>Limitação:</b> a ordem é garantida apenas dentro de cada faixa, não no nó inteiro. Dois IDs
+ * gerados por threads de faixas diferentes no mesmo milissegundo não têm ordem definida entre si, e
+ * uma faixa que esgotou a sequência ou viu o relógio voltar pode estar adiantada em relação às outras.
+ * Entre faixas os IDs são apenas aproximadamente ordenados pelo tempo. Quem precisar de ordem total no
+ * nó deve ordenar por outro campo ou usar um gerador com um contador único.
+ * <p>
+ * Layout (compatível com UUID versão 8, variante RFC 4122):
+ * <pre>
+ * alto:  48 bits de milissegundos | 4 bits de versão | 12 bits altos da sequência
+ * baixo: 2 bits de variante | 4 bits baixos da sequência | 6 bits da faixa | 16 bits do nó | 36 bits de sal
+ * </pre>
+ * O nó vem da propriedade {@code venda.no.id} (aleatório se ausente) e o sal é sorteado a cada
+ * inicialização, para que nós ou execuções diferentes não gerem IDs iguais.
+ *
+ * @author David Neves Dias
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final int BITS_SEQUENCIA = 16;
+
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private static final int FAIXAS = 64;
+
+    /** Distância entre faixas no array, para que cada uma ocupe sua própria linha de cache de 64 bytes. */
+    private static final int ESPACAMENTO = 8;
+
+    private static final long VERSAO = 0x8L << 12;
+
+    private static final long VARIANTE = 0x2L << 62;
+
+    private static final long MASCARA_SAL = (1L << 36) - 1;
+
+    private static TimeOrderedIdGenerator instance;
+
+    private final AtomicLongArray faixas = new AtomicLongArray(FAIXAS * ESPACAMENTO);
+
+    private final long noESal;
+
+    private final LongSupplier relogio;
+
+    /**
+     * Cria um gerador para o nó informado.
+     *
+     * @param no      O ID do nó, dos quais são usados os 16 bits menos significativos.
+     * @param sal     Bits aleatórios que distinguem esta execução, dos quais são usados 36.
+     * @param relogio A fonte do instante atual em milissegundos.
+     */
+    public TimeOrderedIdGenerator(int no, long sal, LongSupplier relogio) {
+        this.noESal = ((no & 0xFFFFL) << 36) | (sal & MASCARA_SAL);
+        this.relogio = relogio;
+    }
+
+    /**
+     * Retorna o gerador compartilhado, com o nó da propriedade {@code venda.no.id}.
+     *
+     * @return A instância do gerador.
+     */
+    public static synchronized TimeOrderedIdGenerator getInstance() {
+        if (instance == null) {
+            SecureRandom random = new SecureRandom();
+            int no = Integer.getInteger("venda.no.id", random.nextInt());
+            instance = new TimeOrderedIdGenerator(no, random.nextLong(), System::currentTimeMillis);
+        }
+        return instance;
+    }
+
+    @Override
+    public UUID next() {
+        int faixa = (int) (Thread.currentThread().threadId() & (FAIXAS - 1));
+        int indice = faixa * ESPACAMENTO;
+        long minimo = relogio.getAsLong() << BITS_SEQUENCIA;
+        long anterior;
+        long atual;
+        do {
+            anterior = faixas.get(indice);
+            // Se o relógio não avançou (ou voltou), continua a sequência do último ID; um estouro
+            // da sequência apenas empresta o milissegundo seguinte.
+            atual = Math.max(minimo, anterior + 1);
+        } while (!faixas.compareAndSet(indice, anterior, atual));
+
+        long milissegundos = atual >>> BITS_SEQUENCIA;
+        long sequencia = atual & MASCARA_SEQUENCIA;
+        long alto = (milissegundos << 16) | VERSAO | (sequencia >>> 4);
+        long baixo = VARIANTE | ((sequencia & 0xF) << 58) | ((long) faixa << 52) | noESal;
+        return new UUID(alto, baixo);
+    }
+
+    /**
+     * Extrai o instante de geração de um ID produzido por este gerador.
+     *
+     * @param id O ID.
+     * @return O instante, em milissegundos desde a época.
+     */
+    public static long instante(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
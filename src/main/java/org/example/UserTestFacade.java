@@ -1,8 +1,6 @@
 package org.example;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.UUID;
 
 /**
  * Classe responsável pela fachada de gerenciamento de usuários,
@@ -35,27 +33,24 @@ public class UserTestFacade {
      * @throws IOException Se ocorrer um erro ao acessar os arquivos.
      */
     private String getUserPropertyByEmail(String email, String property) throws IOException {
-        UsuarioManager usuarioManager = new UsuarioManager();
-        List<Usuario> usuarios = usuarioManager.lerConteudoArquivo();
-        for (Usuario usuario : usuarios) {
-            if (usuario.getEmail().equals(email)) {
-                switch (property) {
-                    case "login":
-                        return usuario.getLogin();
-                    case "name":
-                        return usuario.getNome();
-                    case "email":
-                        return usuario.getEmail();
-                    case "password":
-                        return usuario.getSenha();
-                    case "id":
-                        return usuario.getId();
-                    default:
-                        return null;
-                }
-            }
+        Usuario usuario = UsuarioRepository.getInstance().buscarPorEmail(email).orElse(null);
+        if (usuario == null) {
+            return null;
+        }
+        switch (property) {
+            case "login":
+                return usuario.getLogin();
+            case "name":
+                return usuario.getNome();
+            case "email":
+                return usuario.getEmail();
+            case "password":
+                return usuario.getSenha();
+            case "id":
+                return usuario.getId();
+            default:
+                return null;
         }
-        return null;
     }
 
 }
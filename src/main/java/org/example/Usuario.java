@@ -1,14 +1,12 @@
 package org.example;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
- * Classe que representa um usuário do sistema, contendo informações pessoais,
- * credenciais de login e a lista de ingressos comprados.
+ * Classe que representa um usuário do sistema, contendo informações pessoais
+ * e credenciais de login. Os ingressos comprados ficam no {@link IngressoRepository}.
  *
  * @author David Neves Dias
  */
@@ -22,8 +20,11 @@ public class Usuario {
 
     private String id;
 
-    /** Lista de ingressos comprados pelo usuário. */
-    List<Ingresso> ingressos = new ArrayList<>();
+    /**
+     * Ingressos aninhados no formato antigo do arquivo de usuários.
+     * Só é preenchido na leitura de arquivos antigos, até a migração para o {@link IngressoRepository}.
+     */
+    List<Ingresso> ingressos;
 
     /**
      * Construtor para criar um novo usuário com um ID.
@@ -44,6 +45,40 @@ public class Usuario {
         this.id = id;
     }
 
+    /**
+     * Construtor completo, usado pelos formatos de snapshot para restaurar um usuário gravado,
+     * inclusive o login, que não é definido pelo construtor público.
+     *
+     * @param login   O login do usuário.
+     * @param nome    O nome do usuário.
+     * @param senha   A senha armazenada do usuário.
+     * @param cpf     O CPF do usuário.
+     * @param email   O email do usuário.
+     * @param isadmin Indica se o usuário tem privilégios de administrador.
+     * @param id      O ID do usuário.
+     */
+    Usuario(String login, String nome, String senha, String cpf, String email, Boolean isadmin, String id) {
+        this(nome, senha, cpf, email, isadmin, id);
+        this.login = login;
+    }
+
+    /**
+     * Construtor de cópia, usado para tirar snapshots consistentes do usuário.
+     * Os ingressos legados, se houver, são copiados para que alterações posteriores não afetem a cópia.
+     *
+     * @param outro O usuário a ser copiado.
+     */
+    Usuario(Usuario outro) {
+        this.login = outro.login;
+        this.nome = outro.nome;
+        this.senha = outro.senha;
+        this.cpf = outro.cpf;
+        this.email = outro.email;
+        this.isadmin = outro.isadmin;
+        this.id = outro.id;
+        this.ingressos = outro.ingressos == null ? null : new ArrayList<>(outro.ingressos);
+    }
+
     /**
      * Obtém o login do usuário.
      *
@@ -109,13 +144,14 @@ public class Usuario {
 
     /**
      * Verifica se as credenciais de login estão corretas.
+     * A senha é conferida pelo {@link PasswordHasher}, com hash ou em texto puro (cadastros antigos).
      *
      * @param login O login a ser verificado.
      * @param senha A senha a ser verificada.
      * @return {@code true} se as credenciais estiverem corretas, caso contrário {@code false}.
      */
     public boolean login(String login, String senha) {
-        return this.login.equals(login) && this.senha.equals(senha);
+        return this.login.equals(login) && PasswordHasher.getInstance().verificar(senha, this.senha).join();
     }
 
     /**
@@ -158,33 +194,6 @@ public class Usuario {
         return this.email = email;
     }
 
-    /**
-     * Adiciona um ingresso à lista de ingressos do usuário.
-     *
-     * @param ingresso O ingresso a ser adicionado.
-     */
-    public void addIngresso(Ingresso ingresso) {
-        ingressos.add(ingresso);
-    }
-
-    /**
-     * Remove um ingresso da lista de ingressos do usuário.
-     *
-     * @param ingresso O ingresso a ser removido.
-     */
-    public void removeIngresso(Ingresso ingresso) {
-        ingressos.remove(ingresso);
-    }
-
-    /**
-     * Obtém a lista de ingressos do usuário.
-     *
-     * @return A lista de ingressos do usuário.
-     */
-    public List<Ingresso> getIngressos() {
-        return ingressos;
-    }
-
     /**
      * Verifica se este objeto é igual a outro.
      *
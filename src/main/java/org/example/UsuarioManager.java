@@ -1,88 +1,152 @@
 package org.example;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Classe responsável pela gestão de usuários, incluindo operações
  * de leitura e escrita em arquivos JSON.
+ * <p>
+ * Com a propriedade {@code venda.snapshot.formato=binario}, o snapshot é gravado no formato
+ * binário de {@link BinarySnapshot}, numa nova geração do arquivo {@code .snap} ao lado do JSON,
+ * e aberto por {@link #abrirSnapshotBinario()} sem ler os usuários.
  *
  * @author David Neves Dias
  */
 public class UsuarioManager {
-    private List<Usuario> listausuario;
+
+    private static final LatencyHistogram LEITURA = MetricsRegistry.getInstance().histograma("usuarios.snapshot.leitura");
+
+    private static final LatencyHistogram GRAVACAO = MetricsRegistry.getInstance().histograma("usuarios.snapshot.gravacao");
+
+    private final Path arquivo;
+
+    private final Path arquivoBinario;
+
+    private final boolean binario;
 
     /**
-     * Lê o conteúdo do arquivo JSON e retorna a lista de usuários.
+     * Cria o gerenciador usando o arquivo padrão {@code usuarios.json}.
+     */
+    public UsuarioManager() {
+        this(Path.of("usuarios.json"));
+    }
+
+    /**
+     * Cria o gerenciador usando o arquivo informado.
      *
-     * @return Lista de usuários lida do arquivo.
-     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     * @param arquivo O caminho do arquivo JSON de usuários.
      */
-    public List<Usuario> lerConteudoArquivo() throws IOException {
-        try {
-            FileReader fileReader = new FileReader("usuarios.json");
-            Type listType = new TypeToken<ArrayList<Usuario>>() {}.getType();
-            listausuario = new Gson().fromJson(fileReader, listType);
+    public UsuarioManager(Path arquivo) {
+        this(arquivo, BinarySnapshot.binarioConfigurado());
+    }
 
-            // Fecha o arquivo após a leitura
-            fileReader.close();
+    /**
+     * Cria o gerenciador usando o arquivo e o formato de snapshot informados.
+     *
+     * @param arquivo O caminho do arquivo JSON de usuários.
+     * @param binario Se o snapshot deve ser gravado no formato binário.
+     */
+    public UsuarioManager(Path arquivo, boolean binario) {
+        this.arquivo = arquivo;
+        this.arquivoBinario = BinarySnapshot.caminhoBinario(arquivo);
+        this.binario = binario;
+    }
 
-            // Verifica se a lista está vazia ou nula
-            if (listausuario == null) {
-                listausuario = new ArrayList<>();
-            }
+    /**
+     * Indica se o snapshot é gravado no formato binário.
+     *
+     * @return {@code true} no formato binário, {@code false} no JSON.
+     */
+    public boolean isBinario() {
+        return binario;
+    }
 
-        } catch (IOException e) {
-            // Se houver uma exceção, inicializa uma lista vazia
-            listausuario = new ArrayList<>();
-            throw e;  // Propaga a exceção para que o chamador saiba do erro
+    /**
+     * Mapeia a geração mais recente do snapshot binário, se o formato binário estiver configurado
+     * e alguma geração já existir, e apaga as gerações anteriores que não estiverem mais mapeadas.
+     *
+     * @return A visão do snapshot binário, ou vazio se ele deve ser lido do JSON.
+     * @throws IOException Se o arquivo existir mas não puder ser lido.
+     */
+    Optional<UsuarioSnapshotView> abrirSnapshotBinario() throws IOException {
+        if (!binario) {
+            return Optional.empty();
         }
+        Path atual = BinarySnapshot.geracaoAtual(arquivoBinario).orElse(null);
+        if (atual == null) {
+            return Optional.empty();
+        }
+        UsuarioSnapshotView view = UsuarioSnapshotView.abrir(atual);
+        BinarySnapshot.apagarGeracoesAnteriores(arquivoBinario, atual);
+        return Optional.of(view);
+    }
 
-        // Retorna a lista de usuários
-        return listausuario;
+    /**
+     * Lê o conteúdo do arquivo JSON e retorna a lista de usuários.
+     * Se o arquivo ainda não existir, retorna uma lista vazia.
+     *
+     * @return Lista de usuários lida do arquivo.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    public List<Usuario> lerConteudoArquivo() throws IOException {
+        List<Usuario> usuarios = new ArrayList<>();
+        lerUsuarios(usuarios::add);
+        return usuarios;
     }
 
     /**
-     * Adiciona um novo usuário ao arquivo JSON.
+     * Lê o arquivo JSON em streaming, entregando cada usuário ao consumidor assim que é lido.
      *
-     * @param name O nome do usuário.
-     * @param password A senha do usuário.
-     * @param cpf O CPF do usuário.
-     * @param email O email do usuário.
-     * @param isAdmin Indica se o usuário é um administrador.
-     * @param id O ID do usuário.
-     * @return true se o usuário foi adicionado com sucesso.
-     * @throws IOException Se ocorrer um erro ao escrever no arquivo.
+     * @param consumidor O destino de cada usuário lido.
+     * @return A quantidade de usuários lidos.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
      */
-    public boolean adicionarUsuarioNoArquivo(String name, String password, String cpf, String email, Boolean isAdmin, String id) throws IOException {
-        Usuario usuario = new Usuario(name, password, cpf, email, isAdmin, id);
-        lerConteudoArquivo();
-        listausuario.add(usuario);
-        String jsonUsuarios = new Gson().toJson(listausuario);
-        FileWriter fileWriter = new FileWriter("usuarios.json");
-        fileWriter.write(jsonUsuarios);
-        fileWriter.flush();
-        fileWriter.close();
-        return true;
+    public int lerUsuarios(Consumer<Usuario> consumidor) throws IOException {
+        StoreIoEvent evento = new StoreIoEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        int lidos = JsonSnapshot.ler(arquivo, Usuario.class, consumidor);
+        LEITURA.registrarDesde(inicio);
+        evento.concluir("usuarios", "leitura", false, arquivo, lidos);
+        MetricsRegistry.getInstance().valor("usuarios.snapshot.registros").set(lidos);
+        return lidos;
     }
 
     /**
-     * Salva a lista de usuários no arquivo JSON.
+     * Salva os usuários no arquivo JSON, ou numa nova geração do arquivo binário se esse for o
+     * formato configurado. A gravação é feita num arquivo temporário, que substitui o original
+     * atomicamente somente depois de sincronizado com o disco. A geração binária anterior continua
+     * válida para quem a mapeou, até que {@link #abrirSnapshotBinario()} a apague.
      *
-     * @param usuarios A lista de usuários a ser salva.
+     * @param usuarios Os usuários a serem salvos.
      * @throws IOException Se ocorrer um erro ao escrever no arquivo.
      */
-    public void salvarUsuarios(List<Usuario> usuarios) throws IOException {
-        try (FileWriter fileWriter = new FileWriter("usuarios.json")) {
-            String jsonUsuarios = new Gson().toJson(usuarios);
-            fileWriter.write(jsonUsuarios);
+    public void salvarUsuarios(Iterable<Usuario> usuarios) throws IOException {
+        StoreIoEvent evento = new StoreIoEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        int gravados;
+        Path destino;
+        if (binario) {
+            List<Usuario> lista = new ArrayList<>();
+            usuarios.forEach(lista::add);
+            destino = BinarySnapshot.proximaGeracao(arquivoBinario);
+            UsuarioSnapshotView.gravar(destino, lista);
+            gravados = lista.size();
+        } else {
+            gravados = JsonSnapshot.gravar(arquivo, Usuario.class, usuarios);
+            destino = arquivo;
         }
+        GRAVACAO.registrarDesde(inicio);
+        evento.concluir("usuarios", "gravacao", binario, destino, gravados);
+        MetricsRegistry metricas = MetricsRegistry.getInstance();
+        metricas.valor("usuarios.snapshot.registros").set(gravados);
+        metricas.valor("usuarios.snapshot.bytes").set(Files.size(destino));
     }
 }
@@ -0,0 +1,457 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repositório em memória dos usuários do sistema.
+ * Carrega o arquivo JSON uma única vez e mantém índices por ID, e-mail e CPF,
+ * de modo que as consultas não precisem reler nem percorrer o arquivo.
+ * As mutações são persistidas pelo journal de usuários (veja {@link JournaledRepository}).
+ * <p>
+ * No formato binário de snapshot, o arquivo é apenas mapeado em memória na inicialização
+ * (veja {@link UsuarioSnapshotView}): os índices em memória passam a ser uma camada sobre o
+ * snapshot, com os usuários cadastrados ou alterados depois dele e os que já foram consultados.
+ * Os demais são montados a partir do arquivo na primeira consulta. Depois de cada compactação,
+ * a nova geração do snapshot passa a ser a base, e a camada em memória fica só com os usuários
+ * alterados durante a gravação.
+ * <p>
+ * Os ingressos não fazem parte do usuário: ficam no {@link IngressoRepository}. Ingressos
+ * aninhados em arquivos antigos são mantidos apenas até serem migrados para lá.
+ *
+ * @author David Neves Dias
+ */
+public class UsuarioRepository extends JournaledRepository<Usuario> {
+
+    private static UsuarioRepository instance;
+
+    private final UsuarioManager usuarioManager;
+
+    private final Map<String, Usuario> porId = new ConcurrentHashMap<>();
+
+    private final Map<String, Usuario> porEmail = new ConcurrentHashMap<>();
+
+    private final Map<String, Usuario> porCpf = new ConcurrentHashMap<>();
+
+    /** Chaves indexadas de cada usuário, para remover entradas antigas quando e-mail ou CPF mudam. */
+    private final Map<String, Chaves> chavesPorId = new ConcurrentHashMap<>();
+
+    /** Snapshot binário mapeado sob os índices em memória, ou {@code null} se tudo foi lido para a memória. */
+    private volatile UsuarioSnapshotView base;
+
+    /** IDs registrados ou alterados desde a última cópia do estado para o snapshot. Protegido pelo monitor. */
+    private final Set<String> alteradosDesdeCopia = new HashSet<>();
+
+    /** Usuários que não estão no snapshot binário. */
+    private final AtomicInteger novos = new AtomicInteger();
+
+    /**
+     * Cria o repositório, carregando o snapshot e reaplicando os registros do journal.
+     *
+     * @param usuarioManager O gerenciador responsável pela leitura e escrita do snapshot.
+     * @param journal        O journal onde as mutações são registradas.
+     * @throws IOException Se ocorrer um erro ao ler os arquivos.
+     */
+    public UsuarioRepository(UsuarioManager usuarioManager, Journal journal) throws IOException {
+        super(journal);
+        this.usuarioManager = usuarioManager;
+        this.base = usuarioManager.abrirSnapshotBinario().orElse(null);
+        if (base == null) {
+            usuarioManager.lerUsuarios(this::indexar);
+            novos.set(porId.size());
+        }
+        recuperar();
+        if (base == null && usuarioManager.isBinario() && novos.get() > 0) {
+            // Primeira execução no formato binário: converte o snapshot JSON.
+            agendarCompactacao();
+        }
+    }
+
+    /**
+     * Retorna a instância compartilhada do repositório, carregando o arquivo na primeira chamada.
+     *
+     * @return A instância do repositório.
+     * @throws IOException Se ocorrer um erro ao ler o arquivo.
+     */
+    public static synchronized UsuarioRepository getInstance() throws IOException {
+        if (instance == null) {
+            instance = new UsuarioRepository(new UsuarioManager(), new Journal(Path.of("usuarios.journal")));
+        }
+        return instance;
+    }
+
+    /**
+     * Busca um usuário pelo seu ID.
+     *
+     * @param id O ID do usuário.
+     * @return O usuário encontrado, se existir.
+     */
+    public Optional<Usuario> buscarPorId(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Usuario usuario = porId.get(id);
+        UsuarioSnapshotView snapshot = base;
+        if (usuario != null || snapshot == null) {
+            return Optional.ofNullable(usuario);
+        }
+        return snapshot.buscarPorId(id).flatMap(gravado -> carregar(snapshot, gravado));
+    }
+
+    /**
+     * Busca um usuário pelo seu e-mail.
+     *
+     * @param email O e-mail do usuário.
+     * @return O usuário encontrado, se existir.
+     */
+    public Optional<Usuario> buscarPorEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Usuario usuario = porEmail.get(email);
+        UsuarioSnapshotView snapshot = base;
+        if (usuario != null || snapshot == null) {
+            return Optional.ofNullable(usuario);
+        }
+        // O snapshot pode ter o e-mail antigo de um usuário alterado depois dele.
+        return snapshot.buscarPorEmail(email)
+                .flatMap(gravado -> buscarPorId(gravado.getId()))
+                .filter(atual -> email.equals(atual.getEmail()));
+    }
+
+    /**
+     * Busca um usuário pelo seu CPF.
+     *
+     * @param cpf O CPF do usuário.
+     * @return O usuário encontrado, se existir.
+     */
+    public Optional<Usuario> buscarPorCpf(String cpf) {
+        if (cpf == null) {
+            return Optional.empty();
+        }
+        Usuario usuario = porCpf.get(cpf);
+        UsuarioSnapshotView snapshot = base;
+        if (usuario != null || snapshot == null) {
+            return Optional.ofNullable(usuario);
+        }
+        return snapshot.buscarPorCpf(cpf)
+                .flatMap(gravado -> buscarPorId(gravado.getId()))
+                .filter(atual -> cpf.equals(atual.getCpf()));
+    }
+
+    /**
+     * Retorna uma visão somente leitura de todos os usuários.
+     * Com um snapshot binário, monta os usuários que ainda não foram consultados.
+     *
+     * @return Os usuários do repositório.
+     */
+    public Collection<Usuario> listar() {
+        UsuarioSnapshotView snapshot = base;
+        if (snapshot == null) {
+            return Collections.unmodifiableCollection(porId.values());
+        }
+        List<Usuario> todos = mesclar(snapshot, false);
+        while (snapshot != base) {
+            // Uma compactação trocou a base durante a listagem e pode ter retirado usuários da memória.
+            snapshot = base;
+            todos = mesclar(snapshot, false);
+        }
+        return Collections.unmodifiableList(todos);
+    }
+
+    /**
+     * Retorna a quantidade de usuários.
+     *
+     * @return O número de usuários.
+     */
+    public synchronized int tamanho() {
+        return (base == null ? 0 : base.tamanho()) + novos.get();
+    }
+
+    /**
+     * Adiciona um novo usuário, registrando-o no journal e atualizando os índices.
+     *
+     * @param usuario O usuário a ser adicionado.
+     * @return {@code true} se o usuário foi adicionado, {@code false} se o ID, e-mail ou CPF já estiverem cadastrados.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    public synchronized boolean adicionar(Usuario usuario) throws IOException {
+        if (buscarPorId(usuario.getId()).isPresent()
+                || buscarPorEmail(usuario.getEmail()).isPresent()
+                || buscarPorCpf(usuario.getCpf()).isPresent()) {
+            return false;
+        }
+        registrar(JournalRecord.registro(usuario));
+        indexar(usuario);
+        novos.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Atualiza os dados cadastrais de um usuário, reindexando e-mail e CPF caso tenham mudado.
+     *
+     * @param usuario O usuário com os dados atualizados.
+     * @return {@code true} se o usuário foi atualizado, {@code false} se o novo e-mail ou CPF já pertencer a outro usuário.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     * @throws IllegalArgumentException Se o usuário não estiver cadastrado.
+     */
+    public synchronized boolean atualizar(Usuario usuario) throws IOException {
+        if (buscarPorId(usuario.getId()).isEmpty()) {
+            throw new IllegalArgumentException("Usuário não cadastrado: " + usuario.getId());
+        }
+        if (pertenceAOutro(buscarPorEmail(usuario.getEmail()), usuario.getId())
+                || pertenceAOutro(buscarPorCpf(usuario.getCpf()), usuario.getId())) {
+            return false;
+        }
+        Usuario dados = new Usuario(usuario);
+        dados.ingressos = null;
+        registrar(JournalRecord.atualizacao(dados));
+        aplicar(JournalRecord.atualizacao(new Usuario(usuario)));
+        return true;
+    }
+
+    /**
+     * Substitui a senha armazenada de um usuário, desde que ela ainda seja a esperada.
+     * Usado para trocar senhas em texto puro de cadastros antigos pelo seu hash.
+     *
+     * @param id       O ID do usuário.
+     * @param esperada A senha armazenada que está sendo substituída.
+     * @param nova     A nova senha a ser armazenada.
+     * @return {@code true} se a senha foi substituída, {@code false} se o usuário não existe ou a senha já mudou.
+     * @throws IOException Se ocorrer um erro ao escrever no journal.
+     */
+    public synchronized boolean substituirSenha(String id, String esperada, String nova) throws IOException {
+        Usuario existente = buscarPorId(id).orElse(null);
+        if (existente == null || !existente.getSenha().equals(esperada)) {
+            return false;
+        }
+        Usuario atualizado = new Usuario(existente);
+        atualizado.setSenha(nova);
+        return atualizar(atualizado);
+    }
+
+    /**
+     * Retorna os ingressos ainda aninhados nos usuários, vindos de arquivos no formato antigo.
+     *
+     * @return Os ingressos legados, agrupados pelo ID do usuário.
+     */
+    public synchronized Map<String, List<Ingresso>> ingressosLegados() {
+        Map<String, List<Ingresso>> legados = new HashMap<>();
+        for (Usuario usuario : porId.values()) {
+            if (usuario.ingressos != null && !usuario.ingressos.isEmpty()) {
+                legados.put(usuario.getId(), List.copyOf(usuario.ingressos));
+            }
+        }
+        return legados;
+    }
+
+    /**
+     * Descarta os ingressos aninhados nos usuários, depois que eles já foram migrados
+     * para o {@link IngressoRepository}, e agenda a regravação do snapshot sem eles.
+     */
+    public synchronized void descartarIngressosLegados() {
+        boolean havia = false;
+        for (Usuario usuario : porId.values()) {
+            if (usuario.ingressos != null) {
+                havia = true;
+                usuario.ingressos = null;
+            }
+        }
+        if (havia) {
+            agendarCompactacao();
+        }
+    }
+
+    @Override
+    protected List<Usuario> copiarEstado() {
+        alteradosDesdeCopia.clear();
+        if (base == null) {
+            return porId.values().stream().map(Usuario::new).toList();
+        }
+        return mesclar(base, true);
+    }
+
+    @Override
+    protected void gravarSnapshot(List<Usuario> copia) throws IOException {
+        usuarioManager.salvarUsuarios(copia);
+        if (usuarioManager.isBinario()) {
+            trocarBase(usuarioManager.abrirSnapshotBinario().orElseThrow());
+        }
+    }
+
+    /**
+     * Passa a usar a nova geração do snapshot binário como base e retira da camada em memória
+     * os usuários que ela já contém e que não foram alterados depois da cópia gravada nela.
+     *
+     * @param nova A visão da geração recém-gravada.
+     */
+    private synchronized void trocarBase(UsuarioSnapshotView nova) {
+        base = nova;
+        int fora = 0;
+        for (String id : List.copyOf(porId.keySet())) {
+            if (alteradosDesdeCopia.contains(id) || !nova.contemId(id)) {
+                fora++;
+            } else {
+                desindexar(id);
+                porId.remove(id);
+            }
+        }
+        novos.set(fora);
+    }
+
+    @Override
+    protected void aplicar(JournalRecord registro) {
+        switch (registro.tipo()) {
+            case REGISTRO -> {
+                if (buscarPorId(registro.usuario().getId()).isEmpty()) {
+                    indexar(registro.usuario());
+                    alteradosDesdeCopia.add(registro.usuario().getId());
+                    novos.incrementAndGet();
+                }
+            }
+            case ATUALIZACAO -> {
+                Usuario atualizado = registro.usuario();
+                Usuario existente = buscarPorId(atualizado.getId()).orElse(null);
+                if (existente != null) {
+                    atualizado.ingressos = existente.ingressos;
+                    desindexar(existente.getId());
+                    indexar(atualizado);
+                    alteradosDesdeCopia.add(atualizado.getId());
+                }
+            }
+            // Compras e reembolsos só aparecem aqui em journals gravados antes da separação
+            // dos ingressos; são aplicados aos ingressos legados para serem migrados depois.
+            case COMPRA -> {
+                Usuario usuario = buscarPorId(registro.usuarioId()).orElse(null);
+                if (usuario != null) {
+                    if (usuario.ingressos == null) {
+                        usuario.ingressos = new ArrayList<>();
+                    }
+                    for (Ingresso ingresso : registro.ingressos()) {
+                        if (usuario.ingressos.stream().noneMatch(i -> i.getId().equals(ingresso.getId()))) {
+                            usuario.ingressos.add(ingresso);
+                        }
+                    }
+                }
+            }
+            case REEMBOLSO -> {
+                Usuario usuario = buscarPorId(registro.usuarioId()).orElse(null);
+                if (usuario != null && usuario.ingressos != null) {
+                    usuario.ingressos.removeIf(i -> i.getId().equals(registro.ingressoId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Coloca nos índices em memória um usuário montado a partir do snapshot binário,
+     * a menos que outra thread já o tenha feito ou que ele tenha sido alterado enquanto era montado.
+     * Se uma compactação trocou a base nesse meio tempo, o usuário é buscado de novo na base atual,
+     * pois a geração antiga pode ter dados que a camada em memória já não guarda.
+     *
+     * @param origem  A geração do snapshot de onde o usuário foi montado.
+     * @param gravado O usuário montado a partir do snapshot.
+     * @return O usuário indexado.
+     */
+    private synchronized Optional<Usuario> carregar(UsuarioSnapshotView origem, Usuario gravado) {
+        Usuario existente = porId.get(gravado.getId());
+        if (existente != null) {
+            return Optional.of(existente);
+        }
+        if (origem != base) {
+            return buscarPorId(gravado.getId());
+        }
+        indexar(gravado);
+        return Optional.of(gravado);
+    }
+
+    /**
+     * Junta os usuários do snapshot binário com os dos índices em memória, que têm precedência.
+     * Os usuários do snapshot que ainda não foram consultados são montados mas não indexados.
+     *
+     * @param snapshot A geração do snapshot a ser mesclada.
+     * @param copiar   Se os usuários já indexados devem ser copiados.
+     * @return Todos os usuários.
+     */
+    private List<Usuario> mesclar(UsuarioSnapshotView snapshot, boolean copiar) {
+        List<Usuario> todos = new ArrayList<>(snapshot.tamanho() + novos.get());
+        for (int i = 0; i < snapshot.tamanho(); i++) {
+            Usuario carregado = porId.get(snapshot.id(i));
+            if (carregado == null) {
+                todos.add(snapshot.usuario(i));
+            } else {
+                todos.add(copiar ? new Usuario(carregado) : carregado);
+            }
+        }
+        for (Usuario usuario : porId.values()) {
+            if (!snapshot.contemId(usuario.getId())) {
+                todos.add(copiar ? new Usuario(usuario) : usuario);
+            }
+        }
+        return todos;
+    }
+
+    /**
+     * Verifica se uma chave secundária encontrada pertence a um usuário diferente do informado.
+     *
+     * @param encontrado O usuário encontrado pela chave, se houver.
+     * @param id         O ID do usuário que quer usar a chave.
+     * @return {@code true} se a chave já pertence a outro usuário.
+     */
+    private static boolean pertenceAOutro(Optional<Usuario> encontrado, String id) {
+        return encontrado.isPresent() && !encontrado.get().getId().equals(id);
+    }
+
+    /**
+     * Insere o usuário em todos os índices.
+     *
+     * @param usuario O usuário a ser indexado.
+     */
+    private void indexar(Usuario usuario) {
+        porId.put(usuario.getId(), usuario);
+        if (usuario.getEmail() != null) {
+            porEmail.put(usuario.getEmail(), usuario);
+        }
+        if (usuario.getCpf() != null) {
+            porCpf.put(usuario.getCpf(), usuario);
+        }
+        chavesPorId.put(usuario.getId(), new Chaves(usuario.getEmail(), usuario.getCpf()));
+    }
+
+    /**
+     * Remove as entradas de e-mail e CPF registradas para o ID informado.
+     *
+     * @param id O ID do usuário.
+     */
+    private void desindexar(String id) {
+        Chaves chaves = chavesPorId.remove(id);
+        if (chaves != null) {
+            if (chaves.email() != null) {
+                porEmail.remove(chaves.email());
+            }
+            if (chaves.cpf() != null) {
+                porCpf.remove(chaves.cpf());
+            }
+        }
+    }
+
+    /**
+     * Chaves secundárias com que um usuário foi indexado.
+     *
+     * @param email O e-mail indexado.
+     * @param cpf   O CPF indexado.
+     */
+    private record Chaves(String email, String cpf) {
+    }
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Snapshot binário de usuários, mapeado em memória (veja {@link BinarySnapshot}).
+ * Os usuários não são lidos na abertura: cada busca por ID, e-mail ou CPF faz uma busca binária
+ * no índice correspondente e só então monta o {@link Usuario} encontrado.
+ * <p>
+ * Cada registro guarda as referências de texto do ID, nome, senha, CPF, e-mail e login,
+ * mais um byte com o indicador de administrador.
+ *
+ * @author David Neves Dias
+ */
+final class UsuarioSnapshotView {
+
+    static final int TIPO = 1;
+
+    private static final int ID = 0;
+    private static final int NOME = 8;
+    private static final int SENHA = 16;
+    private static final int CPF = 24;
+    private static final int EMAIL = 32;
+    private static final int LOGIN = 40;
+    private static final int ADMIN = 48;
+    private static final int LARGURA = 56;
+
+    private static final int INDICE_ID = 0;
+    private static final int INDICE_EMAIL = 1;
+    private static final int INDICE_CPF = 2;
+
+    private static final byte ADMIN_NULO = 2;
+
+    private final BinarySnapshot.Leitor leitor;
+
+    private UsuarioSnapshotView(BinarySnapshot.Leitor leitor) {
+        this.leitor = leitor;
+    }
+
+    /**
+     * Mapeia o snapshot binário de usuários.
+     *
+     * @param arquivo O caminho do snapshot.
+     * @return A visão do snapshot.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um snapshot de usuários.
+     */
+    static UsuarioSnapshotView abrir(Path arquivo) throws IOException {
+        return new UsuarioSnapshotView(BinarySnapshot.Leitor.abrir(arquivo, TIPO));
+    }
+
+    /**
+     * Grava os usuários num snapshot binário, substituindo o arquivo anterior atomicamente.
+     *
+     * @param arquivo  O caminho do snapshot.
+     * @param usuarios Os usuários a serem gravados.
+     * @throws IOException Se ocorrer um erro ao escrever o arquivo, ou se algum usuário
+     *                     ainda tiver ingressos aninhados, que este formato não guarda.
+     */
+    static void gravar(Path arquivo, List<Usuario> usuarios) throws IOException {
+        BinarySnapshot.Escritor escritor = new BinarySnapshot.Escritor(TIPO, LARGURA, usuarios.size(), 3);
+        String[] ids = new String[usuarios.size()];
+        String[] emails = new String[usuarios.size()];
+        String[] cpfs = new String[usuarios.size()];
+        for (int i = 0; i < usuarios.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            if (usuario.ingressos != null && !usuario.ingressos.isEmpty()) {
+                throw new IOException("O usuário " + usuario.getId() + " ainda tem ingressos no formato antigo.");
+            }
+            escritor.putLong(i, ID, escritor.texto(usuario.getId()));
+            escritor.putLong(i, NOME, escritor.texto(usuario.getNome()));
+            escritor.putLong(i, SENHA, escritor.texto(usuario.getSenha()));
+            escritor.putLong(i, CPF, escritor.texto(usuario.getCpf()));
+            escritor.putLong(i, EMAIL, escritor.texto(usuario.getEmail()));
+            escritor.putLong(i, LOGIN, escritor.texto(usuario.getLogin()));
+            Boolean admin = usuario.isAdmin();
+            escritor.putByte(i, ADMIN, admin == null ? ADMIN_NULO : (byte) (admin ? 1 : 0));
+            ids[i] = usuario.getId();
+            emails[i] = usuario.getEmail();
+            cpfs[i] = usuario.getCpf();
+        }
+        escritor.indice(INDICE_ID, ids);
+        escritor.indice(INDICE_EMAIL, emails);
+        escritor.indice(INDICE_CPF, cpfs);
+        escritor.gravar(arquivo);
+    }
+
+    /**
+     * Retorna a quantidade de usuários do snapshot.
+     *
+     * @return O número de usuários.
+     */
+    int tamanho() {
+        return leitor.quantidade();
+    }
+
+    /**
+     * Verifica se o snapshot contém o ID informado, sem montar o usuário.
+     *
+     * @param id O ID do usuário.
+     * @return {@code true} se o ID estiver no snapshot.
+     */
+    boolean contemId(String id) {
+        return leitor.buscar(INDICE_ID, ID, id) >= 0;
+    }
+
+    Optional<Usuario> buscarPorId(String id) {
+        return montar(leitor.buscar(INDICE_ID, ID, id));
+    }
+
+    Optional<Usuario> buscarPorEmail(String email) {
+        return montar(leitor.buscar(INDICE_EMAIL, EMAIL, email));
+    }
+
+    Optional<Usuario> buscarPorCpf(String cpf) {
+        return montar(leitor.buscar(INDICE_CPF, CPF, cpf));
+    }
+
+    /**
+     * Retorna o ID do usuário de um registro, sem montar o usuário.
+     *
+     * @param registro O número do registro, de 0 a {@link #tamanho()} - 1.
+     * @return O ID do usuário.
+     */
+    String id(int registro) {
+        return leitor.texto(registro, ID);
+    }
+
+    /**
+     * Monta o usuário de um registro.
+     *
+     * @param registro O número do registro, de 0 a {@link #tamanho()} - 1.
+     * @return O usuário.
+     */
+    Usuario usuario(int registro) {
+        return montar(registro).orElseThrow();
+    }
+
+    private Optional<Usuario> montar(int registro) {
+        if (registro < 0) {
+            return Optional.empty();
+        }
+        byte admin = leitor.getByte(registro, ADMIN);
+        return Optional.of(new Usuario(
+                leitor.texto(registro, LOGIN),
+                leitor.texto(registro, NOME),
+                leitor.texto(registro, SENHA),
+                leitor.texto(registro, CPF),
+                leitor.texto(registro, EMAIL),
+                admin == ADMIN_NULO ? null : admin == 1,
+                leitor.texto(registro, ID)));
+    }
+}
@@ -0,0 +1,123 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do {@link IdempotencyCache}.
+ *
+ * @author David Neves Dias
+ */
+class IdempotencyCacheTest {
+
+    private static final ResultadoCompra SUCESSO = new ResultadoCompra(ResultadoCompra.Status.SUCESSO, List.of(), 5);
+
+    private final AtomicInteger compras = new AtomicInteger();
+
+    @Test
+    void repeticaoDaMesmaChaveRecebeOResultadoOriginal() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1));
+
+        CompletableFuture<ResultadoCompra> primeira = cache.obter("u1", "k", "e1", 2, concluida());
+        CompletableFuture<ResultadoCompra> repetida = cache.obter("u1", "k", "e1", 2, concluida());
+
+        assertSame(primeira, repetida);
+        assertSame(SUCESSO, repetida.join());
+        assertEquals(1, compras.get());
+
+        // A chave vale por usuário.
+        cache.obter("u2", "k", "e1", 2, concluida()).join();
+        assertEquals(2, compras.get());
+    }
+
+    @Test
+    void chaveReusadaNumaCompraDiferenteEhRecusada() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1));
+        cache.obter("u1", "k", "e1", 2, concluida()).join();
+
+        assertThrows(IllegalArgumentException.class, () -> cache.obter("u1", "k", "e2", 2, concluida()));
+        assertThrows(IllegalArgumentException.class, () -> cache.obter("u1", "k", "e1", 3, concluida()));
+        assertThrows(IllegalArgumentException.class, () -> cache.obter("u1", "k", null, 2, concluida()));
+        assertEquals(1, compras.get());
+    }
+
+    @Test
+    void entradaConcluidaExpiraDepoisDoTtl() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMillis(1));
+        cache.obter("u1", "k", "e1", 1, concluida()).join();
+        Thread.sleep(5);
+
+        cache.obter("u1", "k", "e1", 1, concluida()).join();
+
+        assertEquals(2, compras.get());
+    }
+
+    @Test
+    void compraEmAndamentoNaoExpira() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMillis(1));
+        CompletableFuture<ResultadoCompra> pendente = new CompletableFuture<>();
+        CompletableFuture<ResultadoCompra> primeira = cache.obter("u1", "k", "e1", 1, contando(() -> pendente));
+        Thread.sleep(5);
+
+        assertSame(primeira, cache.obter("u1", "k", "e1", 1, concluida()));
+        assertEquals(1, compras.get());
+    }
+
+    @Test
+    void compraQueFalhaEhEsquecida() {
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMinutes(1));
+
+        CompletableFuture<ResultadoCompra> falha = cache.obter("u1", "k", "e1", 1,
+                contando(() -> CompletableFuture.failedFuture(new IllegalStateException("journal"))));
+        assertTrue(falha.isCompletedExceptionally());
+        assertThrows(IllegalStateException.class, () -> cache.obter("u1", "k", "e1", 1, contando(() -> {
+            throw new IllegalStateException("recusada");
+        })));
+
+        assertSame(SUCESSO, cache.obter("u1", "k", "e1", 1, concluida()).join());
+        assertEquals(3, compras.get());
+        assertEquals(1, cache.tamanho());
+    }
+
+    @Test
+    void descarteAlemDaCapacidadePoupaComprasEmAndamento() {
+        IdempotencyCache cache = new IdempotencyCache(2, Duration.ofMinutes(1));
+        CompletableFuture<ResultadoCompra> pendente = new CompletableFuture<>();
+        CompletableFuture<ResultadoCompra> emAndamento = cache.obter("u1", "a", "e1", 1, contando(() -> pendente));
+        cache.obter("u1", "b", "e1", 1, concluida()).join();
+        cache.obter("u1", "c", "e1", 1, concluida()).join();
+        cache.obter("u1", "d", "e1", 1, concluida()).join();
+        assertEquals(4, compras.get());
+        assertEquals(2, cache.tamanho());
+
+        // "a" é a mais antiga, mas ainda está em andamento; "b" foi descartada no seu lugar.
+        assertSame(emAndamento, cache.obter("u1", "a", "e1", 1, concluida()));
+        assertEquals(4, compras.get());
+        cache.obter("u1", "b", "e1", 1, concluida()).join();
+        assertEquals(5, compras.get());
+
+        pendente.complete(SUCESSO);
+        assertSame(SUCESSO, emAndamento.join());
+    }
+
+    private Supplier<CompletableFuture<ResultadoCompra>> concluida() {
+        return contando(() -> CompletableFuture.completedFuture(SUCESSO));
+    }
+
+    private Supplier<CompletableFuture<ResultadoCompra>> contando(Supplier<CompletableFuture<ResultadoCompra>> compra) {
+        return () -> {
+            compras.incrementAndGet();
+            return compra.get();
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes da recuperação do {@link Journal} depois de uma queda durante a escrita.
+ *
+ * @author David Neves Dias
+ */
+class JournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void linhaFinalSemTerminadorEDescartadaMesmoSendoJsonValido() throws IOException {
+        Path arquivo = diretorio.resolve("ingressos.journal");
+        try (Journal journal = new Journal(arquivo)) {
+            journal.append(JournalRecord.reembolso("u1", "i1"));
+        }
+        // Uma queda deixou um registro completo, mas sem o \n final.
+        String interrompido = new com.google.gson.Gson().toJson(JournalRecord.reembolso("u1", "i2"));
+        Files.writeString(arquivo, interrompido, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (Journal journal = new Journal(arquivo)) {
+            assertEquals(List.of("i1"), reaplicar(journal));
+            journal.append(JournalRecord.reembolso("u1", "i3"));
+        }
+        try (Journal journal = new Journal(arquivo)) {
+            assertEquals(List.of("i1", "i3"), reaplicar(journal));
+        }
+    }
+
+    @Test
+    void linhaCorrompidaNoMeioDoArquivoFalha() throws IOException {
+        Path arquivo = diretorio.resolve("ingressos.journal");
+        try (Journal journal = new Journal(arquivo)) {
+            journal.append(JournalRecord.reembolso("u1", "i1"));
+        }
+        Files.writeString(arquivo, "{\"tipo\":\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        try (Journal journal = new Journal(arquivo)) {
+            journal.append(JournalRecord.reembolso("u1", "i2"));
+        }
+        try (Journal journal = new Journal(arquivo)) {
+            assertThrows(IOException.class, () -> reaplicar(journal));
+        }
+    }
+
+    private static List<String> reaplicar(Journal journal) throws IOException {
+        List<String> ids = new ArrayList<>();
+        journal.reaplicar(registro -> ids.add(registro.ingressoId()));
+        return ids;
+    }
+}
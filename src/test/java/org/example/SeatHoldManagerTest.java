@@ -0,0 +1,29 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do {@link SeatHoldManager}.
+ *
+ * @author David Neves Dias
+ */
+class SeatHoldManagerTest {
+
+    @Test
+    void somenteODonoConfirmaOuLiberaAReserva() {
+        SeatHoldManager reservas = new SeatHoldManager();
+        SeatInventory estoque = new SeatInventory("e1", 10, 0);
+        SeatHold reserva = reservas.hold("dono", estoque, 4).orElseThrow();
+
+        assertTrue(reservas.confirm(reserva.getId(), "outro").isEmpty());
+        assertFalse(reservas.release(reserva.getId(), "outro"));
+        assertEquals(6, estoque.remaining());
+
+        assertTrue(reservas.release(reserva.getId(), "dono"));
+        assertEquals(10, estoque.remaining());
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes do {@link SeatInventory} sob concorrência.
+ *
+ * @author David Neves Dias
+ */
+class SeatInventoryTest {
+
+    private static final int CAPACIDADE = 50;
+
+    private static final int COMPRADORES = 2_000;
+
+    @Test
+    void reservasConcorrentesNuncaPassamDaCapacidade() throws Exception {
+        SeatInventory estoque = new SeatInventory("e1", CAPACIDADE, 0);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> tentativas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < COMPRADORES; i++) {
+                tentativas.add(executor.submit(() -> {
+                    largada.await();
+                    return estoque.tryReserve(1);
+                }));
+            }
+            largada.countDown();
+            int reservados = 0;
+            for (Future<Boolean> tentativa : tentativas) {
+                if (tentativa.get()) {
+                    reservados++;
+                }
+            }
+            assertEquals(CAPACIDADE, reservados);
+            assertEquals(0, estoque.remaining());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes das compras do {@link TicketService} sobre repositórios num diretório temporário.
+ *
+ * @author David Neves Dias
+ */
+class TicketServiceTest {
+
+    private static final int CAPACIDADE = 20;
+
+    private static final int COMPRADORES = 500;
+
+    @TempDir
+    Path diretorio;
+
+    private Journal journalUsuarios;
+
+    private Journal journalIngressos;
+
+    private PasswordHasher hasher;
+
+    private IngressoRepository ingressos;
+
+    private TicketService service;
+
+    private Evento evento;
+
+    private List<String> usuarios;
+
+    @BeforeEach
+    void preparar() throws IOException {
+        List<Usuario> cadastrados = new ArrayList<>();
+        for (int i = 0; i < COMPRADORES; i++) {
+            cadastrados.add(new Usuario("Usuário " + i, "x", "cpf" + i, "u" + i + "@teste", false, "u" + i));
+        }
+        UsuarioManager usuarioManager = new UsuarioManager(diretorio.resolve("usuarios.json"), false);
+        usuarioManager.salvarUsuarios(cadastrados);
+        journalUsuarios = new Journal(diretorio.resolve("usuarios.journal"));
+        journalIngressos = new Journal(diretorio.resolve("ingressos.journal"));
+        UsuarioRepository usuarioRepository = new UsuarioRepository(usuarioManager, journalUsuarios);
+        ingressos = new IngressoRepository(new IngressoManager(diretorio.resolve("ingressos.json"), false), journalIngressos);
+        evento = new Evento("e1", "show", Instant.parse("2030-01-01T20:00:00Z"), CAPACIDADE,
+                Map.of("pt-BR", "Show"), Map.of("pt-BR", "Show"), "pt-BR");
+        hasher = new PasswordHasher(1, 16, 1000);
+        service = new TicketService(usuarioRepository, ingressos, new SeatInventoryRegistry(ingressos),
+                new SeatHoldManager(), hasher, new EventCatalog(List.of(evento), "pt-BR"), IdGenerator.padrao());
+        usuarios = cadastrados.stream().map(Usuario::getId).toList();
+    }
+
+    @AfterEach
+    void encerrar() throws IOException {
+        hasher.close();
+        journalIngressos.close();
+        journalUsuarios.close();
+    }
+
+    @Test
+    void comprasConcorrentesVendemExatamenteACapacidade() throws Exception {
+        long vendidosAntes = MetricsRegistry.getInstance().contador("ingressos.vendidos." + evento.getId()).sum();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ResultadoCompra>> compras = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (String usuarioId : usuarios) {
+                compras.add(executor.submit(() -> {
+                    largada.await();
+                    return service.comprar(usuarioId, evento.getId(), 1, null).join();
+                }));
+            }
+            largada.countDown();
+            int vendidos = 0;
+            for (Future<ResultadoCompra> compra : compras) {
+                ResultadoCompra resultado = compra.get();
+                if (resultado.sucesso()) {
+                    vendidos += resultado.ingressos().size();
+                } else {
+                    assertEquals(ResultadoCompra.Status.ESGOTADO, resultado.status());
+                }
+            }
+            assertEquals(CAPACIDADE, vendidos);
+        }
+        assertEquals(CAPACIDADE, ingressos.contarPorEvento(evento.getId()));
+        ResultadoCompra depois = service.comprar(usuarios.getFirst(), evento.getId(), 1, null).join();
+        assertEquals(ResultadoCompra.Status.ESGOTADO, depois.status());
+        assertEquals(0, depois.restantes());
+        assertEquals(0, service.assentosRestantes(evento));
+        assertEquals(CAPACIDADE, MetricsRegistry.getInstance().contador("ingressos.vendidos." + evento.getId()).sum() - vendidosAntes);
+    }
+
+    @Test
+    void compraDeEventoForaDoCatalogoNaoCriaMetricaDeVendas() {
+        ResultadoCompra resultado = service.comprar(usuarios.getFirst(), "inexistente", 1, null).join();
+
+        assertEquals(ResultadoCompra.Status.EVENTO_INEXISTENTE, resultado.status());
+        assertFalse(MetricsRegistry.getInstance().getContadores().containsKey("ingressos.vendidos.inexistente"));
+    }
+
+    @Test
+    void reembolsoDevolveOAssentoAoEstoque() throws IOException {
+        ResultadoCompra compra = service.comprar(usuarios.getFirst(), evento.getId(), CAPACIDADE, null).join();
+        assertTrue(compra.sucesso());
+        assertEquals(0, service.assentosRestantes(evento));
+
+        assertTrue(ingressos.reembolsar(compra.ingressos().getFirst().getId()));
+
+        assertEquals(1, service.assentosRestantes(evento));
+        assertTrue(service.comprar(usuarios.get(1), evento.getId(), 1, null).join().sucesso());
+        assertEquals(0, service.assentosRestantes(evento));
+    }
+
+    @Test
+    void reembolsoDeIngressoAntigoSemEventoNaoAlteraOEstoque() throws IOException {
+        assertEquals(CAPACIDADE, service.assentosRestantes(evento));
+        UUID id = UUID.randomUUID();
+        Ingresso legado = new Ingresso(id.getMostSignificantBits(), id.getLeastSignificantBits(), null,
+                usuarios.getFirst(), 5000, 0, "Show antigo", "01/01/2020");
+        ingressos.registrarCompra(usuarios.getFirst(), List.of(legado));
+
+        assertTrue(ingressos.reembolsar(legado.getId()));
+
+        assertTrue(ingressos.buscarPorId(legado.getId()).isEmpty());
+        assertEquals(CAPACIDADE, service.assentosRestantes(evento));
+    }
+}
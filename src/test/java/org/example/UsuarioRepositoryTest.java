@@ -0,0 +1,139 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes dos índices do {@link UsuarioRepository} sobre arquivos num diretório temporário.
+ *
+ * @author David Neves Dias
+ */
+class UsuarioRepositoryTest {
+
+    @TempDir
+    Path diretorio;
+
+    private Journal journal;
+
+    @AfterEach
+    void encerrar() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void atualizacaoNaoTomaEmailOuCpfDeOutroUsuario() throws IOException {
+        UsuarioRepository repositorio = abrir(List.of(
+                new Usuario("Ana", "x", "111", "ana@teste", false, "u1"),
+                new Usuario("Bia", "x", "222", "bia@teste", false, "u2")));
+
+        Usuario comEmailAlheio = new Usuario(repositorio.buscarPorId("u1").orElseThrow());
+        comEmailAlheio.setEmail("bia@teste");
+        assertFalse(repositorio.atualizar(comEmailAlheio));
+
+        Usuario comCpfAlheio = new Usuario(repositorio.buscarPorId("u1").orElseThrow());
+        comCpfAlheio.setCpf("222");
+        assertFalse(repositorio.atualizar(comCpfAlheio));
+
+        assertEquals("u2", repositorio.buscarPorEmail("bia@teste").orElseThrow().getId());
+        assertEquals("u2", repositorio.buscarPorCpf("222").orElseThrow().getId());
+        assertEquals("u1", repositorio.buscarPorEmail("ana@teste").orElseThrow().getId());
+
+        Usuario comEmailNovo = new Usuario(repositorio.buscarPorId("u1").orElseThrow());
+        comEmailNovo.setEmail("ana@novo");
+        assertTrue(repositorio.atualizar(comEmailNovo));
+        assertTrue(repositorio.buscarPorEmail("ana@teste").isEmpty());
+        assertEquals("u1", repositorio.buscarPorEmail("ana@novo").orElseThrow().getId());
+    }
+
+    @Test
+    void compactacaoBinariaGravaNovaGeracaoELeOsUsuariosDeNovo() throws IOException {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            usuarios.add(new Usuario("Usuário " + i, "x", "cpf" + i, "u" + i + "@teste", false, "u" + i));
+        }
+        Path json = diretorio.resolve("usuarios.json");
+        new UsuarioManager(json, true).salvarUsuarios(usuarios);
+        assertEquals(List.of("usuarios.1.snap"), snapshots());
+
+        journal = new Journal(diretorio.resolve("usuarios.journal"));
+        UsuarioRepository repositorio = new UsuarioRepository(new UsuarioManager(json, true), journal);
+        assertEquals(50, repositorio.tamanho());
+        assertEquals("u7", repositorio.buscarPorId("u7").orElseThrow().getId());
+        assertEquals("u8", repositorio.buscarPorEmail("u8@teste").orElseThrow().getId());
+        assertEquals("u9", repositorio.buscarPorCpf("cpf9").orElseThrow().getId());
+
+        assertTrue(repositorio.adicionar(new Usuario("Novo", "x", "cpf-novo", "novo@teste", false, "novo")));
+        Usuario alterado = new Usuario(repositorio.buscarPorId("u3").orElseThrow());
+        alterado.setEmail("u3@novo");
+        assertTrue(repositorio.atualizar(alterado));
+
+        repositorio.compactar();
+
+        // A geração anterior continuava mapeada; a nova não a substitui, e a anterior é apagada.
+        assertEquals(List.of("usuarios.2.snap"), snapshots());
+        assertLeituras(repositorio);
+
+        journal.close();
+        journal = new Journal(diretorio.resolve("usuarios.journal"));
+        assertLeituras(new UsuarioRepository(new UsuarioManager(json, true), journal));
+    }
+
+    @Test
+    void snapshotSemNumeroDoConversorEhAGeracaoZero() throws IOException {
+        Path json = diretorio.resolve("usuarios.json");
+        UsuarioSnapshotView.gravar(diretorio.resolve("usuarios.snap"),
+                List.of(new Usuario("Ana", "x", "111", "ana@teste", false, "u1")));
+
+        journal = new Journal(diretorio.resolve("usuarios.journal"));
+        UsuarioRepository repositorio = new UsuarioRepository(new UsuarioManager(json, true), journal);
+        assertEquals("u1", repositorio.buscarPorCpf("111").orElseThrow().getId());
+
+        repositorio.compactar();
+
+        assertEquals(List.of("usuarios.1.snap"), snapshots());
+        assertEquals("u1", repositorio.buscarPorEmail("ana@teste").orElseThrow().getId());
+    }
+
+    private static void assertLeituras(UsuarioRepository repositorio) {
+        assertEquals(51, repositorio.tamanho());
+        assertEquals(51, repositorio.listar().size());
+        assertEquals("novo", repositorio.buscarPorCpf("cpf-novo").orElseThrow().getId());
+        assertEquals("novo", repositorio.buscarPorEmail("novo@teste").orElseThrow().getId());
+        assertEquals("u3", repositorio.buscarPorEmail("u3@novo").orElseThrow().getId());
+        assertTrue(repositorio.buscarPorEmail("u3@teste").isEmpty());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("Usuário " + i, repositorio.buscarPorId("u" + i).orElseThrow().getNome());
+            assertEquals("u" + i, repositorio.buscarPorCpf("cpf" + i).orElseThrow().getId());
+        }
+    }
+
+    private List<String> snapshots() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.endsWith(".snap"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private UsuarioRepository abrir(List<Usuario> usuarios) throws IOException {
+        UsuarioManager manager = new UsuarioManager(diretorio.resolve("usuarios.json"), false);
+        manager.salvarUsuarios(usuarios);
+        journal = new Journal(diretorio.resolve("usuarios.journal"));
+        return new UsuarioRepository(manager, journal);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da gravação e das buscas binárias do {@link UsuarioSnapshotView}.
+ *
+ * @author David Neves Dias
+ */
+class UsuarioSnapshotViewTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravaMapeiaEEncontraCadaUsuarioPorIdEmailECpf() throws IOException {
+        List<Usuario> usuarios = new ArrayList<>();
+        // IDs fora de ordem, com prefixos comuns ("u1", "u10", "u100"), para exercitar a ordenação.
+        for (int i = 300; i >= 0; i--) {
+            usuarios.add(new Usuario("login" + i, "Usuário " + i, "senha" + i, String.format("%011d", i * 7),
+                    "u" + i + "@teste", i % 2 == 0, "u" + i));
+        }
+        usuarios.add(new Usuario(null, "José Ângelo", "s", "ção-cpf", "josé@exemplo.com.br", null, "ü-ñ"));
+        usuarios.add(new Usuario("Sem Chaves", "s", null, null, null, "sem-chaves"));
+        Path arquivo = diretorio.resolve("usuarios.snap");
+
+        UsuarioSnapshotView.gravar(arquivo, usuarios);
+        UsuarioSnapshotView view = UsuarioSnapshotView.abrir(arquivo);
+
+        assertEquals(usuarios.size(), view.tamanho());
+        for (Usuario esperado : usuarios) {
+            assertIgual(esperado, view.buscarPorId(esperado.getId()).orElseThrow());
+            if (esperado.getEmail() != null) {
+                assertIgual(esperado, view.buscarPorEmail(esperado.getEmail()).orElseThrow());
+            }
+            if (esperado.getCpf() != null) {
+                assertIgual(esperado, view.buscarPorCpf(esperado.getCpf()).orElseThrow());
+            }
+        }
+        for (int i = 0; i < view.tamanho(); i++) {
+            assertEquals(usuarios.get(i).getId(), view.id(i));
+            assertIgual(usuarios.get(i), view.usuario(i));
+        }
+
+        Usuario semChaves = view.buscarPorId("sem-chaves").orElseThrow();
+        assertNull(semChaves.getEmail());
+        assertNull(semChaves.getLogin());
+        assertFalse(view.contemId("u"));
+        assertFalse(view.contemId("u3000"));
+        assertTrue(view.buscarPorEmail("u1@teste.br").isEmpty());
+        assertTrue(view.buscarPorCpf("").isEmpty());
+    }
+
+    @Test
+    void snapshotVazioNaoEncontraNada() throws IOException {
+        Path arquivo = diretorio.resolve("vazio.snap");
+        UsuarioSnapshotView.gravar(arquivo, List.of());
+        UsuarioSnapshotView view = UsuarioSnapshotView.abrir(arquivo);
+
+        assertEquals(0, view.tamanho());
+        assertTrue(view.buscarPorId("u1").isEmpty());
+        assertTrue(view.buscarPorEmail("u1@teste").isEmpty());
+    }
+
+    private static void assertIgual(Usuario esperado, Usuario lido) {
+        assertEquals(esperado.getId(), lido.getId());
+        assertEquals(esperado.getLogin(), lido.getLogin());
+        assertEquals(esperado.getNome(), lido.getNome());
+        assertEquals(esperado.getSenha(), lido.getSenha());
+        assertEquals(esperado.getCpf(), lido.getCpf());
+        assertEquals(esperado.getEmail(), lido.getEmail());
+        assertEquals(esperado.isAdmin(), lido.isAdmin());
+    }
+}